@@ -1,5 +1,8 @@
 package com.aerolineaspc21;
 import com.aerolineaspc21.modelo.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -21,14 +24,24 @@ import java.util.ArrayList;
 public class AerolineasApp {
     private Grafo redVuelos;
     private Map<String, Vuelo> vuelosActivos; // Almacena vuelos por su código
+    private IndiceGlobalReservas indiceReservas; // Código de reserva -> (vuelo, reserva) de toda la flota
+    private static final int RESERVAS_POR_PAGINA = 50; // Reservas listadas en la consulta de ocupación
 
     public AerolineasApp() {
         this.redVuelos = new Grafo();
         this.redVuelos.cargarDatosIniciales(); // Carga las 7 ciudades y las aristas
         this.vuelosActivos = new HashMap<>();
+        this.indiceReservas = new IndiceGlobalReservas();
     }
 
     public static void main(String[] args) {
+        // Números de reserva que sobreviven a reinicios (el techo se guarda junto a la aplicación)
+        Path archivoSecuencia = Paths.get(System.getProperty("aerolineas.secuencia", "reservas.secuencia"));
+        try {
+            Reserva.setGeneradorIds(SecuenciaReservas.abrir(archivoSecuencia, 1000, SecuenciaReservas.TAMANO_BLOQUE_PREDETERMINADO));
+        } catch (IOException e) {
+            System.out.println("⚠️  No se pudo leer " + archivoSecuencia + ": los códigos de reserva no se conservarán.");
+        }
         AerolineasApp app = new AerolineasApp();
         app.mostrarMenu();
     }
@@ -48,6 +61,8 @@ public class AerolineasApp {
             System.out.println("  2. 🗺️  Consulta de Ruta Mínima (Algoritmo Dijkstra)");
             System.out.println("  3. 🎫 Reserva de Pasaje (Con asignación aleatoria balanceada)");
             System.out.println("  4. 📊 Consulta de Ocupación por Vuelo (AVL InOrder)");
+            System.out.println("  10. 🔎 Buscar Reserva por Código");
+            System.out.println("  11. ❌ Cancelar Reserva");
             System.out.println();
             System.out.println("🔍 HERRAMIENTAS DE DEMOSTRACIÓN:");
             System.out.println("  5. 🌐 Recorridos de Red (BFS/DFS)");
@@ -74,6 +89,8 @@ public class AerolineasApp {
                     case 7: listarVuelosActivos(); break;
                     case 8: testBalanceAsientos(); break;
                     case 9: verDatosEjemplo(); break;
+                    case 10: buscarReserva(scanner); break;
+                    case 11: cancelarReserva(scanner); break;
                     case 0: 
                         System.out.println("\n✈️  Gracias por usar Aerolíneas PC21. ¡Buen viaje! ✈️");
                         break;
@@ -88,6 +105,14 @@ public class AerolineasApp {
         scanner.close();
     }
 
+    /**
+     * Agrega el vuelo a los activos y al índice global de reservas.
+     */
+    private void registrarVuelo(Vuelo vuelo) {
+        vuelosActivos.put(vuelo.getCodigo(), vuelo);
+        indiceReservas.registrar(vuelo);
+    }
+
     private void imprimirSeparador() {
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
     }
@@ -111,7 +136,7 @@ public class AerolineasApp {
         String destino = scanner.nextLine();
         
         Vuelo nuevoVuelo = new Vuelo(codigo, origen, destino); 
-        vuelosActivos.put(codigo, nuevoVuelo);
+        registrarVuelo(nuevoVuelo);
         System.out.println("✅ Vuelo " + codigo + " creado exitosamente.");
         System.out.println("   📍 Ruta: " + origen + " → " + destino);
     }
@@ -128,40 +153,30 @@ public class AerolineasApp {
         String destino = scanner.nextLine();
 
         // Llama al método Dijkstra, que optimiza tiempo y desempata por precio
-        List<String> ruta = redVuelos.calcularRutaMinima(origen, destino);
+        Itinerario itinerario = redVuelos.calcularItinerario(origen, destino);
+        List<String> ruta = itinerario.getCiudades();
         
-        if (ruta == null || ruta.size() < 2) {
+        if (itinerario.getCantidadTramos() < 1) {
             System.out.println("❌ No se encontró una ruta válida de " + origen + " a " + destino + ".");
             return;
         }
 
-        double tiempoTotal = 0.0;
-        double precioBaseTotal = 0.0;
-        
         System.out.println("\n✅ RUTA ÓPTIMA ENCONTRADA:");
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         
-        for (int i = 0; i < ruta.size() - 1; i++) {
-            Vertice vOrigen = redVuelos.getVertice(ruta.get(i));
-            String nombreDestino = ruta.get(i + 1);
-            
-            // Buscar la arista para sumar tiempos y precios
-            for (Arista arista : vOrigen.getAdyacentes()) {
-                if (arista.getDestino().getNombre().equals(nombreDestino)) {
-                    tiempoTotal += arista.getTiempo();
-                    precioBaseTotal += arista.getPrecioBase();
-                    System.out.printf("  Tramo %d: %s → %s (%.1fh, ARS %.2f)\n", 
-                                    i + 1, ruta.get(i), nombreDestino, 
-                                    arista.getTiempo(), arista.getPrecioBase());
-                    break;
-                }
-            }
+        // Los tramos (aristas) ya vienen en el itinerario: no hace falta buscarlos en las adyacencias
+        List<Arista> tramos = itinerario.getTramos();
+        for (int i = 0; i < tramos.size(); i++) {
+            Arista arista = tramos.get(i);
+            System.out.printf("  Tramo %d: %s → %s (%.1fh, ARS %.2f)\n", 
+                            i + 1, ruta.get(i), ruta.get(i + 1), 
+                            arista.getTiempo(), arista.getPrecioBase());
         }
 
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         System.out.println("📍 Ruta Completa: " + String.join(" → ", ruta));
-        System.out.printf("⏱️  Tiempo Total: %.2f horas\n", tiempoTotal);
-        System.out.printf("💰 Precio Base Total: ARS %.2f\n", precioBaseTotal);
+        System.out.printf("⏱️  Tiempo Total: %.2f horas\n", itinerario.getTiempoTotal());
+        System.out.printf("💰 Precio Base Total: ARS %.2f\n", itinerario.getPrecioTotal());
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
     }
 
@@ -175,22 +190,24 @@ public class AerolineasApp {
         System.out.print("🏙️  Ciudad Destino: ");
         String destino = scanner.nextLine();
 
-        List<String> ruta = redVuelos.calcularRutaMinima(origen, destino);
+        Itinerario itinerario = redVuelos.calcularItinerario(origen, destino);
+        List<String> ruta = itinerario.getCiudades();
 
-        if (ruta == null || ruta.size() < 2) {
+        if (itinerario.getCantidadTramos() < 1) {
             System.out.println("❌ Ruta no encontrada.");
             return;
         }
         
-        boolean esDirecto = (ruta.size() == 2);
+        boolean esDirecto = itinerario.esDirecto();
         double precioFinal = 0.0;
         List<String> detallesReservas = new ArrayList<>();
-        List<Arista> tramosRuta = new ArrayList<>();
+        List<Arista> tramosRuta = itinerario.getTramos();
 
         System.out.println("\n🔄 Procesando reserva...");
         
-        // 1. Procesar tramos y asignar reservas (AVL)
-        for (int i = 0; i < ruta.size() - 1; i++) {
+        // 1. Retener un asiento en cada tramo y recién entonces confirmar todos (o liberar todos)
+        List<Vuelo> vuelosTramos = new ArrayList<>();
+        for (int i = 0; i < tramosRuta.size(); i++) {
             String ciudadOrigen = ruta.get(i);
             String ciudadDestino = ruta.get(i + 1);
             String codigoVueloTramo = "V" + ciudadOrigen.substring(0, 3).toUpperCase() + 
@@ -199,37 +216,28 @@ public class AerolineasApp {
             Vuelo vueloTramo = vuelosActivos.get(codigoVueloTramo);
             if (vueloTramo == null) {
                 vueloTramo = new Vuelo(codigoVueloTramo, ciudadOrigen, ciudadDestino);
-                vuelosActivos.put(codigoVueloTramo, vueloTramo);
+                registrarVuelo(vueloTramo);
             }
-            
-            // Obtener Arista para precio base
-            Vertice vOrigen = redVuelos.getVertice(ciudadOrigen);
-            Arista tramo = vOrigen.getAdyacentes().stream()
-                .filter(a -> a.getDestino().getNombre().equals(ciudadDestino))
-                .findFirst().orElse(null);
-
-            if (tramo == null) continue;
-            tramosRuta.add(tramo);
+            vuelosTramos.add(vueloTramo);
+        }
 
-            // Asignar asiento aleatorio balanceado (Lógica en Vuelo con Random)
-            String asiento = vueloTramo.asignarAsientoAleatorioBalanceado(); 
-            
-            if (asiento != null) {
-                Reserva nuevaReserva = new Reserva(asiento, ciudadOrigen, ciudadDestino, codigoVueloTramo);
-                vueloTramo.getReservas().insertar(nuevaReserva); 
-                
-                detallesReservas.add(String.format("  ✓ Vuelo %s: %s → %s | Asiento: %s | Código: %s", 
-                                                codigoVueloTramo, ciudadOrigen, ciudadDestino, 
-                                                asiento, nuevaReserva.getCodigoReserva()));
-            } else {
-                System.out.println("❌ ERROR: Vuelo " + codigoVueloTramo + " está lleno. Reserva fallida.");
-                return;
-            }
+        // Asientos aleatorios balanceados; si un tramo está lleno se devuelven los ya retenidos
+        ReservaMultitramo reservaTramos = ReservaMultitramo.retener(vuelosTramos);
+        if (reservaTramos.getVueloSinLugar() != null) {
+            System.out.println("❌ ERROR: Vuelo " + reservaTramos.getVueloSinLugar().getCodigo()
+                               + " está lleno. Reserva fallida (no se tomó ningún asiento).");
+            return;
+        }
+        for (Reserva nuevaReserva : reservaTramos.confirmar()) {
+            detallesReservas.add(String.format("  ✓ Vuelo %s: %s → %s | Asiento: %s | Código: %s", 
+                                            nuevaReserva.getCodigoVuelo(), nuevaReserva.getOrigen(), 
+                                            nuevaReserva.getDestino(), nuevaReserva.getAsientoCompleto(), 
+                                            nuevaReserva.getCodigoReserva()));
         }
         
         // 2. Cálculo del Precio Final usando ocupación real
         double ocupacionPromedio = 0.0;
-        for (int i = 0; i < ruta.size() - 1; i++) {
+        for (int i = 0; i < itinerario.getCantidadTramos(); i++) {
             String codigoVueloTramo = "V" + ruta.get(i).substring(0, 3).toUpperCase() + 
                                       ruta.get(i + 1).substring(0, 3).toUpperCase();
             Vuelo vuelo = vuelosActivos.get(codigoVueloTramo);
@@ -237,7 +245,7 @@ public class AerolineasApp {
                 ocupacionPromedio += vuelo.calcularOcupacionPorcentual();
             }
         }
-        ocupacionPromedio /= (ruta.size() - 1);
+        ocupacionPromedio /= itinerario.getCantidadTramos();
         
         precioFinal = CalculadoraPrecio.calcularPrecioFinal(tramosRuta, esDirecto, ocupacionPromedio);
         
@@ -273,7 +281,9 @@ public class AerolineasApp {
         mostrarDetallesOcupacion(vuelo);
     }
 
-    private void mostrarDetallesOcupacion(Vuelo vuelo) {
+    private void mostrarDetallesOcupacion(Vuelo vueloActivo) {
+        // El reporte se arma sobre una foto del vuelo: todas sus cifras son del mismo momento
+        InstantaneaVuelo vuelo = vueloActivo.instantanea();
         System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
         System.out.println("║         📊 OCUPACIÓN VUELO " + vuelo.getCodigo() + "                      ║");
         System.out.println("╚═══════════════════════════════════════════════════════════╝");
@@ -290,29 +300,37 @@ public class AerolineasApp {
         
         System.out.println("\n📊 Ocupación por Sección:");
         Map<Character, Integer> ocupacionSecciones = vuelo.getOcupacionPorSeccion();
-        for (char seccion = 'A'; seccion <= 'C'; seccion++) {
-            int ocupadosSeccion = ocupacionSecciones.get(seccion);
-            double porcentajeSeccion = (ocupadosSeccion / 10.0) * 100.0;
-            System.out.printf("  Sección %c: %d/10 asientos (%.0f%%) %s\n", 
-                            seccion, ocupadosSeccion, porcentajeSeccion, 
-                            generarBarraProgreso(ocupadosSeccion, 10));
+        for (Map.Entry<Character, Integer> entrada : ocupacionSecciones.entrySet()) {
+            char seccion = entrada.getKey();
+            int ocupadosSeccion = entrada.getValue();
+            int capacidadSeccion = vuelo.getCabina().getSeccion(seccion).getDisponibles();
+            double porcentajeSeccion = capacidadSeccion == 0 ? 0.0 : (ocupadosSeccion / (double) capacidadSeccion) * 100.0;
+            System.out.printf("  Sección %c: %d/%d asientos (%.0f%%) %s\n", 
+                            seccion, ocupadosSeccion, capacidadSeccion, porcentajeSeccion, 
+                            generarBarraProgreso(ocupadosSeccion, capacidadSeccion));
         }
         
         System.out.println("\n📋 Listado de Reservas (Recorrido InOrder del AVL):");
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        List<Reserva> reservas = vuelo.getReservas().inOrder();
+        // Solo se recorren los nodos de la primera página (tamaños de subárbol del AVL)
+        AVLPersistente arbolReservas = vuelo.getReservas();
+        List<Reserva> reservas = arbolReservas.inOrder(0, RESERVAS_POR_PAGINA);
         if (reservas.isEmpty()) {
             System.out.println("  (Sin reservas)");
         } else {
             for (Reserva r : reservas) {
                 System.out.println("  " + r.toString());
             }
+            int restantes = arbolReservas.tamano() - reservas.size();
+            if (restantes > 0) {
+                System.out.println("  ... y " + restantes + " reservas más");
+            }
         }
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
     }
 
     private String generarBarraProgreso(int ocupados, int total) {
-        int barras = (ocupados * 10) / total;
+        int barras = total == 0 ? 0 : (ocupados * 10) / total;
         StringBuilder sb = new StringBuilder("[");
         for (int i = 0; i < 10; i++) {
             sb.append(i < barras ? "█" : "░");
@@ -358,11 +376,11 @@ public class AerolineasApp {
         Vuelo vuelo3 = new Vuelo("AR103", "Buenos Aires", "Mendoza");
         Vuelo vuelo4 = new Vuelo("AR104", "Buenos Aires", "Santa Fe");
         Vuelo vuelo5 = new Vuelo("AR105", "Buenos Aires", "Posadas");
-        vuelosActivos.put("AR101", vuelo1);
-        vuelosActivos.put("AR102", vuelo2);
-        vuelosActivos.put("AR103", vuelo3);
-        vuelosActivos.put("AR104", vuelo4);
-        vuelosActivos.put("AR105", vuelo5);
+        registrarVuelo(vuelo1);
+        registrarVuelo(vuelo2);
+        registrarVuelo(vuelo3);
+        registrarVuelo(vuelo4);
+        registrarVuelo(vuelo5);
         System.out.println("✅ 5 vuelos creados exitosamente.\n");
 
         // Reservar pasajes en vuelos directos
@@ -383,7 +401,7 @@ public class AerolineasApp {
         System.out.println("🔄 Creando ruta con trasbordo (Buenos Aires → Bariloche → Santa Cruz)...");
         Vuelo vueloTramo1 = vuelosActivos.get("AR102");
         Vuelo vueloTramo2 = new Vuelo("AR201", "Bariloche", "Santa Cruz");
-        vuelosActivos.put("AR201", vueloTramo2);
+        registrarVuelo(vueloTramo2);
         
         String asientoTramo1 = vueloTramo1.asignarAsientoAleatorioBalanceado();
         if (asientoTramo1 != null) {
@@ -420,7 +438,8 @@ public class AerolineasApp {
         System.out.println("\nTotal de vuelos: " + vuelosActivos.size());
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         
-        for (Vuelo vuelo : vuelosActivos.values()) {
+        InstantaneaFlota flota = InstantaneaFlota.de(vuelosActivos.values());
+        for (InstantaneaVuelo vuelo : flota.getVuelos()) {
             int ocupados = vuelo.getTotalAsientosOcupados();
             int total = vuelo.getTotalAsientos();
             double porcentaje = vuelo.calcularOcupacionPorcentual();
@@ -437,6 +456,48 @@ public class AerolineasApp {
         System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
     }
 
+    // --- Opción 10: Búsqueda de Reserva por Código ---
+    private void buscarReserva(Scanner scanner) {
+        System.out.println("\n╔═══════════════════════════════════════╗");
+        System.out.println("║   🔎 BÚSQUEDA DE RESERVA             ║");
+        System.out.println("╚═══════════════════════════════════════╝");
+        System.out.print("📝 Código de Reserva (ej: RES-1000): ");
+        String codigo = scanner.nextLine().trim().toUpperCase();
+
+        // Índice global: O(1) sin recorrer los vuelos activos
+        IndiceGlobalReservas.Entrada entrada = indiceReservas.buscar(codigo);
+        if (entrada == null) {
+            System.out.println("❌ Reserva no encontrada.");
+            return;
+        }
+        Vuelo vuelo = entrada.getVuelo();
+        System.out.println("✅ " + entrada.getReserva());
+        System.out.println("   ✈️  Vuelo " + vuelo.getCodigo() + ": " + vuelo.getOrigen() + " → " + vuelo.getDestino());
+    }
+
+    // --- Opción 11: Cancelación de Reserva ---
+    private void cancelarReserva(Scanner scanner) {
+        System.out.println("\n╔═══════════════════════════════════════╗");
+        System.out.println("║   ❌ CANCELACIÓN DE RESERVA           ║");
+        System.out.println("╚═══════════════════════════════════════╝");
+        System.out.print("📝 Código de Reserva (ej: RES-1000): ");
+        String codigo = scanner.nextLine().trim().toUpperCase();
+
+        IndiceGlobalReservas.Entrada entrada = indiceReservas.buscar(codigo);
+        if (entrada == null) {
+            System.out.println("❌ Reserva no encontrada.");
+            return;
+        }
+        Vuelo vuelo = entrada.getVuelo();
+        Reserva cancelada = vuelo.cancelarReserva(entrada.getReserva().getNumeroReserva());
+        if (cancelada == null) {
+            System.out.println("❌ La reserva ya había sido cancelada.");
+            return;
+        }
+        System.out.println("✅ Reserva " + cancelada.getCodigoReserva() + " cancelada. Asiento "
+                           + cancelada.getAsientoCompleto() + " liberado en el vuelo " + vuelo.getCodigo() + ".");
+    }
+
     // --- Opción 8: Test de Balance de Asientos ---
     private void testBalanceAsientos() {
         System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
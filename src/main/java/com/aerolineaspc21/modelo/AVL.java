@@ -1,146 +1,443 @@
 package com.aerolineaspc21.modelo;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class AVL {
+/**
+ * Índice de reservas de un solo hilo, ordenado por número de reserva.
+ * Usa los mismos nodos que {@link AVLPersistente} y comparte con él las lecturas (rank, select,
+ * páginas y recorridos), pero escribe en el lugar: insertar y eliminar no recursan ni copian el
+ * camino, solo crean el nodo nuevo. Los recorridos son fail-fast, como los de las colecciones de Java.
+ *
+ * @see AVLConcurrente para la versión segura para varios hilos
+ */
+public class AVL implements Iterable<Reserva> {
+    private NodoAVLPersistente raiz;
+    private long claveMaxima; // Mayor número del árbol (para el camino rápido de inserción al final)
+    private NodoAVLPersistente[] camino = new NodoAVLPersistente[16]; // Camino desde la raíz (se reutiliza)
+    private final IndiceAsientos indiceAsientos = new IndiceAsientos(); // Asiento -> reserva
+    private int modificaciones; // Cambios estructurales (para detectar modificaciones durante un recorrido)
+    private int insercionesAlFinal; // Inserciones resueltas por el camino rápido
+
+    /**
+     * Busca la reserva que ocupa un asiento usando el índice secundario (O(1)).
+     * @param asiento Asiento completo (ej: "B7")
+     * @return Reserva del asiento o null si está libre o el formato no es válido
+     */
     public Reserva buscarPorAsiento(String asiento) {
-        return buscarPorAsiento(raiz, asiento);
+        if (asiento == null || asiento.length() < 2) return null;
+        int numero;
+        try {
+            numero = Integer.parseInt(asiento.substring(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return buscarPorAsiento(asiento.charAt(0), numero);
     }
-    private Reserva buscarPorAsiento(NodoAVL nodo, String asiento) {
-        if (nodo == null) return null;
-        if (nodo.reserva.getId().equals(asiento)) return nodo.reserva;
-        Reserva izq = buscarPorAsiento(nodo.izquierdo, asiento);
-        if (izq != null) return izq;
-        return buscarPorAsiento(nodo.derecho, asiento);
+
+    /**
+     * @param seccion Sección del asiento (ej: 'B')
+     * @param numero Número de asiento
+     * @return Reserva del asiento o null si está libre
+     */
+    public Reserva buscarPorAsiento(char seccion, int numero) {
+        return indiceAsientos.obtener(seccion, numero);
     }
 
+    /**
+     * Cantidad de reservas del árbol, en O(1) (tamaño del subárbol de la raíz).
+     * @return Cantidad de reservas
+     */
     public int contarNodos() {
-        return contarNodos(raiz);
+        return NodoAVLPersistente.tamano(raiz);
+    }
+
+    public int tamano() {
+        return NodoAVLPersistente.tamano(raiz);
     }
-    private int contarNodos(NodoAVL nodo) {
-        if (nodo == null) return 0;
-        return 1 + contarNodos(nodo.izquierdo) + contarNodos(nodo.derecho);
+
+    /**
+     * Posición (desde 0) que ocupa el código en el orden del árbol: cantidad de reservas con
+     * código menor. Si el código no está, es la posición en la que se insertaría. O(log n).
+     * @param codigo Código de reserva (ej: "RES-1500")
+     * @return Cantidad de reservas con código menor
+     * @throws IllegalArgumentException si el código no tiene el formato "RES-XXXX"
+     */
+    public int rank(String codigo) {
+        return rank(Reserva.parsearCodigo(codigo));
     }
-    private NodoAVL raiz;
 
-    public void insertar(Reserva reserva) {
-        raiz = insertar(raiz, reserva);
+    /**
+     * @param clave Número de reserva
+     * @return Cantidad de reservas con número menor
+     */
+    public int rank(long clave) {
+        return NodoAVLPersistente.rank(raiz, clave);
+    }
+
+    /**
+     * Reserva que ocupa la posición {@code k} (desde 0) en el orden del árbol. O(log n).
+     * @param k Posición
+     * @return Reserva en esa posición
+     * @throws IndexOutOfBoundsException si k no está entre 0 y tamano() - 1
+     */
+    public Reserva select(int k) {
+        if (k < 0 || k >= tamano()) {
+            throw new IndexOutOfBoundsException("Posición " + k + " fuera de rango (tamaño " + tamano() + ")");
+        }
+        return NodoAVLPersistente.select(raiz, k);
     }
 
-    private NodoAVL insertar(NodoAVL nodo, Reserva reserva) {
-        if (nodo == null) return new NodoAVL(reserva);
-        int cmp = reserva.getId().compareTo(nodo.reserva.getId());
-        if (cmp < 0) {
-            nodo.izquierdo = insertar(nodo.izquierdo, reserva);
-        } else if (cmp > 0) {
-            nodo.derecho = insertar(nodo.derecho, reserva);
+    /**
+     * Inserta la reserva (si su número no existe) de forma iterativa, guardando el camino desde
+     * la raíz para rebalancear al subir. Como los números se generan en orden creciente, el caso
+     * habitual es agregar un nuevo máximo: entonces se baja por la espina derecha sin comparar
+     * claves y el rebalanceo se corta en cuanto la altura de un subárbol deja de cambiar.
+     * @param reserva Reserva a insertar
+     */
+    public void insertar(Reserva reserva) {
+        long clave = reserva.getNumeroReserva();
+        if (raiz == null) {
+            raiz = new NodoAVLPersistente(reserva);
+            claveMaxima = clave;
         } else {
-            return nodo;
+            NodoAVLPersistente[] camino = camino(raiz.altura);
+            int tope = 0;
+            NodoAVLPersistente nodo = raiz;
+            if (clave > claveMaxima) {
+                // Camino rápido: nuevo máximo, va al final de la espina derecha
+                while (nodo != null) {
+                    camino[tope++] = nodo;
+                    nodo = nodo.derecho;
+                }
+                camino[tope - 1].derecho = new NodoAVLPersistente(reserva);
+                claveMaxima = clave;
+                insercionesAlFinal++;
+            } else {
+                while (nodo != null) {
+                    if (clave == nodo.clave) { // Número repetido: no se inserta
+                        Arrays.fill(camino, 0, tope, null);
+                        return;
+                    }
+                    camino[tope++] = nodo;
+                    nodo = clave < nodo.clave ? nodo.izquierdo : nodo.derecho;
+                }
+                NodoAVLPersistente padre = camino[tope - 1];
+                if (clave < padre.clave) {
+                    padre.izquierdo = new NodoAVLPersistente(reserva);
+                } else {
+                    padre.derecho = new NodoAVLPersistente(reserva);
+                }
+            }
+            rebalancearCamino(camino, tope, true);
         }
-        nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.derecho));
-        return balancear(nodo);
+        indiceAsientos.agregar(reserva);
+        modificaciones++;
     }
 
+    /**
+     * @param id Código de reserva (ej: "RES-1234")
+     * @return Reserva con ese código o null si no existe o el código no es válido
+     */
     public Reserva buscar(String id) {
-        NodoAVL nodo = buscar(raiz, id);
-        return nodo != null ? nodo.reserva : null;
+        try {
+            return buscar(Reserva.parsearCodigo(id));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    private NodoAVL buscar(NodoAVL nodo, String id) {
-        if (nodo == null) return null;
-        int cmp = id.compareTo(nodo.reserva.getId());
-        if (cmp < 0) return buscar(nodo.izquierdo, id);
-        if (cmp > 0) return buscar(nodo.derecho, id);
-        return nodo;
+    /**
+     * @param clave Número de reserva
+     * @return Reserva con ese número o null si no existe
+     */
+    public Reserva buscar(long clave) {
+        NodoAVLPersistente nodo = NodoAVLPersistente.buscar(raiz, clave);
+        return nodo != null ? nodo.reserva : null;
     }
 
+    /**
+     * Elimina la reserva con el código dado (si existe).
+     * @param id Código de reserva (ej: "RES-1234"); los códigos inválidos se ignoran
+     */
     public void eliminar(String id) {
-        raiz = eliminar(raiz, id);
+        long clave;
+        try {
+            clave = Reserva.parsearCodigo(id);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        eliminar(clave);
     }
 
-    private NodoAVL eliminar(NodoAVL nodo, String id) {
-        if (nodo == null) return null;
-        int cmp = id.compareTo(nodo.reserva.getId());
-        if (cmp < 0) {
-            nodo.izquierdo = eliminar(nodo.izquierdo, id);
-        } else if (cmp > 0) {
-            nodo.derecho = eliminar(nodo.derecho, id);
-        } else {
-            if (nodo.izquierdo == null || nodo.derecho == null) {
-                nodo = (nodo.izquierdo != null) ? nodo.izquierdo : nodo.derecho;
-            } else {
-                NodoAVL sucesor = minValorNodo(nodo.derecho);
-                nodo.reserva = sucesor.reserva;
-                nodo.derecho = eliminar(nodo.derecho, sucesor.reserva.getId());
-            }
+    /**
+     * Elimina la reserva con el número dado (si existe) de forma iterativa.
+     * @param clave Número de reserva
+     */
+    public void eliminar(long clave) {
+        if (raiz == null) return;
+        NodoAVLPersistente[] camino = camino(raiz.altura);
+        int tope = 0;
+        NodoAVLPersistente nodo = raiz;
+        while (nodo != null && nodo.clave != clave) {
+            camino[tope++] = nodo;
+            nodo = clave < nodo.clave ? nodo.izquierdo : nodo.derecho;
         }
-        if (nodo == null) return null;
-        nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.derecho));
-        return balancear(nodo);
-    }
+        if (nodo == null) {
+            Arrays.fill(camino, 0, tope, null);
+            return;
+        }
+        indiceAsientos.quitar(nodo.reserva);
 
-    private NodoAVL minValorNodo(NodoAVL nodo) {
-        while (nodo.izquierdo != null) nodo = nodo.izquierdo;
-        return nodo;
+        if (nodo.izquierdo != null && nodo.derecho != null) {
+            // Dos hijos: se copia el sucesor en el nodo y se elimina el sucesor (que no tiene hijo izquierdo)
+            camino[tope++] = nodo;
+            NodoAVLPersistente sucesor = nodo.derecho;
+            while (sucesor.izquierdo != null) {
+                camino[tope++] = sucesor;
+                sucesor = sucesor.izquierdo;
+            }
+            nodo.reserva = sucesor.reserva;
+            nodo.clave = sucesor.clave;
+            nodo = sucesor;
+        }
+        NodoAVLPersistente hijo = nodo.izquierdo != null ? nodo.izquierdo : nodo.derecho;
+        if (tope == 0) {
+            raiz = hijo;
+        } else if (camino[tope - 1].izquierdo == nodo) {
+            camino[tope - 1].izquierdo = hijo;
+        } else {
+            camino[tope - 1].derecho = hijo;
+        }
+        rebalancearCamino(camino, tope, false);
+        if (clave == claveMaxima && raiz != null) {
+            NodoAVLPersistente maximo = raiz;
+            while (maximo.derecho != null) maximo = maximo.derecho;
+            claveMaxima = maximo.clave;
+        }
+        modificaciones++;
     }
 
-    private int altura(NodoAVL nodo) {
-        return nodo == null ? 0 : nodo.altura;
+    /** Arreglo para el camino desde la raíz, con lugar para {@code altura} nodos. */
+    private NodoAVLPersistente[] camino(int altura) {
+        if (camino.length < altura) camino = new NodoAVLPersistente[altura * 2];
+        return camino;
     }
 
-    private int balance(NodoAVL nodo) {
-        return nodo == null ? 0 : altura(nodo.izquierdo) - altura(nodo.derecho);
+    /**
+     * Sube por el camino (de abajo hacia arriba) actualizando alturas y tamaños, rebalanceando y
+     * reenganchando cada subárbol en su padre. En una inserción, en cuanto un subárbol conserva su
+     * altura los ancestros ya no pueden desbalancearse y solo se ajusta su tamaño.
+     */
+    private void rebalancearCamino(NodoAVLPersistente[] camino, int tope, boolean insercion) {
+        for (int i = tope - 1; i >= 0; i--) {
+            NodoAVLPersistente nodo = camino[i];
+            camino[i] = null; // No retener nodos en el arreglo reutilizado
+            int alturaAnterior = nodo.altura;
+            nodo.actualizar();
+            NodoAVLPersistente subarbol = balancear(nodo);
+            if (i == 0) {
+                raiz = subarbol;
+            } else if (camino[i - 1].izquierdo == nodo) {
+                camino[i - 1].izquierdo = subarbol;
+            } else {
+                camino[i - 1].derecho = subarbol;
+            }
+            if (insercion && subarbol.altura == alturaAnterior) {
+                for (int j = i - 1; j >= 0; j--) {
+                    camino[j].tamano++;
+                    camino[j] = null;
+                }
+                return;
+            }
+        }
     }
 
-    private NodoAVL balancear(NodoAVL nodo) {
-        int balance = balance(nodo);
+    /** Rotación simple o doble en el lugar si el nodo quedó desbalanceado; devuelve la raíz del subárbol. */
+    private static NodoAVLPersistente balancear(NodoAVLPersistente nodo) {
+        int balance = NodoAVLPersistente.altura(nodo.izquierdo) - NodoAVLPersistente.altura(nodo.derecho);
         if (balance > 1) {
-            if (balance(nodo.izquierdo) < 0) {
-                nodo.izquierdo = rotacionIzquierda(nodo.izquierdo);
+            if (NodoAVLPersistente.altura(nodo.izquierdo.izquierdo) < NodoAVLPersistente.altura(nodo.izquierdo.derecho)) {
+                nodo.izquierdo = rotarIzquierda(nodo.izquierdo);
             }
-            return rotacionDerecha(nodo);
+            return rotarDerecha(nodo);
         }
         if (balance < -1) {
-            if (balance(nodo.derecho) > 0) {
-                nodo.derecho = rotacionDerecha(nodo.derecho);
+            if (NodoAVLPersistente.altura(nodo.derecho.derecho) < NodoAVLPersistente.altura(nodo.derecho.izquierdo)) {
+                nodo.derecho = rotarDerecha(nodo.derecho);
             }
-            return rotacionIzquierda(nodo);
+            return rotarIzquierda(nodo);
         }
         return nodo;
     }
 
-    private NodoAVL rotacionDerecha(NodoAVL y) {
-        NodoAVL x = y.izquierdo;
-        NodoAVL T2 = x.derecho;
+    private static NodoAVLPersistente rotarDerecha(NodoAVLPersistente y) {
+        NodoAVLPersistente x = y.izquierdo;
+        y.izquierdo = x.derecho;
         x.derecho = y;
-        y.izquierdo = T2;
-        y.altura = 1 + Math.max(altura(y.izquierdo), altura(y.derecho));
-        x.altura = 1 + Math.max(altura(x.izquierdo), altura(x.derecho));
+        y.actualizar();
+        x.actualizar();
         return x;
     }
 
-    private NodoAVL rotacionIzquierda(NodoAVL x) {
-        NodoAVL y = x.derecho;
-        NodoAVL T2 = y.izquierdo;
+    private static NodoAVLPersistente rotarIzquierda(NodoAVLPersistente x) {
+        NodoAVLPersistente y = x.derecho;
+        x.derecho = y.izquierdo;
         y.izquierdo = x;
-        x.derecho = T2;
-        x.altura = 1 + Math.max(altura(x.izquierdo), altura(x.derecho));
-        y.altura = 1 + Math.max(altura(y.izquierdo), altura(y.derecho));
+        x.actualizar();
+        y.actualizar();
         return y;
     }
 
+    /**
+     * Reemplaza el contenido del árbol por un lote de reservas ya ordenado por código
+     * (por ejemplo, al restaurar o migrar las reservas de un vuelo). Construye un árbol
+     * perfectamente balanceado en O(n), sin rotaciones.
+     * @param ordenadas Reservas en orden estrictamente creciente de código
+     * @throws IllegalArgumentException si el lote no está ordenado o tiene códigos repetidos
+     */
+    public void cargarOrdenado(List<Reserva> ordenadas) {
+        Reserva[] lote = ordenadas.toArray(new Reserva[0]);
+        for (int i = 1; i < lote.length; i++) {
+            if (lote[i - 1].getNumeroReserva() >= lote[i].getNumeroReserva()) {
+                throw new IllegalArgumentException("Lote no ordenado en la posición " + i + ": "
+                        + lote[i - 1].getCodigoReserva() + " >= " + lote[i].getCodigoReserva());
+            }
+        }
+        for (Reserva reserva : this) indiceAsientos.quitar(reserva);
+        raiz = NodoAVLPersistente.construir(lote, 0, lote.length);
+        for (Reserva reserva : lote) indiceAsientos.agregar(reserva);
+        if (lote.length > 0) claveMaxima = lote[lote.length - 1].getNumeroReserva();
+        modificaciones++;
+    }
+
+    /**
+     * @return Altura del árbol (0 si está vacío)
+     */
+    public int altura() {
+        return NodoAVLPersistente.altura(raiz);
+    }
+
     public List<Reserva> inOrder() {
-        List<Reserva> resultado = new ArrayList<>();
-        inOrder(raiz, resultado);
-        return resultado;
+        return AVLPersistente.inOrder(raiz, 0, tamano());
+    }
+
+    /**
+     * Página del recorrido InOrder: hasta {@code limite} reservas a partir de la posición
+     * {@code desplazamiento}. Baja directo a la primera posición usando los tamaños de subárbol,
+     * por lo que solo visita O(log n + limite) nodos.
+     * @param desplazamiento Posición de la primera reserva (desde 0)
+     * @param limite Cantidad máxima de reservas
+     * @return Reservas de la página, en orden
+     */
+    public List<Reserva> inOrder(int desplazamiento, int limite) {
+        return AVLPersistente.inOrder(raiz, desplazamiento, limite);
+    }
+
+    /**
+     * Iterador InOrder perezoso, sin copiar las reservas.
+     * Lanza {@link ConcurrentModificationException} si el árbol se modifica durante el recorrido.
+     * @return Iterador sobre las reservas en orden de código
+     */
+    @Override
+    public Iterator<Reserva> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Spliterator divisible por posición (usando los tamaños de subárbol), de modo que un stream
+     * paralelo reparte el árbol en mitades exactas entre los núcleos.
+     * @return Spliterator ORDERED, SIZED y SUBSIZED sobre las reservas
+     */
+    @Override
+    public Spliterator<Reserva> spliterator() {
+        return new SpliteratorVigilado(AVLPersistente.spliterator(raiz), modificaciones);
+    }
+
+    /**
+     * @return Stream secuencial de las reservas en orden (admite {@code .parallel()})
+     */
+    public Stream<Reserva> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Reservas con código entre {@code desde} y {@code hasta} (ambos inclusive), en orden.
+     * Ubica los extremos en O(log n) y recorre solo las reservas del rango.
+     * @param desde Código mínimo (ej: "RES-1500")
+     * @param hasta Código máximo (ej: "RES-2000")
+     * @return Stream de las reservas del rango
+     */
+    public Stream<Reserva> rango(String desde, String hasta) {
+        return rango(Reserva.parsearCodigo(desde), Reserva.parsearCodigo(hasta));
+    }
+
+    /**
+     * @param desde Número de reserva mínimo
+     * @param hasta Número de reserva máximo
+     * @return Stream de las reservas con número entre ambos (inclusive)
+     */
+    public Stream<Reserva> rango(long desde, long hasta) {
+        return StreamSupport.stream(new SpliteratorVigilado(AVLPersistente.spliteratorRango(raiz, desde, hasta), modificaciones), false);
+    }
+
+    /**
+     * @param desde Código mínimo
+     * @param hasta Código máximo
+     * @return Cantidad de reservas con código entre ambos (inclusive), en O(log n)
+     */
+    public int contarRango(String desde, String hasta) {
+        return AVLPersistente.contarRango(raiz, Reserva.parsearCodigo(desde), Reserva.parsearCodigo(hasta));
+    }
+
+    /**
+     * @return Cantidad de inserciones que tomaron el camino rápido (nuevo máximo al final)
+     */
+    int getInsercionesAlFinal() {
+        return insercionesAlFinal;
     }
 
-    private void inOrder(NodoAVL nodo, List<Reserva> resultado) {
-        if (nodo != null) {
-            inOrder(nodo.izquierdo, resultado);
-            resultado.add(nodo.reserva);
-            inOrder(nodo.derecho, resultado);
+    /**
+     * Recorre el árbol y falla si cambió desde que se pidió el recorrido (los nodos se modifican en
+     * el lugar, así que seguir recorriendo daría un resultado sin sentido).
+     */
+    private final class SpliteratorVigilado implements Spliterator<Reserva> {
+        private final Spliterator<Reserva> recorrido;
+        private final int modificacionesEsperadas;
+
+        SpliteratorVigilado(Spliterator<Reserva> recorrido, int modificacionesEsperadas) {
+            this.recorrido = recorrido;
+            this.modificacionesEsperadas = modificacionesEsperadas;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Reserva> accion) {
+            if (modificaciones != modificacionesEsperadas) throw new ConcurrentModificationException();
+            return recorrido.tryAdvance(accion);
+        }
+
+        @Override
+        public Spliterator<Reserva> trySplit() {
+            if (modificaciones != modificacionesEsperadas) throw new ConcurrentModificationException();
+            Spliterator<Reserva> prefijo = recorrido.trySplit();
+            return prefijo != null ? new SpliteratorVigilado(prefijo, modificacionesEsperadas) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return recorrido.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return recorrido.characteristics() & ~IMMUTABLE;
         }
     }
 }
@@ -0,0 +1,301 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Índice de reservas de un vuelo seguro para varios hilos.
+ * Publica en una referencia atómica la versión vigente de un {@link AVLPersistente}: cada escritura
+ * arma una versión nueva copiando solo el camino modificado y la instala con compare-and-set
+ * (si otro hilo se adelantó, reintenta sobre la versión más reciente).
+ * <p>
+ * Las lecturas nunca bloquean ni son bloqueadas: toman la versión vigente y trabajan sobre ella,
+ * que ya no cambia. Los recorridos (InOrder, iteradores, streams) ven una foto consistente del vuelo
+ * aunque sigan llegando reservas, y no lanzan {@link java.util.ConcurrentModificationException}.
+ * {@link #instantanea()} expone esa foto en O(1) y {@link #restaurar(AVLPersistente)} la reinstala.
+ * Los {@link ObservadorReservas} registrados reciben cada alta y baja una vez publicada. Como la
+ * publicación y el aviso no son atómicos, tras avisar se vuelve a leer la versión vigente y, si la
+ * reserva cambió de estado mientras tanto (otro hilo la quitó o la reinstaló), se repite el aviso
+ * que corresponde: el último aviso de cada reserva siempre coincide con la versión publicada.
+ *
+ * @see AVL para la versión de un solo hilo (sobre el mismo árbol persistente)
+ */
+public class AVLConcurrente implements Iterable<Reserva> {
+    private final AtomicReference<AVLPersistente> version = new AtomicReference<>(AVLPersistente.vacio());
+    private final IndiceAsientos indiceAsientos = new IndiceAsientos(); // Asiento -> reserva
+    private final List<ObservadorReservas> observadores = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param observador Observador a notificar en cada alta y baja de reserva
+     */
+    public void agregarObservador(ObservadorReservas observador) {
+        observadores.add(observador);
+    }
+
+    public void quitarObservador(ObservadorReservas observador) {
+        observadores.remove(observador);
+    }
+
+    /**
+     * Inserta la reserva si su número no existe. Sin bloqueos: reintenta si otro hilo escribió antes.
+     * @param reserva Reserva a insertar
+     * @return true si se insertó, false si ya había una reserva con ese número
+     */
+    public boolean insertar(Reserva reserva) {
+        while (true) {
+            AVLPersistente actual = version.get();
+            AVLPersistente nueva = actual.insertar(reserva);
+            if (nueva == actual) return false;
+            if (version.compareAndSet(actual, nueva)) {
+                agregada(reserva);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Elimina la reserva con el código dado (si existe).
+     * @param id Código de reserva (ej: "RES-1234"); los códigos inválidos se ignoran
+     * @return Reserva eliminada o null si no existía
+     */
+    public Reserva eliminar(String id) {
+        long clave;
+        try {
+            clave = Reserva.parsearCodigo(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return eliminar(clave);
+    }
+
+    /**
+     * @param clave Número de reserva
+     * @return Reserva eliminada o null si no existía
+     */
+    public Reserva eliminar(long clave) {
+        while (true) {
+            AVLPersistente actual = version.get();
+            Reserva reserva = actual.buscar(clave);
+            if (reserva == null) return null;
+            if (version.compareAndSet(actual, actual.eliminar(clave))) {
+                eliminada(reserva);
+                return reserva;
+            }
+        }
+    }
+
+    /**
+     * Elimina un lote de reservas publicando una sola versión nueva (un solo compare-and-set en
+     * lugar de uno por reserva). Los números que no existen se ignoran.
+     * @param claves Números de reserva
+     * @return Reservas eliminadas, en el orden de {@code claves}
+     */
+    public List<Reserva> eliminarTodas(Collection<Long> claves) {
+        while (true) {
+            AVLPersistente actual = version.get();
+            AVLPersistente nueva = actual;
+            List<Reserva> eliminadas = new ArrayList<>();
+            for (long clave : claves) {
+                Reserva reserva = nueva.buscar(clave);
+                if (reserva == null) continue;
+                nueva = nueva.eliminar(clave);
+                eliminadas.add(reserva);
+            }
+            if (nueva == actual || version.compareAndSet(actual, nueva)) {
+                for (Reserva reserva : eliminadas) eliminada(reserva);
+                return eliminadas;
+            }
+        }
+    }
+
+    /**
+     * Versión vigente de las reservas, en O(1). No cambia aunque el vuelo siga recibiendo reservas.
+     * @return Instantánea inmutable de las reservas
+     */
+    public AVLPersistente instantanea() {
+        return version.get();
+    }
+
+    /**
+     * Reinstala una versión anterior (por ejemplo, para deshacer un lote de reservas), actualiza
+     * el índice de asientos y avisa a los observadores de cada reserva que aparece o desaparece.
+     * @param anterior Versión a reinstalar, obtenida con {@link #instantanea()}
+     */
+    public void restaurar(AVLPersistente anterior) {
+        AVLPersistente reemplazada = version.getAndSet(anterior);
+        for (Reserva reserva : reemplazada) {
+            if (anterior.buscar(reserva.getNumeroReserva()) != reserva) eliminada(reserva);
+        }
+        for (Reserva reserva : anterior) {
+            if (reemplazada.buscar(reserva.getNumeroReserva()) != reserva) {
+                agregada(reserva);
+            } else {
+                indiceAsientos.agregar(reserva, this::vigente); // Pudo haberla pisado otra reserva del mismo asiento
+            }
+        }
+    }
+
+    private void agregada(Reserva reserva) {
+        avisar(reserva, true);
+    }
+
+    private void eliminada(Reserva reserva) {
+        avisar(reserva, false);
+    }
+
+    /**
+     * Actualiza el índice de asientos y avisa a los observadores hasta que el último aviso coincida
+     * con la versión publicada (ver la descripción de la clase).
+     */
+    private void avisar(Reserva reserva, boolean agregada) {
+        while (true) {
+            if (agregada) {
+                indiceAsientos.agregar(reserva, this::vigente);
+                for (ObservadorReservas observador : observadores) observador.reservaAgregada(reserva);
+            } else {
+                indiceAsientos.quitar(reserva);
+                for (ObservadorReservas observador : observadores) observador.reservaEliminada(reserva);
+            }
+            if (vigente(reserva) == agregada) return;
+            agregada = !agregada;
+        }
+    }
+
+    /**
+     * @return true si la reserva (esta misma instancia) está en la versión vigente
+     */
+    private boolean vigente(Reserva reserva) {
+        return version.get().buscar(reserva.getNumeroReserva()) == reserva;
+    }
+
+    /**
+     * @param id Código de reserva (ej: "RES-1234")
+     * @return Reserva con ese código o null si no existe o el código no es válido
+     */
+    public Reserva buscar(String id) {
+        return version.get().buscar(id);
+    }
+
+    /**
+     * @param clave Número de reserva
+     * @return Reserva con ese número o null si no existe
+     */
+    public Reserva buscar(long clave) {
+        return version.get().buscar(clave);
+    }
+
+    /**
+     * Busca la reserva que ocupa un asiento usando el índice secundario.
+     * @param asiento Asiento completo (ej: "B7")
+     * @return Reserva del asiento o null si está libre o el formato no es válido
+     */
+    public Reserva buscarPorAsiento(String asiento) {
+        if (asiento == null || asiento.length() < 2) return null;
+        int numero;
+        try {
+            numero = Integer.parseInt(asiento.substring(1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return buscarPorAsiento(asiento.charAt(0), numero);
+    }
+
+    /**
+     * El índice se actualiza justo después de publicar cada versión, así que se confirma contra el
+     * árbol que la reserva indexada siga vigente (una eliminación concurrente pudo ganarle al índice).
+     * @param seccion Sección del asiento (ej: 'B')
+     * @param numero Número de asiento
+     * @return Reserva del asiento o null si está libre
+     */
+    public Reserva buscarPorAsiento(char seccion, int numero) {
+        Reserva reserva = indiceAsientos.obtener(seccion, numero);
+        return reserva != null && vigente(reserva) ? reserva : null;
+    }
+
+    /**
+     * @return Cantidad de reservas de la versión vigente, en O(1)
+     */
+    public int contarNodos() {
+        return version.get().tamano();
+    }
+
+    public int tamano() {
+        return version.get().tamano();
+    }
+
+    /**
+     * @return Altura del árbol (0 si está vacío)
+     */
+    public int altura() {
+        return version.get().altura();
+    }
+
+    /**
+     * @param codigo Código de reserva (ej: "RES-1500")
+     * @return Cantidad de reservas con código menor
+     * @throws IllegalArgumentException si el código no tiene el formato "RES-XXXX"
+     */
+    public int rank(String codigo) {
+        return rank(Reserva.parsearCodigo(codigo));
+    }
+
+    /**
+     * @param clave Número de reserva
+     * @return Cantidad de reservas con número menor
+     */
+    public int rank(long clave) {
+        return version.get().rank(clave);
+    }
+
+    /**
+     * @param k Posición (desde 0)
+     * @return Reserva en esa posición
+     * @throws IndexOutOfBoundsException si k no está entre 0 y tamano() - 1
+     */
+    public Reserva select(int k) {
+        return version.get().select(k);
+    }
+
+    public List<Reserva> inOrder() {
+        return version.get().inOrder();
+    }
+
+    /**
+     * Página del recorrido InOrder de la versión vigente, en O(log n + limite).
+     * @param desplazamiento Posición de la primera reserva (desde 0)
+     * @param limite Cantidad máxima de reservas
+     * @return Reservas de la página, en orden
+     */
+    public List<Reserva> inOrder(int desplazamiento, int limite) {
+        return version.get().inOrder(desplazamiento, limite);
+    }
+
+    /**
+     * @return Iterador sobre la versión vigente al momento de llamarlo
+     */
+    @Override
+    public Iterator<Reserva> iterator() {
+        return version.get().iterator();
+    }
+
+    /**
+     * @return Spliterator divisible por posición sobre la versión vigente (IMMUTABLE)
+     */
+    @Override
+    public Spliterator<Reserva> spliterator() {
+        return version.get().spliterator();
+    }
+
+    /**
+     * @return Stream secuencial de las reservas en orden (admite {@code .parallel()})
+     */
+    public Stream<Reserva> stream() {
+        return version.get().stream();
+    }
+}
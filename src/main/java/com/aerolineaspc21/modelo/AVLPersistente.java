@@ -0,0 +1,270 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * AVL de reservas inmutable (persistente): insertar o eliminar no modifica el árbol, devuelve una
+ * versión nueva que comparte con la anterior todo salvo el camino modificado (O(log n) nodos nuevos).
+ * Cualquier versión sigue siendo válida para siempre, por lo que sirve como instantánea de un
+ * momento dado: se puede recorrer, exportar o volver a instalar sin copiar el árbol ni frenar
+ * las escrituras.
+ *
+ * @see AVLConcurrente para el índice mutable que publica estas versiones
+ */
+public final class AVLPersistente implements Iterable<Reserva> {
+    private static final AVLPersistente VACIO = new AVLPersistente(null);
+
+    private final NodoAVLPersistente raiz;
+
+    private AVLPersistente(NodoAVLPersistente raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * @return Árbol sin reservas
+     */
+    public static AVLPersistente vacio() {
+        return VACIO;
+    }
+
+    /**
+     * Arma un árbol perfectamente balanceado en O(n) a partir de reservas ya ordenadas.
+     * @param ordenadas Reservas en orden estrictamente creciente de código
+     * @return Árbol con esas reservas
+     * @throws IllegalArgumentException si el lote no está ordenado o tiene códigos repetidos
+     */
+    public static AVLPersistente desdeOrdenadas(List<Reserva> ordenadas) {
+        Reserva[] lote = ordenadas.toArray(new Reserva[0]);
+        for (int i = 1; i < lote.length; i++) {
+            if (lote[i - 1].getNumeroReserva() >= lote[i].getNumeroReserva()) {
+                throw new IllegalArgumentException("Lote no ordenado en la posición " + i + ": "
+                        + lote[i - 1].getCodigoReserva() + " >= " + lote[i].getCodigoReserva());
+            }
+        }
+        return lote.length == 0 ? VACIO : new AVLPersistente(NodoAVLPersistente.construir(lote, 0, lote.length));
+    }
+
+    /**
+     * @param reserva Reserva a insertar
+     * @return Versión con la reserva, o este mismo árbol si su número ya existía
+     */
+    public AVLPersistente insertar(Reserva reserva) {
+        NodoAVLPersistente nueva = NodoAVLPersistente.insertar(raiz, reserva);
+        return nueva == raiz ? this : new AVLPersistente(nueva);
+    }
+
+    /**
+     * @param clave Número de reserva
+     * @return Versión sin la reserva, o este mismo árbol si no existía
+     */
+    public AVLPersistente eliminar(long clave) {
+        NodoAVLPersistente nueva = NodoAVLPersistente.eliminar(raiz, clave);
+        if (nueva == raiz) return this;
+        return nueva == null ? VACIO : new AVLPersistente(nueva);
+    }
+
+    /**
+     * @param id Código de reserva (ej: "RES-1234"); los códigos inválidos se ignoran
+     * @return Versión sin la reserva, o este mismo árbol si no existía
+     */
+    public AVLPersistente eliminar(String id) {
+        try {
+            return eliminar(Reserva.parsearCodigo(id));
+        } catch (IllegalArgumentException e) {
+            return this;
+        }
+    }
+
+    /**
+     * @param clave Número de reserva
+     * @return Reserva con ese número o null si no existe
+     */
+    public Reserva buscar(long clave) {
+        NodoAVLPersistente nodo = NodoAVLPersistente.buscar(raiz, clave);
+        return nodo != null ? nodo.reserva : null;
+    }
+
+    /**
+     * @param id Código de reserva (ej: "RES-1234")
+     * @return Reserva con ese código o null si no existe o el código no es válido
+     */
+    public Reserva buscar(String id) {
+        try {
+            return buscar(Reserva.parsearCodigo(id));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean estaVacio() {
+        return raiz == null;
+    }
+
+    public int tamano() {
+        return NodoAVLPersistente.tamano(raiz);
+    }
+
+    /**
+     * @return Altura del árbol (0 si está vacío)
+     */
+    public int altura() {
+        return NodoAVLPersistente.altura(raiz);
+    }
+
+    /**
+     * @param clave Número de reserva
+     * @return Cantidad de reservas con número menor
+     */
+    public int rank(long clave) {
+        return NodoAVLPersistente.rank(raiz, clave);
+    }
+
+    /**
+     * @param k Posición (desde 0)
+     * @return Reserva en esa posición
+     * @throws IndexOutOfBoundsException si k no está entre 0 y tamano() - 1
+     */
+    public Reserva select(int k) {
+        if (k < 0 || k >= tamano()) {
+            throw new IndexOutOfBoundsException("Posición " + k + " fuera de rango (tamaño " + tamano() + ")");
+        }
+        return NodoAVLPersistente.select(raiz, k);
+    }
+
+    public List<Reserva> inOrder() {
+        return inOrder(0, tamano());
+    }
+
+    /**
+     * Página del recorrido InOrder, en O(log n + limite).
+     * @param desplazamiento Posición de la primera reserva (desde 0)
+     * @param limite Cantidad máxima de reservas
+     * @return Reservas de la página, en orden
+     */
+    public List<Reserva> inOrder(int desplazamiento, int limite) {
+        return inOrder(raiz, desplazamiento, limite);
+    }
+
+    @Override
+    public Iterator<Reserva> iterator() {
+        return new NodoAVLPersistente.Cursor(raiz, 0);
+    }
+
+    /**
+     * @return Spliterator divisible por posición (IMMUTABLE: la versión no cambia nunca)
+     */
+    @Override
+    public Spliterator<Reserva> spliterator() {
+        return new SpliteratorVersion(raiz, 0, tamano());
+    }
+
+    /**
+     * @return Stream secuencial de las reservas en orden (admite {@code .parallel()})
+     */
+    public Stream<Reserva> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Reservas con número entre {@code desde} y {@code hasta} (ambos inclusive), en orden.
+     * Ubica los extremos en O(log n) y recorre solo las reservas del rango.
+     * @param desde Número de reserva mínimo
+     * @param hasta Número de reserva máximo
+     * @return Stream de las reservas del rango
+     */
+    public Stream<Reserva> rango(long desde, long hasta) {
+        return StreamSupport.stream(spliteratorRango(raiz, desde, hasta), false);
+    }
+
+    /**
+     * @param desde Número de reserva mínimo
+     * @param hasta Número de reserva máximo
+     * @return Cantidad de reservas con número entre ambos (inclusive), en O(log n)
+     */
+    public int contarRango(long desde, long hasta) {
+        return contarRango(raiz, desde, hasta);
+    }
+
+    // Lecturas sobre un subárbol cualquiera, compartidas con el árbol mutable de AVL
+
+    static List<Reserva> inOrder(NodoAVLPersistente raiz, int desplazamiento, int limite) {
+        int tamano = NodoAVLPersistente.tamano(raiz);
+        List<Reserva> resultado = new ArrayList<>(Math.max(0, Math.min(limite, tamano - desplazamiento)));
+        if (desplazamiento < 0 || limite <= 0 || desplazamiento >= tamano) return resultado;
+        Iterator<Reserva> it = new NodoAVLPersistente.Cursor(raiz, desplazamiento);
+        while (it.hasNext() && resultado.size() < limite) {
+            resultado.add(it.next());
+        }
+        return resultado;
+    }
+
+    static int contarRango(NodoAVLPersistente raiz, long desde, long hasta) {
+        return Math.max(0, rankHasta(raiz, hasta) - NodoAVLPersistente.rank(raiz, desde));
+    }
+
+    static Spliterator<Reserva> spliterator(NodoAVLPersistente raiz) {
+        return new SpliteratorVersion(raiz, 0, NodoAVLPersistente.tamano(raiz));
+    }
+
+    static Spliterator<Reserva> spliteratorRango(NodoAVLPersistente raiz, long desde, long hasta) {
+        int inicio = NodoAVLPersistente.rank(raiz, desde);
+        return new SpliteratorVersion(raiz, inicio, Math.max(inicio, rankHasta(raiz, hasta)));
+    }
+
+    /** Cantidad de reservas con número menor o igual a {@code clave}. */
+    private static int rankHasta(NodoAVLPersistente raiz, long clave) {
+        return NodoAVLPersistente.rank(raiz, clave) + (NodoAVLPersistente.buscar(raiz, clave) != null ? 1 : 0);
+    }
+
+    /**
+     * Recorre las posiciones [desde, hasta) de una versión del árbol. Se divide por la mitad
+     * usando los tamaños de subárbol mientras no haya empezado a avanzar.
+     */
+    private static final class SpliteratorVersion implements Spliterator<Reserva> {
+        private final NodoAVLPersistente raiz;
+        private int desde;
+        private final int hasta;
+        private NodoAVLPersistente.Cursor cursor;
+
+        SpliteratorVersion(NodoAVLPersistente raiz, int desde, int hasta) {
+            this.raiz = raiz;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Reserva> accion) {
+            if (desde >= hasta) return false;
+            if (cursor == null) cursor = new NodoAVLPersistente.Cursor(raiz, desde);
+            desde++;
+            accion.accept(cursor.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<Reserva> trySplit() {
+            if (cursor != null) return null;
+            int medio = (desde + hasta) >>> 1;
+            if (medio <= desde) return null;
+            Spliterator<Reserva> prefijo = new SpliteratorVersion(raiz, desde, medio);
+            desde = medio;
+            return prefijo;
+        }
+
+        @Override
+        public long estimateSize() {
+            return hasta - desde;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | DISTINCT | IMMUTABLE;
+        }
+    }
+}
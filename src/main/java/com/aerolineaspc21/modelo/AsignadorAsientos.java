@@ -0,0 +1,322 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estado de ocupación de los asientos de un vuelo en mapas de bits, seguro para varios hilos y sin
+ * bloqueos: por sección, palabras de un {@link AtomicLongArray} (bit i de la palabra w = asiento
+ * 64 * w + i + 1) y un contador de ocupados en un {@link AtomicIntegerArray}.
+ * Los asientos bloqueados de la {@link DistribucionCabina} quedan fuera de la máscara de vendibles.
+ * <p>
+ * Asignar tiene dos pasos con compare-and-set:
+ * <ol>
+ *   <li>Reservar lugar en una sección: se leen los contadores (a lo sumo 26), se elige al azar entre
+ *       las secciones con lugar y ocupación mínima {@code m}, y se pasa su contador de {@code m} a
+ *       {@code m + 1}. Si otro hilo lo cambió antes, se vuelve a leer. Como los contadores solo
+ *       crecen mientras se asigna, que el CAS acierte prueba que la sección seguía siendo mínima,
+ *       así que la diferencia entre secciones con lugar nunca supera 1, aun con muchos hilos.
+ *       Una cancelación ({@link #liberar(int, int)}) puede abrirla momentáneamente; las asignaciones
+ *       siguientes van a la sección que quedó más vacía hasta cerrarla.</li>
+ *   <li>Tomar un asiento libre al azar de esa sección y encenderlo con CAS sobre su palabra. Si otro
+ *       hilo gana la palabra, se reintenta con el estado nuevo. Entre asignaciones el lugar reservado
+ *       en el contador garantiza un bit libre; solo {@link #ocupar(int, int)} (que enciende el bit
+ *       antes de contarlo) puede llevarse el último. En ese caso se devuelve el lugar al contador y
+ *       se vuelve al paso 1 sin esa sección.</li>
+ * </ol>
+ * Las palabras de cada sección y los contadores se separan en líneas de caché distintas para que las
+ * secciones no se estorben entre sí.
+ * <p>
+ * Elegir la sección es un recorrido lineal, no un montículo ni cubetas por ocupación: una cabina tiene
+ * a lo sumo {@link DistribucionCabina#MAXIMO_SECCIONES} (26) secciones, así que son como mucho 26
+ * lecturas de contadores contiguos y una máscara de 64 bits, costo acotado por una constante. Un
+ * montículo compartido pediría mover varias entradas a la vez, cosa que no se puede hacer con un CAS
+ * por contador sin volver a los cerrojos. Tomar el asiento recorre las palabras de su sección
+ * (asientos / 64), lo que sigue siendo poco aun con cientos de asientos por sección.
+ * <p>
+ * En un solo hilo consume los números aleatorios en el mismo orden que la implementación original
+ * con colecciones (sección entre las empatadas en orden A, B, C..., luego asiento entre los libres en
+ * orden de número), así que con la misma semilla y la cabina estándar entrega la misma secuencia.
+ */
+class AsignadorAsientos {
+    private static final int BITS_NUMERO = 10; // Índice de asiento: seccion << BITS_NUMERO | numero
+    private static final int MASCARA_NUMERO = (1 << BITS_NUMERO) - 1;
+    private static final int PALABRAS_POR_LINEA = 8; // 64 bytes de longs
+    private static final int ENTEROS_POR_LINEA = 16; // 64 bytes de ints
+
+    private final DistribucionCabina cabina;
+    private final int secciones;
+    private final int[] disponibles; // Asientos vendibles por sección
+    private final long[][] vendibles; // Bits de asientos existentes y no bloqueados
+    private final int[] inicio; // Primera palabra de cada sección en ocupados
+    private final AtomicLongArray ocupados;
+    private final AtomicIntegerArray ocupacion; // Contador de la sección s en s * ENTEROS_POR_LINEA
+    private final int[] inicioCopia; // Primera palabra de cada sección en copiarOcupados(), más el total al final
+
+    AsignadorAsientos(DistribucionCabina cabina) {
+        this.cabina = cabina;
+        this.secciones = cabina.getCantidadSecciones();
+        this.disponibles = new int[secciones];
+        this.vendibles = new long[secciones][];
+        this.inicio = new int[secciones];
+        this.inicioCopia = new int[secciones + 1];
+        int palabras = 0;
+        for (int s = 0; s < secciones; s++) {
+            DistribucionCabina.Seccion seccion = cabina.getSeccion(s);
+            int asientos = seccion.getAsientos();
+            long[] bits = new long[(asientos + Long.SIZE - 1) / Long.SIZE];
+            for (int w = 0; w < bits.length; w++) {
+                int enPalabra = Math.min(Long.SIZE, asientos - w * Long.SIZE);
+                bits[w] = enPalabra == Long.SIZE ? -1L : (1L << enPalabra) - 1;
+            }
+            for (int numero : seccion.getBloqueados()) bits[(numero - 1) / Long.SIZE] &= ~(1L << (numero - 1));
+            vendibles[s] = bits;
+            disponibles[s] = seccion.getDisponibles();
+            inicio[s] = palabras;
+            inicioCopia[s + 1] = inicioCopia[s] + bits.length;
+            palabras += (bits.length + PALABRAS_POR_LINEA - 1) / PALABRAS_POR_LINEA * PALABRAS_POR_LINEA;
+        }
+        this.ocupados = new AtomicLongArray(palabras);
+        this.ocupacion = new AtomicIntegerArray(secciones * ENTEROS_POR_LINEA);
+    }
+
+    /**
+     * Asigna un asiento libre de una sección con ocupación mínima (desempate al azar) y, dentro de
+     * ella, un asiento libre al azar. Se puede llamar desde varios hilos a la vez.
+     * @param random Generador a usar (debe poder compartirse si lo usan varios hilos)
+     * @return Índice del asiento (ver {@link #nombre(int)}) o -1 si está lleno
+     */
+    int asignarBalanceado(Random random) {
+        long excluidas = 0; // Secciones que se quedaron sin bits libres en este intento
+        while (true) {
+            int seccion = reservarSeccion(random, excluidas);
+            if (seccion < 0) return -1;
+            int numero = tomarAsiento(seccion, random);
+            if (numero > 0) return (seccion << BITS_NUMERO) | numero;
+            excluidas |= 1L << seccion;
+        }
+    }
+
+    /**
+     * Sube en uno el contador de una sección con lugar y ocupación mínima.
+     * @param excluidas Secciones a no considerar (bit s = sección s)
+     * @return Sección elegida o -1 si no queda lugar en ninguna
+     */
+    private int reservarSeccion(Random random, long excluidas) {
+        while (true) {
+            int minimo = Integer.MAX_VALUE;
+            long candidatas = 0;
+            for (int s = 0; s < secciones; s++) {
+                if ((excluidas & (1L << s)) != 0) continue;
+                int ocupadosSeccion = ocupacion.get(s * ENTEROS_POR_LINEA);
+                if (ocupadosSeccion >= disponibles[s]) continue;
+                if (ocupadosSeccion < minimo) {
+                    minimo = ocupadosSeccion;
+                    candidatas = 1L << s;
+                } else if (ocupadosSeccion == minimo) {
+                    candidatas |= 1L << s;
+                }
+            }
+            if (candidatas == 0) return -1;
+            int seccion = seleccionarBit(candidatas, random.nextInt(Long.bitCount(candidatas)));
+            if (ocupacion.compareAndSet(seccion * ENTEROS_POR_LINEA, minimo, minimo + 1)) return seccion;
+        }
+    }
+
+    /**
+     * Enciende un asiento libre al azar de una sección en la que ya se reservó lugar.
+     * @return Número de asiento, o -1 si no quedaba ningún bit libre (el lugar se devuelve al contador)
+     */
+    private int tomarAsiento(int seccion, Random random) {
+        long[] validos = vendibles[seccion];
+        int base = inicio[seccion];
+        while (true) {
+            int libres = 0;
+            for (int w = 0; w < validos.length; w++) libres += Long.bitCount(validos[w] & ~ocupados.get(base + w));
+            if (libres == 0) { // Un ocupar() encendió el último bit antes de contarlo
+                ocupacion.decrementAndGet(seccion * ENTEROS_POR_LINEA);
+                return -1;
+            }
+            int k = random.nextInt(libres);
+            for (int w = 0; w < validos.length; w++) {
+                long palabra = ocupados.get(base + w);
+                long bits = validos[w] & ~palabra;
+                int cantidad = Long.bitCount(bits);
+                if (k < cantidad) {
+                    int bit = seleccionarBit(bits, k);
+                    if (ocupados.compareAndSet(base + w, palabra, palabra | (1L << bit))) return w * Long.SIZE + bit + 1;
+                    break; // Otro hilo cambió la palabra: recontar
+                }
+                k -= cantidad;
+            }
+        }
+    }
+
+    /**
+     * @return Índice del asiento (ver {@link #nombre(int)})
+     */
+    int indice(int seccion, int numero) {
+        return (seccion << BITS_NUMERO) | numero;
+    }
+
+    boolean ocupar(int indice) {
+        return ocupar(indice >>> BITS_NUMERO, indice & MASCARA_NUMERO);
+    }
+
+    boolean liberar(int indice) {
+        return liberar(indice >>> BITS_NUMERO, indice & MASCARA_NUMERO);
+    }
+
+    /**
+     * Marca un asiento como ocupado (por ejemplo, al restaurar un estado), sin regla de balance.
+     * @return true si estaba libre y es vendible
+     */
+    boolean ocupar(int seccion, int numero) {
+        if (!esVendible(seccion, numero)) return false;
+        int w = inicio[seccion] + (numero - 1) / Long.SIZE;
+        long bit = 1L << (numero - 1);
+        while (true) {
+            long palabra = ocupados.get(w);
+            if ((palabra & bit) != 0) return false;
+            if (ocupados.compareAndSet(w, palabra, palabra | bit)) break;
+        }
+        ocupacion.incrementAndGet(seccion * ENTEROS_POR_LINEA);
+        return true;
+    }
+
+    /**
+     * Libera un asiento en O(1): apaga su bit con CAS y recién después baja el contador de la sección,
+     * así los contadores nunca quedan por debajo de los bits encendidos y una asignación concurrente
+     * que reserve ese lugar siempre encuentra un bit libre. La sección liberada pasa a ser (o sigue
+     * siendo) de las menos cargadas, así que las próximas asignaciones la completan primero.
+     * @return true si el asiento estaba ocupado
+     */
+    boolean liberar(int seccion, int numero) {
+        if (!esVendible(seccion, numero)) return false;
+        int w = inicio[seccion] + (numero - 1) / Long.SIZE;
+        long bit = 1L << (numero - 1);
+        while (true) {
+            long palabra = ocupados.get(w);
+            if ((palabra & bit) == 0) return false;
+            if (ocupados.compareAndSet(w, palabra, palabra & ~bit)) break;
+        }
+        ocupacion.decrementAndGet(seccion * ENTEROS_POR_LINEA);
+        return true;
+    }
+
+    /**
+     * Libera en una pasada los asientos de un lote de reservas: arma la máscara a apagar de cada
+     * palabra, hace un CAS por palabra tocada y ajusta cada contador de sección una sola vez.
+     * @param reservas Reservas cuyos asientos se liberan (los que no son de esta cabina se ignoran)
+     * @return Cantidad de asientos liberados
+     */
+    int liberar(Iterable<Reserva> reservas) {
+        long[] quitar = new long[ocupados.length()];
+        for (Reserva reserva : reservas) {
+            int seccion = reserva.getSeccion() - 'A';
+            int numero = reserva.getNumeroAsiento();
+            if (esVendible(seccion, numero)) quitar[inicio[seccion] + (numero - 1) / Long.SIZE] |= 1L << (numero - 1);
+        }
+        int total = 0;
+        for (int s = 0; s < secciones; s++) {
+            int liberados = 0;
+            for (int w = inicio[s]; w < inicio[s] + vendibles[s].length; w++) {
+                if (quitar[w] == 0) continue;
+                long palabra;
+                do {
+                    palabra = ocupados.get(w);
+                } while ((palabra & quitar[w]) != 0 && !ocupados.compareAndSet(w, palabra, palabra & ~quitar[w]));
+                liberados += Long.bitCount(palabra & quitar[w]);
+            }
+            if (liberados > 0) ocupacion.addAndGet(s * ENTEROS_POR_LINEA, -liberados);
+            total += liberados;
+        }
+        return total;
+    }
+
+    /**
+     * Libera todos los asientos. No debe correr a la vez que otras asignaciones.
+     */
+    void vaciar() {
+        for (int w = 0; w < ocupados.length(); w++) ocupados.set(w, 0L);
+        for (int s = 0; s < secciones; s++) ocupacion.set(s * ENTEROS_POR_LINEA, 0);
+    }
+
+    /**
+     * Copia los bits de ocupados sin el relleno entre secciones, en O(asientos / 64). Cada palabra se
+     * lee de forma atómica, pero la copia entera no es un corte atómico del vuelo.
+     * @return Palabras de la sección s en las posiciones [inicioCopia[s], inicioCopia[s + 1])
+     */
+    long[] copiarOcupados() {
+        long[] copia = new long[inicioCopia[secciones]];
+        for (int s = 0; s < secciones; s++) {
+            for (int w = inicioCopia[s]; w < inicioCopia[s + 1]; w++) copia[w] = ocupados.get(inicio[s] + w - inicioCopia[s]);
+        }
+        return copia;
+    }
+
+    /**
+     * @return Desplazamientos por sección de {@link #copiarOcupados()} (compartido: no modificar)
+     */
+    int[] getInicioCopia() {
+        return inicioCopia;
+    }
+
+    /**
+     * Enciende un asiento en una copia hecha con {@link #copiarOcupados()} (si es vendible).
+     */
+    void marcarEnCopia(long[] copia, int seccion, int numero) {
+        if (esVendible(seccion, numero)) copia[inicioCopia[seccion] + (numero - 1) / Long.SIZE] |= 1L << (numero - 1);
+    }
+
+    boolean estaOcupado(int seccion, int numero) {
+        return (ocupados.get(inicio[seccion] + (numero - 1) / Long.SIZE) & (1L << (numero - 1))) != 0;
+    }
+
+    /**
+     * @return true si el asiento existe en la cabina y no está bloqueado
+     */
+    boolean esVendible(int seccion, int numero) {
+        return seccion >= 0 && seccion < secciones && numero >= 1 && numero <= cabina.getSeccion(seccion).getAsientos()
+            && (vendibles[seccion][(numero - 1) / Long.SIZE] & (1L << (numero - 1))) != 0;
+    }
+
+    int getOcupacion(int seccion) {
+        return ocupacion.get(seccion * ENTEROS_POR_LINEA);
+    }
+
+    int getTotalOcupados() {
+        int total = 0;
+        for (int s = 0; s < secciones; s++) total += ocupacion.get(s * ENTEROS_POR_LINEA);
+        return total;
+    }
+
+    int getSecciones() {
+        return secciones;
+    }
+
+    int getTotalAsientos() {
+        return cabina.getTotalAsientos();
+    }
+
+    DistribucionCabina getCabina() {
+        return cabina;
+    }
+
+    /**
+     * @param indice Índice devuelto por {@link #asignarBalanceado(Random)}
+     * @return Nombre del asiento (ej: "B7"), sin crear cadenas nuevas
+     */
+    String nombre(int indice) {
+        return cabina.nombreAsiento(indice >>> BITS_NUMERO, indice & MASCARA_NUMERO);
+    }
+
+    /**
+     * @return Posición del k-ésimo bit encendido (desde 0) de {@code bits}
+     */
+    static int seleccionarBit(long bits, int k) {
+        for (int i = 0; i < k; i++) bits &= bits - 1; // Apaga los k bits más bajos
+        return Long.numberOfTrailingZeros(bits);
+    }
+}
@@ -0,0 +1,149 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada de itinerarios con desalojo LRU (menos usado recientemente).
+ * La clave es el par (origen, destino) junto con el modo de búsqueda y la versión del grafo: cuando
+ * la red cambia, las entradas de versiones anteriores dejan de ser alcanzables y se descartan, por lo
+ * que nunca se devuelve un itinerario obsoleto. El modo es parte de la clave porque, aunque todos
+ * llegan al mismo tiempo total, cada uno informa sus propias ciudades asentadas.
+ */
+public class CacheRutas {
+    private final int capacidad;
+    private final LinkedHashMap<Clave, Itinerario> entradas;
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private long versionVigente = -1;
+
+    /**
+     * @param capacidad Cantidad máxima de itinerarios almacenados
+     */
+    public CacheRutas(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva: " + capacidad);
+        }
+        this.capacidad = capacidad;
+        // accessOrder = true: cada acceso mueve la entrada al final (orden LRU)
+        this.entradas = new LinkedHashMap<Clave, Itinerario>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Itinerario> eldest) {
+                return size() > CacheRutas.this.capacidad;
+            }
+        };
+    }
+
+    /**
+     * Busca un itinerario para el par de ciudades en la versión indicada del grafo.
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param version Versión actual del grafo
+     * @return Itinerario almacenado o null si no está (o pertenece a otra versión)
+     */
+    public Itinerario obtener(String origen, String destino, long version) {
+        return obtener(origen, destino, null, version);
+    }
+
+    /**
+     * Busca un itinerario calculado con un modo de búsqueda concreto.
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param modo Modo con el que se calculó (null si no importa el modo)
+     * @param version Versión actual del grafo
+     * @return Itinerario almacenado o null si no está (o pertenece a otra versión u otro modo)
+     */
+    public synchronized Itinerario obtener(String origen, String destino, ModoBusqueda modo, long version) {
+        descartarSiCambioVersion(version);
+        Itinerario itinerario = entradas.get(new Clave(origen, destino, modo, version));
+        if (itinerario != null) {
+            aciertos.incrementAndGet();
+        } else {
+            fallos.incrementAndGet();
+        }
+        return itinerario;
+    }
+
+    /**
+     * Guarda el itinerario calculado para el par de ciudades en la versión indicada.
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param version Versión del grafo con la que se calculó
+     * @param itinerario Itinerario a almacenar
+     */
+    public void guardar(String origen, String destino, long version, Itinerario itinerario) {
+        guardar(origen, destino, null, version, itinerario);
+    }
+
+    /**
+     * Guarda el itinerario calculado con un modo de búsqueda concreto.
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param modo Modo con el que se calculó (null si no importa el modo)
+     * @param version Versión del grafo con la que se calculó
+     * @param itinerario Itinerario a almacenar
+     */
+    public synchronized void guardar(String origen, String destino, ModoBusqueda modo, long version, Itinerario itinerario) {
+        descartarSiCambioVersion(version);
+        if (version == versionVigente) {
+            entradas.put(new Clave(origen, destino, modo, version), itinerario);
+        }
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    private void descartarSiCambioVersion(long version) {
+        if (version > versionVigente) {
+            entradas.clear();
+            versionVigente = version;
+        }
+    }
+
+    private static final class Clave {
+        private final String origen;
+        private final String destino;
+        private final ModoBusqueda modo;
+        private final long version;
+
+        Clave(String origen, String destino, ModoBusqueda modo, long version) {
+            this.origen = origen;
+            this.destino = destino;
+            this.modo = modo;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave otra = (Clave) o;
+            return version == otra.version && modo == otra.modo
+                && origen.equals(otra.origen) && destino.equals(otra.destino);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origen, destino, modo, version);
+        }
+    }
+}
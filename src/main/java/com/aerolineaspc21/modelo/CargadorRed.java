@@ -0,0 +1,193 @@
+package com.aerolineaspc21.modelo;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Carga masiva de la red de vuelos desde archivos.
+ * <ul>
+ *   <li>CSV de ciudades: un nombre por línea.</li>
+ *   <li>CSV de rutas: {@code origen,destino,tiempo,precio} por línea; cada ruta se agrega en ambos
+ *       sentidos con {@link Grafo#agregarAristaBidireccional(String, String, double, double)}.</li>
+ * </ul>
+ * En ambos CSV se ignoran las líneas vacías, las que empiezan con {@code #} y una cabecera opcional.
+ * Los archivos se leen línea por línea, sin cargarlos completos en memoria.
+ * <p>
+ * También guarda y carga instantáneas binarias de la red: los arreglos CSR de {@link GrafoCompacto}
+ * tal cual, seguidos de los nombres de las ciudades. La carga mapea el archivo en memoria (NIO) y
+ * copia los arreglos en bloque, sin interpretar texto ni crear objetos por tramo.
+ *
+ * @author Giuliano Zulatto
+ * @version 1.0
+ * @since 2025-12-01
+ */
+public final class CargadorRed {
+    /** Identificador de los archivos de instantánea ("APC2"). */
+    private static final int MAGICO = 0x41504332;
+    private static final int FORMATO = 1;
+
+    private CargadorRed() {
+    }
+
+    /**
+     * Agrega al grafo las ciudades del CSV.
+     * @param grafo Grafo destino
+     * @param archivo CSV con un nombre de ciudad por línea
+     * @return Cantidad de ciudades nuevas
+     * @throws IOException si no se puede leer el archivo
+     */
+    public static int cargarCiudades(Grafo grafo, Path archivo) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return cargarCiudades(grafo, lector);
+        }
+    }
+
+    /**
+     * @see #cargarCiudades(Grafo, Path)
+     */
+    public static int cargarCiudades(Grafo grafo, Reader origen) throws IOException {
+        BufferedReader lector = origen instanceof BufferedReader ? (BufferedReader) origen : new BufferedReader(origen);
+        int nuevas = 0;
+        boolean primera = true;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            String nombre = linea.trim();
+            boolean cabecera = primera && nombre.equalsIgnoreCase("ciudad");
+            primera = false;
+            if (nombre.isEmpty() || nombre.startsWith("#") || cabecera) continue;
+            if (grafo.agregarCiudad(nombre)) nuevas++;
+        }
+        return nuevas;
+    }
+
+    /**
+     * Agrega al grafo las rutas del CSV (bidireccionales). Las rutas entre ciudades inexistentes se ignoran.
+     * @param grafo Grafo destino
+     * @param archivo CSV con líneas {@code origen,destino,tiempo,precio}
+     * @return Cantidad de rutas agregadas
+     * @throws IOException si no se puede leer el archivo
+     * @throws IllegalArgumentException si una línea no tiene el formato esperado
+     */
+    public static int cargarRutas(Grafo grafo, Path archivo) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return cargarRutas(grafo, lector);
+        }
+    }
+
+    /**
+     * @see #cargarRutas(Grafo, Path)
+     */
+    public static int cargarRutas(Grafo grafo, Reader origen) throws IOException {
+        BufferedReader lector = origen instanceof BufferedReader ? (BufferedReader) origen : new BufferedReader(origen);
+        int agregadas = 0;
+        int numero = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (linea.isEmpty() || linea.startsWith("#")) continue;
+            int c1 = linea.indexOf(',');
+            int c2 = c1 < 0 ? -1 : linea.indexOf(',', c1 + 1);
+            int c3 = c2 < 0 ? -1 : linea.indexOf(',', c2 + 1);
+            if (c3 < 0) {
+                throw new IllegalArgumentException("Línea " + numero + " de rutas inválida: " + linea);
+            }
+            String tiempoTexto = linea.substring(c2 + 1, c3).trim();
+            String precioTexto = linea.substring(c3 + 1).trim();
+            double tiempo;
+            double precio;
+            try {
+                tiempo = Double.parseDouble(tiempoTexto);
+                precio = Double.parseDouble(precioTexto);
+            } catch (NumberFormatException e) {
+                if (numero == 1) continue; // Cabecera
+                throw new IllegalArgumentException("Línea " + numero + " de rutas inválida: " + linea);
+            }
+            String ciudadOrigen = linea.substring(0, c1).trim();
+            String ciudadDestino = linea.substring(c1 + 1, c2).trim();
+            if (grafo.agregarAristaBidireccional(ciudadOrigen, ciudadDestino, tiempo, precio)) agregadas++;
+        }
+        return agregadas;
+    }
+
+    /**
+     * Guarda la instantánea actual del grafo en formato binario.
+     * @param grafo Grafo a guardar
+     * @param archivo Archivo destino (se sobrescribe)
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public static void guardarInstantanea(Grafo grafo, Path archivo) throws IOException {
+        GrafoCompacto compacto = grafo.getCompacto();
+        int n = compacto.getCantidadCiudades();
+        int m = compacto.getCantidadTramos();
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo), 1 << 16))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(FORMATO);
+            salida.writeInt(n);
+            salida.writeInt(m);
+            for (int valor : compacto.getInicio()) salida.writeInt(valor);
+            for (int valor : compacto.getDestinos()) salida.writeInt(valor);
+            for (long valor : compacto.getTiempos()) salida.writeLong(valor);
+            for (double valor : compacto.getPrecios()) salida.writeDouble(valor);
+            for (int v = 0; v < n; v++) {
+                byte[] nombre = compacto.nombre(v).getBytes(StandardCharsets.UTF_8);
+                salida.writeInt(nombre.length);
+                salida.write(nombre);
+            }
+        }
+    }
+
+    /**
+     * Carga un grafo desde una instantánea binaria mapeando el archivo en memoria.
+     * El grafo queda listo para consultas de inmediato; sus vértices y aristas se crean recién
+     * si se consultan o se modifica la red.
+     * @param archivo Archivo generado con {@link #guardarInstantanea(Grafo, Path)}
+     * @return Grafo cargado
+     * @throws IOException si no se puede leer el archivo o no es una instantánea válida
+     */
+    public static Grafo cargarInstantanea(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGICO) {
+                throw new IOException("El archivo no es una instantánea de red: " + archivo);
+            }
+            int formato = buffer.getInt();
+            if (formato != FORMATO) {
+                throw new IOException("Formato de instantánea no soportado: " + formato);
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+
+            int[] inicio = new int[n + 1];
+            buffer.asIntBuffer().get(inicio);
+            buffer.position(buffer.position() + Integer.BYTES * (n + 1));
+            int[] destinos = new int[m];
+            buffer.asIntBuffer().get(destinos);
+            buffer.position(buffer.position() + Integer.BYTES * m);
+            long[] tiempos = new long[m];
+            buffer.asLongBuffer().get(tiempos);
+            buffer.position(buffer.position() + Long.BYTES * m);
+            double[] precios = new double[m];
+            buffer.asDoubleBuffer().get(precios);
+            buffer.position(buffer.position() + Double.BYTES * m);
+
+            String[] nombres = new String[n];
+            byte[] bytes = new byte[64];
+            for (int v = 0; v < n; v++) {
+                int largo = buffer.getInt();
+                if (largo > bytes.length) bytes = new byte[Math.max(largo, bytes.length * 2)];
+                buffer.get(bytes, 0, largo);
+                nombres[v] = new String(bytes, 0, largo, StandardCharsets.UTF_8);
+            }
+            return new Grafo(GrafoCompacto.desdeArreglos(nombres, inicio, destinos, tiempos, precios, 0));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos sobre arreglos primitivos para las búsquedas de rutas.
+ * Ordena por tiempo acumulado (en microhoras) y, ante empate, por precio acumulado
+ * (mismo criterio que Dijkstra).
+ * Admite entradas repetidas de una misma ciudad: las obsoletas se descartan al extraerlas.
+ */
+class ColaPrioridadRuta {
+    private int[] nodos;
+    private long[] tiempos;
+    private double[] precios;
+    private int tamano;
+
+    ColaPrioridadRuta(int capacidadInicial) {
+        int capacidad = Math.max(capacidadInicial, 4);
+        this.nodos = new int[capacidad];
+        this.tiempos = new long[capacidad];
+        this.precios = new double[capacidad];
+    }
+
+    boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    void vaciar() {
+        tamano = 0;
+    }
+
+    long tiempoMinimo() {
+        return tiempos[0];
+    }
+
+    double precioMinimo() {
+        return precios[0];
+    }
+
+    void agregar(int nodo, long tiempo, double precio) {
+        if (tamano == nodos.length) {
+            int capacidad = tamano * 2;
+            nodos = Arrays.copyOf(nodos, capacidad);
+            tiempos = Arrays.copyOf(tiempos, capacidad);
+            precios = Arrays.copyOf(precios, capacidad);
+        }
+        int i = tamano++;
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (!menor(tiempo, precio, tiempos[padre], precios[padre])) break;
+            mover(padre, i);
+            i = padre;
+        }
+        nodos[i] = nodo;
+        tiempos[i] = tiempo;
+        precios[i] = precio;
+    }
+
+    /**
+     * Extrae la entrada de menor (tiempo, precio).
+     * @return Ciudad de la entrada extraída
+     */
+    int extraerMinimo() {
+        int minimo = nodos[0];
+        int ultimo = --tamano;
+        if (ultimo > 0) {
+            int nodo = nodos[ultimo];
+            long tiempo = tiempos[ultimo];
+            double precio = precios[ultimo];
+            int i = 0;
+            int mitad = ultimo >>> 1;
+            while (i < mitad) {
+                int hijo = 2 * i + 1;
+                int derecho = hijo + 1;
+                if (derecho < ultimo && menor(tiempos[derecho], precios[derecho], tiempos[hijo], precios[hijo])) {
+                    hijo = derecho;
+                }
+                if (!menor(tiempos[hijo], precios[hijo], tiempo, precio)) break;
+                mover(hijo, i);
+                i = hijo;
+            }
+            nodos[i] = nodo;
+            tiempos[i] = tiempo;
+            precios[i] = precio;
+        }
+        return minimo;
+    }
+
+    private void mover(int desde, int hacia) {
+        nodos[hacia] = nodos[desde];
+        tiempos[hacia] = tiempos[desde];
+        precios[hacia] = precios[desde];
+    }
+
+    private static boolean menor(long t1, double p1, long t2, double p2) {
+        return t1 < t2 || (t1 == t2 && Double.compare(p1, p2) < 0);
+    }
+}
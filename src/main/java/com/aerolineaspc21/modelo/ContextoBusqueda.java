@@ -0,0 +1,97 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Estado de trabajo de una búsqueda de rutas (etiquetas de tiempo/precio, tramo previo y cerrados).
+ * Los tiempos se guardan en microhoras enteras (ver {@link GrafoCompacto#aMicrohoras(double)}).
+ * Cada consulta usa su propio contexto, por lo que varias búsquedas pueden correr en paralelo
+ * sobre la misma {@link GrafoCompacto}. En lugar de reiniciar los arreglos en cada consulta
+ * (O(V)), cada entrada lleva la generación en la que se escribió: las de generaciones anteriores
+ * se consideran vacías.
+ */
+class ContextoBusqueda {
+    private final long[] tiempo;
+    private final double[] precio;
+    private final int[] tramoPrevio;
+    private final int[] generacionEtiqueta; // Generación en la que se etiquetó cada ciudad
+    private final int[] generacionCerrada;  // Generación en la que se cerró (asentó) cada ciudad
+    private final ColaPrioridadRuta cola;
+    private int generacion;
+    private int asentados;
+
+    ContextoBusqueda(int cantidadCiudades) {
+        this.tiempo = new long[cantidadCiudades];
+        this.precio = new double[cantidadCiudades];
+        this.tramoPrevio = new int[cantidadCiudades];
+        this.generacionEtiqueta = new int[cantidadCiudades];
+        this.generacionCerrada = new int[cantidadCiudades];
+        this.cola = new ColaPrioridadRuta(16);
+    }
+
+    /**
+     * Prepara el contexto para una nueva consulta en O(1) avanzando la generación.
+     */
+    void iniciar() {
+        generacion++;
+        if (generacion == Integer.MAX_VALUE) {
+            // Desborde del contador: única ocasión en que se limpian los arreglos
+            Arrays.fill(generacionEtiqueta, 0);
+            Arrays.fill(generacionCerrada, 0);
+            generacion = 1;
+        }
+        cola.vaciar();
+        asentados = 0;
+    }
+
+    ColaPrioridadRuta getCola() {
+        return cola;
+    }
+
+    boolean tieneEtiqueta(int ciudad) {
+        return generacionEtiqueta[ciudad] == generacion;
+    }
+
+    long tiempo(int ciudad) {
+        return tieneEtiqueta(ciudad) ? tiempo[ciudad] : GrafoCompacto.TIEMPO_INFINITO;
+    }
+
+    double precio(int ciudad) {
+        return tieneEtiqueta(ciudad) ? precio[ciudad] : 0.0;
+    }
+
+    int tramoPrevio(int ciudad) {
+        return tieneEtiqueta(ciudad) ? tramoPrevio[ciudad] : -1;
+    }
+
+    void etiquetar(int ciudad, long t, double p, int tramo) {
+        tiempo[ciudad] = t;
+        precio[ciudad] = p;
+        tramoPrevio[ciudad] = tramo;
+        generacionEtiqueta[ciudad] = generacion;
+    }
+
+    /**
+     * Cambia solo el tramo previo de una ciudad ya etiquetada (desempate entre rutas de igual costo).
+     */
+    void cambiarTramoPrevio(int ciudad, int tramo) {
+        tramoPrevio[ciudad] = tramo;
+    }
+
+    boolean estaCerrada(int ciudad) {
+        return generacionCerrada[ciudad] == generacion;
+    }
+
+    void cerrar(int ciudad) {
+        generacionCerrada[ciudad] = generacion;
+        asentados++;
+    }
+
+    /**
+     * Cantidad de ciudades asentadas (extraídas definitivamente de la cola) en la consulta actual.
+     * @return Ciudades asentadas
+     */
+    int getAsentados() {
+        return asentados;
+    }
+}
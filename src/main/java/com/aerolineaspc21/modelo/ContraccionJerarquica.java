@@ -0,0 +1,547 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Jerarquía de contracción (Contraction Hierarchies) sobre la red de vuelos.
+ * El preprocesamiento "contrae" las ciudades una a una, de menor a mayor importancia, agregando
+ * atajos entre sus vecinas cuando el único camino óptimo pasaba por la ciudad contraída. Cada
+ * ciudad recibe un nivel (su posición en el orden de contracción) y una consulta sólo necesita
+ * una búsqueda bidireccional que sube de nivel desde el origen y desde el destino: explora unas
+ * pocas decenas de ciudades aun en redes de miles de aeropuertos. Los atajos se desarman al final
+ * para devolver la lista original de ciudades.
+ * <p>
+ * El preprocesamiento se paraleliza por rondas: en cada ronda se elige un conjunto independiente
+ * de ciudades (ninguna es vecina de otra del conjunto) cuya contracción se simula en paralelo.
+ * Las búsquedas de testigos evitan todas las ciudades de la ronda, de modo que los atajos que se
+ * omiten siguen cubiertos por caminos que sobreviven a la ronda.
+ *
+ * @author Giuliano Zulatto
+ * @version 1.0
+ * @since 2025-12-01
+ */
+public class ContraccionJerarquica {
+    /** Máximo de ciudades que asienta cada búsqueda de testigos durante el preprocesamiento. */
+    private static final int LIMITE_ASENTADOS_TESTIGO = 150;
+
+    private final GrafoCompacto compacto;
+    private final int[] nivel;            // Posición de cada ciudad en el orden de contracción
+    private final int[] aristaOrigen;     // Aristas de la jerarquía: tramos originales y atajos
+    private final int[] aristaDestino;
+    private final long[] aristaTiempo;    // Microhoras
+    private final double[] aristaPrecio;
+    private final int[] tramoOriginal;    // Tramo del grafo compacto, o -1 si es un atajo
+    private final int[] primeraMitad;     // Atajo u->w = primeraMitad (u->v) + segundaMitad (v->w)
+    private final int[] segundaMitad;
+    private final int[] inicioSubida;     // CSR de aristas a->b con nivel[b] > nivel[a], por a
+    private final int[] subida;
+    private final int[] inicioBajada;     // CSR de aristas a->b con nivel[a] > nivel[b], por b
+    private final int[] bajada;
+    private final int cantidadAtajos;
+    private final ConcurrentLinkedQueue<ContextoBusqueda> contextos = new ConcurrentLinkedQueue<>();
+
+    private ContraccionJerarquica(Preprocesador p) {
+        this.compacto = p.compacto;
+        this.nivel = p.nivel;
+        this.aristaOrigen = Arrays.copyOf(p.origen, p.cantidad);
+        this.aristaDestino = Arrays.copyOf(p.destino, p.cantidad);
+        this.aristaTiempo = Arrays.copyOf(p.tiempo, p.cantidad);
+        this.aristaPrecio = Arrays.copyOf(p.precio, p.cantidad);
+        this.tramoOriginal = Arrays.copyOf(p.tramo, p.cantidad);
+        this.primeraMitad = Arrays.copyOf(p.primeraMitad, p.cantidad);
+        this.segundaMitad = Arrays.copyOf(p.segundaMitad, p.cantidad);
+        this.cantidadAtajos = p.cantidad - p.cantidadOriginales;
+
+        int n = nivel.length;
+        this.inicioSubida = new int[n + 1];
+        this.inicioBajada = new int[n + 1];
+        for (int e = 0; e < aristaOrigen.length; e++) {
+            if (nivel[aristaDestino[e]] > nivel[aristaOrigen[e]]) {
+                inicioSubida[aristaOrigen[e] + 1]++;
+            } else {
+                inicioBajada[aristaDestino[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inicioSubida[v + 1] += inicioSubida[v];
+            inicioBajada[v + 1] += inicioBajada[v];
+        }
+        this.subida = new int[inicioSubida[n]];
+        this.bajada = new int[inicioBajada[n]];
+        int[] siguienteSubida = Arrays.copyOf(inicioSubida, n);
+        int[] siguienteBajada = Arrays.copyOf(inicioBajada, n);
+        for (int e = 0; e < aristaOrigen.length; e++) {
+            if (nivel[aristaDestino[e]] > nivel[aristaOrigen[e]]) {
+                subida[siguienteSubida[aristaOrigen[e]]++] = e;
+            } else {
+                bajada[siguienteBajada[aristaDestino[e]]++] = e;
+            }
+        }
+    }
+
+    /**
+     * Preprocesa la instantánea del grafo usando todos los núcleos disponibles.
+     * @param compacto Instantánea de la red
+     * @return Jerarquía lista para consultas
+     */
+    public static ContraccionJerarquica preprocesar(GrafoCompacto compacto) {
+        Preprocesador p = new Preprocesador(compacto);
+        p.contraer();
+        return new ContraccionJerarquica(p);
+    }
+
+    public GrafoCompacto getCompacto() {
+        return compacto;
+    }
+
+    /**
+     * @return Cantidad de atajos agregados por el preprocesamiento
+     */
+    public int getCantidadAtajos() {
+        return cantidadAtajos;
+    }
+
+    /**
+     * Calcula el itinerario óptimo (tiempo y, a igual tiempo, precio) con una búsqueda
+     * bidireccional ascendente sobre la jerarquía.
+     * @param origenNombre Nombre de la ciudad de origen
+     * @param destinoNombre Nombre de la ciudad de destino
+     * @return Itinerario óptimo, o {@link Itinerario#vacio()} si no hay ruta
+     */
+    public Itinerario calcularItinerario(String origenNombre, String destinoNombre) {
+        int origen = compacto.indice(origenNombre);
+        int destino = compacto.indice(destinoNombre);
+        if (origen == -1 || destino == -1) return Itinerario.vacio();
+        return calcularItinerario(origen, destino);
+    }
+
+    /**
+     * @param origen Índice de la ciudad de origen
+     * @param destino Índice de la ciudad de destino
+     * @return Itinerario óptimo, o {@link Itinerario#vacio()} si no hay ruta
+     */
+    public Itinerario calcularItinerario(int origen, int destino) {
+        ContextoBusqueda adelante = tomarContexto();
+        ContextoBusqueda atras = tomarContexto();
+        try {
+            ColaPrioridadRuta colaAdelante = adelante.getCola();
+            ColaPrioridadRuta colaAtras = atras.getCola();
+            adelante.etiquetar(origen, 0, 0, -1);
+            colaAdelante.agregar(origen, 0, 0);
+            atras.etiquetar(destino, 0, 0, -1);
+            colaAtras.agregar(destino, 0, 0);
+
+            long mejorTiempo = GrafoCompacto.TIEMPO_INFINITO;
+            double mejorPrecio = 0.0;
+            int encuentro = -1;
+            boolean adelanteActiva = true;
+            boolean atrasActiva = true;
+            boolean turnoAdelante = true;
+            while (adelanteActiva || atrasActiva) {
+                // Cada frente se detiene cuando su mínimo ya no puede mejorar el mejor encuentro
+                adelanteActiva = adelanteActiva && !colaAdelante.estaVacia() && (encuentro == -1
+                        || GrafoCompacto.esMejor(colaAdelante.tiempoMinimo(), colaAdelante.precioMinimo(), mejorTiempo, mejorPrecio));
+                atrasActiva = atrasActiva && !colaAtras.estaVacia() && (encuentro == -1
+                        || GrafoCompacto.esMejor(colaAtras.tiempoMinimo(), colaAtras.precioMinimo(), mejorTiempo, mejorPrecio));
+                boolean expandirAdelante = adelanteActiva && (turnoAdelante || !atrasActiva);
+                if (!expandirAdelante && !atrasActiva) break;
+                turnoAdelante = !turnoAdelante;
+
+                ContextoBusqueda propio = expandirAdelante ? adelante : atras;
+                ContextoBusqueda opuesto = expandirAdelante ? atras : adelante;
+                ColaPrioridadRuta cola = propio.getCola();
+                int actual = cola.extraerMinimo();
+                if (propio.estaCerrada(actual)) continue;
+                propio.cerrar(actual);
+                long tiempoActual = propio.tiempo(actual);
+                double precioActual = propio.precio(actual);
+                if (opuesto.tieneEtiqueta(actual)) {
+                    long tiempoCandidato = tiempoActual + opuesto.tiempo(actual);
+                    double precioCandidato = precioActual + opuesto.precio(actual);
+                    if (GrafoCompacto.esMejor(tiempoCandidato, precioCandidato, mejorTiempo, mejorPrecio)) {
+                        mejorTiempo = tiempoCandidato;
+                        mejorPrecio = precioCandidato;
+                        encuentro = actual;
+                    }
+                }
+                int[] inicioLista = expandirAdelante ? inicioSubida : inicioBajada;
+                int[] lista = expandirAdelante ? subida : bajada;
+                for (int i = inicioLista[actual], fin = inicioLista[actual + 1]; i < fin; i++) {
+                    int e = lista[i];
+                    int vecino = expandirAdelante ? aristaDestino[e] : aristaOrigen[e];
+                    if (propio.estaCerrada(vecino)) continue;
+                    long nuevoTiempo = tiempoActual + aristaTiempo[e];
+                    double nuevoPrecio = precioActual + aristaPrecio[e];
+                    if (GrafoCompacto.esMejor(nuevoTiempo, nuevoPrecio, propio.tiempo(vecino), propio.precio(vecino))) {
+                        propio.etiquetar(vecino, nuevoTiempo, nuevoPrecio, e);
+                        cola.agregar(vecino, nuevoTiempo, nuevoPrecio);
+                    }
+                }
+            }
+            int asentadas = adelante.getAsentados() + atras.getAsentados();
+            if (encuentro == -1) return new Itinerario(Collections.emptyList(), 0.0, 0.0, asentadas);
+
+            // Aristas de la jerarquía en orden: origen -> encuentro y encuentro -> destino
+            LinkedList<Integer> aristas = new LinkedList<>();
+            int v = encuentro;
+            while (adelante.tramoPrevio(v) != -1) {
+                int e = adelante.tramoPrevio(v);
+                aristas.addFirst(e);
+                v = aristaOrigen[e];
+            }
+            v = encuentro;
+            while (atras.tramoPrevio(v) != -1) {
+                int e = atras.tramoPrevio(v);
+                aristas.addLast(e);
+                v = aristaDestino[e];
+            }
+
+            int[] tramos = new int[aristas.size()];
+            int cantidad = 0;
+            int[] pila = new int[16];
+            for (int arista : aristas) {
+                // Desarmar los atajos en sus tramos originales, en orden
+                int tope = 0;
+                pila[tope++] = arista;
+                while (tope > 0) {
+                    int e = pila[--tope];
+                    if (tramoOriginal[e] >= 0) {
+                        if (cantidad == tramos.length) tramos = Arrays.copyOf(tramos, cantidad * 2);
+                        tramos[cantidad++] = tramoOriginal[e];
+                    } else {
+                        if (tope + 2 > pila.length) pila = Arrays.copyOf(pila, pila.length * 2);
+                        pila[tope++] = segundaMitad[e];
+                        pila[tope++] = primeraMitad[e];
+                    }
+                }
+            }
+            return compacto.armarItinerario(origen, Arrays.copyOf(tramos, cantidad), asentadas);
+        } finally {
+            contextos.offer(adelante);
+            contextos.offer(atras);
+        }
+    }
+
+    private ContextoBusqueda tomarContexto() {
+        ContextoBusqueda contexto = contextos.poll();
+        if (contexto == null) {
+            contexto = new ContextoBusqueda(nivel.length);
+        }
+        contexto.iniciar();
+        return contexto;
+    }
+
+    /**
+     * Estado mutable del preprocesamiento: grafo de trabajo con aristas crecientes y orden de contracción.
+     */
+    private static final class Preprocesador {
+        private final GrafoCompacto compacto;
+        private final int n;
+        private final ListaEnteros[] salientes;
+        private final ListaEnteros[] entrantes;
+        private final boolean[] contraida;
+        private final boolean[] enRonda;
+        private final int[] nivel;
+        private final int[] vecinasContraidas;
+        private final int[] prioridad;
+        private final ConcurrentLinkedQueue<ContextoBusqueda> contextos = new ConcurrentLinkedQueue<>();
+        private int[] origen;
+        private int[] destino;
+        private long[] tiempo;
+        private double[] precio;
+        private int[] tramo;
+        private int[] primeraMitad;
+        private int[] segundaMitad;
+        private int cantidad;
+        private int cantidadOriginales;
+
+        Preprocesador(GrafoCompacto compacto) {
+            this.compacto = compacto;
+            this.n = compacto.getCantidadCiudades();
+            this.salientes = new ListaEnteros[n];
+            this.entrantes = new ListaEnteros[n];
+            for (int v = 0; v < n; v++) {
+                salientes[v] = new ListaEnteros();
+                entrantes[v] = new ListaEnteros();
+            }
+            this.contraida = new boolean[n];
+            this.enRonda = new boolean[n];
+            this.nivel = new int[n];
+            this.vecinasContraidas = new int[n];
+            this.prioridad = new int[n];
+            int capacidad = Math.max(16, compacto.getCantidadTramos() * 2);
+            this.origen = new int[capacidad];
+            this.destino = new int[capacidad];
+            this.tiempo = new long[capacidad];
+            this.precio = new double[capacidad];
+            this.tramo = new int[capacidad];
+            this.primeraMitad = new int[capacidad];
+            this.segundaMitad = new int[capacidad];
+            for (int e = 0; e < compacto.getCantidadTramos(); e++) {
+                if (compacto.origen(e) == compacto.destino(e)) continue; // Los bucles nunca forman parte de una ruta óptima
+                agregarArista(compacto.origen(e), compacto.destino(e), compacto.tiempoMicrohoras(e), compacto.precio(e), e, -1, -1);
+            }
+            this.cantidadOriginales = cantidad;
+        }
+
+        private void agregarArista(int u, int w, long t, double p, int tramoCompacto, int primera, int segunda) {
+            if (cantidad == origen.length) {
+                int capacidad = cantidad * 2;
+                origen = Arrays.copyOf(origen, capacidad);
+                destino = Arrays.copyOf(destino, capacidad);
+                tiempo = Arrays.copyOf(tiempo, capacidad);
+                precio = Arrays.copyOf(precio, capacidad);
+                tramo = Arrays.copyOf(tramo, capacidad);
+                primeraMitad = Arrays.copyOf(primeraMitad, capacidad);
+                segundaMitad = Arrays.copyOf(segundaMitad, capacidad);
+            }
+            int e = cantidad++;
+            origen[e] = u;
+            destino[e] = w;
+            tiempo[e] = t;
+            precio[e] = p;
+            tramo[e] = tramoCompacto;
+            primeraMitad[e] = primera;
+            segundaMitad[e] = segunda;
+            salientes[u].agregar(e);
+            entrantes[w].agregar(e);
+        }
+
+        void contraer() {
+            IntStream.range(0, n).parallel().forEach(v -> prioridad[v] = calcularPrioridad(v));
+            int[] restantes = IntStream.range(0, n).toArray();
+            int cantidadRestantes = n;
+            int siguienteNivel = 0;
+            boolean[] afectada = new boolean[n];
+            while (cantidadRestantes > 0) {
+                final int[] candidatas = Arrays.copyOf(restantes, cantidadRestantes);
+                int[] ronda = Arrays.stream(candidatas).parallel().filter(this::esMinimoLocal).toArray();
+                for (int v : ronda) enRonda[v] = true;
+
+                // Simular en paralelo qué atajos necesita cada ciudad de la ronda (sólo lectura)
+                ListaEnteros[] atajos = new ListaEnteros[ronda.length];
+                IntStream.range(0, ronda.length).parallel().forEach(i -> atajos[i] = simularContraccion(ronda[i]));
+
+                // Aplicar los atajos y registrar el nivel de forma secuencial
+                ListaEnteros afectadas = new ListaEnteros();
+                for (int i = 0; i < ronda.length; i++) {
+                    int v = ronda[i];
+                    ListaEnteros pares = atajos[i];
+                    for (int k = 0; k < pares.tamano; k += 2) {
+                        int entrante = pares.valores[k];
+                        int saliente = pares.valores[k + 1];
+                        long t = tiempo[entrante] + tiempo[saliente];
+                        double p = precio[entrante] + precio[saliente];
+                        int u = origen[entrante];
+                        int w = destino[saliente];
+                        if (!existeAristaNoPeor(u, w, t, p)) {
+                            quitarAristasPeores(u, w);
+                            agregarArista(u, w, t, p, -1, entrante, saliente);
+                        }
+                    }
+                    contraida[v] = true;
+                    enRonda[v] = false;
+                    nivel[v] = siguienteNivel++;
+                    marcarVecinas(salientes[v], destino, afectada, afectadas);
+                    marcarVecinas(entrantes[v], origen, afectada, afectadas);
+                }
+                int[] recalcular = Arrays.copyOf(afectadas.valores, afectadas.tamano);
+                for (int u : recalcular) {
+                    afectada[u] = false;
+                    // Las aristas hacia ciudades contraídas ya no participan: se podan de las listas
+                    podar(salientes[u], destino);
+                    podar(entrantes[u], origen);
+                }
+                IntStream.of(recalcular).parallel().forEach(u -> prioridad[u] = calcularPrioridad(u));
+
+                int j = 0;
+                for (int k = 0; k < cantidadRestantes; k++) {
+                    if (!contraida[restantes[k]]) restantes[j++] = restantes[k];
+                }
+                cantidadRestantes = j;
+            }
+        }
+
+        private void marcarVecinas(ListaEnteros aristas, int[] extremo, boolean[] afectada, ListaEnteros afectadas) {
+            for (int k = 0; k < aristas.tamano; k++) {
+                int u = extremo[aristas.valores[k]];
+                if (contraida[u]) continue;
+                vecinasContraidas[u]++;
+                if (!afectada[u]) {
+                    afectada[u] = true;
+                    afectadas.agregar(u);
+                }
+            }
+        }
+
+        /** Quita de la lista las aristas cuyo otro extremo ya fue contraído (las aristas siguen en la jerarquía). */
+        private void podar(ListaEnteros aristas, int[] extremo) {
+            int j = 0;
+            for (int k = 0; k < aristas.tamano; k++) {
+                int e = aristas.valores[k];
+                if (!contraida[extremo[e]]) aristas.valores[j++] = e;
+            }
+            aristas.tamano = j;
+        }
+
+        /** Indica si ya hay una arista u -> w no peor que (t, p), en cuyo caso el atajo sobra. */
+        private boolean existeAristaNoPeor(int u, int w, long t, double p) {
+            ListaEnteros aristas = salientes[u];
+            for (int k = 0; k < aristas.tamano; k++) {
+                int e = aristas.valores[k];
+                if (destino[e] == w && !GrafoCompacto.esMejor(t, p, tiempo[e], precio[e])) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Saca de las listas de trabajo las aristas u -> w existentes (todas peores que el atajo que
+         * se va a agregar), para que las búsquedas de testigos no recorran aristas paralelas.
+         */
+        private void quitarAristasPeores(int u, int w) {
+            ListaEnteros aristas = salientes[u];
+            int j = 0;
+            for (int k = 0; k < aristas.tamano; k++) {
+                int e = aristas.valores[k];
+                if (destino[e] != w) aristas.valores[j++] = e;
+            }
+            aristas.tamano = j;
+            aristas = entrantes[w];
+            j = 0;
+            for (int k = 0; k < aristas.tamano; k++) {
+                int e = aristas.valores[k];
+                if (origen[e] != u) aristas.valores[j++] = e;
+            }
+            aristas.tamano = j;
+        }
+
+        /** Una ciudad entra en la ronda si su prioridad es estrictamente menor que la de todas sus vecinas. */
+        private boolean esMinimoLocal(int v) {
+            return menorQueVecinas(v, salientes[v], destino) && menorQueVecinas(v, entrantes[v], origen);
+        }
+
+        private boolean menorQueVecinas(int v, ListaEnteros aristas, int[] extremo) {
+            for (int k = 0; k < aristas.tamano; k++) {
+                int u = extremo[aristas.valores[k]];
+                if (contraida[u] || u == v) continue;
+                if (prioridad[u] < prioridad[v] || (prioridad[u] == prioridad[v] && u < v)) return false;
+            }
+            return true;
+        }
+
+        /** Diferencia de aristas (atajos - aristas eliminadas) más vecinas ya contraídas. */
+        private int calcularPrioridad(int v) {
+            int atajos = simularContraccion(v).tamano / 2;
+            int grado = 0;
+            for (int k = 0; k < salientes[v].tamano; k++) {
+                if (!contraida[destino[salientes[v].valores[k]]]) grado++;
+            }
+            for (int k = 0; k < entrantes[v].tamano; k++) {
+                if (!contraida[origen[entrantes[v].valores[k]]]) grado++;
+            }
+            return atajos - grado + vecinasContraidas[v];
+        }
+
+        /**
+         * Determina los atajos necesarios para contraer {@code v}.
+         * @return Pares (arista entrante, arista saliente) que requieren atajo, aplanados
+         */
+        private ListaEnteros simularContraccion(int v) {
+            ListaEnteros pares = new ListaEnteros();
+            ListaEnteros entrantesV = entrantes[v];
+            ListaEnteros salientesV = salientes[v];
+            ContextoBusqueda contexto = contextos.poll();
+            if (contexto == null) contexto = new ContextoBusqueda(n);
+            try {
+                for (int i = 0; i < entrantesV.tamano; i++) {
+                    int entrante = entrantesV.valores[i];
+                    int u = origen[entrante];
+                    if (contraida[u] || u == v) continue;
+                    long limite = -1;
+                    int pendientes = 0;
+                    for (int k = 0; k < salientesV.tamano; k++) {
+                        int w = destino[salientesV.valores[k]];
+                        if (contraida[w] || w == u || w == v) continue;
+                        limite = Math.max(limite, tiempo[entrante] + tiempo[salientesV.valores[k]]);
+                        pendientes++;
+                    }
+                    if (limite < 0) continue;
+                    buscarTestigos(contexto, u, v, limite, pendientes);
+                    for (int k = 0; k < salientesV.tamano; k++) {
+                        int saliente = salientesV.valores[k];
+                        int w = destino[saliente];
+                        if (contraida[w] || w == u || w == v) continue;
+                        long t = tiempo[entrante] + tiempo[saliente];
+                        double p = precio[entrante] + precio[saliente];
+                        // Hay testigo si existe un camino que evita v y no es peor que u -> v -> w
+                        boolean testigo = contexto.tieneEtiqueta(w)
+                                && !GrafoCompacto.esMejor(t, p, contexto.tiempo(w), contexto.precio(w));
+                        if (!testigo) {
+                            pares.agregar(entrante);
+                            pares.agregar(saliente);
+                        }
+                    }
+                }
+            } finally {
+                contextos.offer(contexto);
+            }
+            return pares;
+        }
+
+        /**
+         * Dijkstra local desde {@code u} que evita {@code v}, las ciudades contraídas y las de la ronda.
+         * Termina al superar {@code limite}, al agotar el presupuesto de asentados o cuando ya se
+         * asentaron todas las vecinas salientes de {@code v} ({@code pendientes}).
+         */
+        private void buscarTestigos(ContextoBusqueda contexto, int u, int v, long limite, int pendientes) {
+            contexto.iniciar();
+            ColaPrioridadRuta cola = contexto.getCola();
+            contexto.etiquetar(u, 0, 0, -1);
+            cola.agregar(u, 0, 0);
+            while (!cola.estaVacia() && contexto.getAsentados() < LIMITE_ASENTADOS_TESTIGO) {
+                if (cola.tiempoMinimo() > limite) break;
+                int actual = cola.extraerMinimo();
+                if (contexto.estaCerrada(actual)) continue;
+                contexto.cerrar(actual);
+                if (actual != u && esVecinaSaliente(v, actual) && --pendientes == 0) break;
+                long tiempoActual = contexto.tiempo(actual);
+                double precioActual = contexto.precio(actual);
+                ListaEnteros aristas = salientes[actual];
+                for (int k = 0; k < aristas.tamano; k++) {
+                    int e = aristas.valores[k];
+                    int w = destino[e];
+                    if (w == v || contraida[w] || enRonda[w] || contexto.estaCerrada(w)) continue;
+                    long nuevoTiempo = tiempoActual + tiempo[e];
+                    double nuevoPrecio = precioActual + precio[e];
+                    if (GrafoCompacto.esMejor(nuevoTiempo, nuevoPrecio, contexto.tiempo(w), contexto.precio(w))) {
+                        contexto.etiquetar(w, nuevoTiempo, nuevoPrecio, e);
+                        cola.agregar(w, nuevoTiempo, nuevoPrecio);
+                    }
+                }
+            }
+        }
+
+        private boolean esVecinaSaliente(int v, int w) {
+            ListaEnteros aristas = salientes[v];
+            for (int k = 0; k < aristas.tamano; k++) {
+                if (destino[aristas.valores[k]] == w) return true;
+            }
+            return false;
+        }
+    }
+
+    /** Lista creciente de enteros primitivos. */
+    private static final class ListaEnteros {
+        private int[] valores = new int[4];
+        private int tamano;
+
+        void agregar(int valor) {
+            if (tamano == valores.length) valores = Arrays.copyOf(valores, tamano * 2);
+            valores[tamano++] = valor;
+        }
+    }
+}
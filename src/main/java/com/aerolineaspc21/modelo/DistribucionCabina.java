@@ -0,0 +1,190 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distribución de la cabina de un avión: secciones (una por clase tarifaria o zona), cada una con
+ * filas de asientos y, opcionalmente, asientos bloqueados (que no se venden).
+ * Cada sección se identifica con una letra ('A' para la primera) y sus asientos se numeran desde 1
+ * recorriendo las filas, como en los asientos "A5" o "B10" de las reservas.
+ * <p>
+ * Es inmutable, así que la pueden compartir todos los vuelos que usan el mismo tipo de avión.
+ */
+public final class DistribucionCabina {
+    /** Secciones máximas (una letra de 'A' a 'Z' por sección). */
+    public static final int MAXIMO_SECCIONES = 26;
+    /** Asientos máximos por sección. */
+    public static final int MAXIMO_ASIENTOS_POR_SECCION = 1023;
+
+    /** Cabina original: secciones A, B y C de 10 asientos cada una. */
+    public static final DistribucionCabina ESTANDAR = uniforme(3, 10);
+
+    /**
+     * Sección de la cabina.
+     */
+    public static final class Seccion {
+        private final String clase;
+        private final int filas;
+        private final int asientosPorFila;
+        private final int[] bloqueados; // Números de asiento bloqueados, ordenados y sin repetir
+
+        /**
+         * @param clase Clase tarifaria o nombre de la zona (ej: "Business")
+         * @param filas Cantidad de filas
+         * @param asientosPorFila Asientos en cada fila
+         * @param bloqueados Números de asiento (desde 1) que no se venden
+         * @throws IllegalArgumentException si las medidas o los asientos bloqueados no son válidos
+         */
+        public Seccion(String clase, int filas, int asientosPorFila, int... bloqueados) {
+            if (filas < 1 || asientosPorFila < 1 || (long) filas * asientosPorFila > MAXIMO_ASIENTOS_POR_SECCION) {
+                throw new IllegalArgumentException("Sección " + clase + " inválida: " + filas + " filas de "
+                        + asientosPorFila + " asientos (máximo " + MAXIMO_ASIENTOS_POR_SECCION + " asientos)");
+            }
+            int[] ordenados = bloqueados.clone();
+            Arrays.sort(ordenados);
+            for (int i = 0; i < ordenados.length; i++) {
+                if (ordenados[i] < 1 || ordenados[i] > filas * asientosPorFila || (i > 0 && ordenados[i] == ordenados[i - 1])) {
+                    throw new IllegalArgumentException("Asiento bloqueado inválido en " + clase + ": " + ordenados[i]);
+                }
+            }
+            this.clase = clase;
+            this.filas = filas;
+            this.asientosPorFila = asientosPorFila;
+            this.bloqueados = ordenados;
+        }
+
+        public String getClase() {
+            return clase;
+        }
+
+        public int getFilas() {
+            return filas;
+        }
+
+        public int getAsientosPorFila() {
+            return asientosPorFila;
+        }
+
+        /**
+         * @return Asientos de la sección, incluidos los bloqueados
+         */
+        public int getAsientos() {
+            return filas * asientosPorFila;
+        }
+
+        /**
+         * @return Asientos que se pueden vender
+         */
+        public int getDisponibles() {
+            return getAsientos() - bloqueados.length;
+        }
+
+        public int[] getBloqueados() {
+            return bloqueados.clone();
+        }
+
+        public boolean estaBloqueado(int numero) {
+            return Arrays.binarySearch(bloqueados, numero) >= 0;
+        }
+
+        /**
+         * @param numero Número de asiento (desde 1)
+         * @return Fila del asiento dentro de la sección (desde 1)
+         */
+        public int fila(int numero) {
+            return (numero - 1) / asientosPorFila + 1;
+        }
+    }
+
+    private final List<Seccion> secciones;
+    private final String[][] nombres; // nombres[seccion][numero] = "B7" (se comparten entre vuelos)
+    private final int totalDisponibles;
+
+    /**
+     * @param secciones Secciones en orden ('A' la primera)
+     * @throws IllegalArgumentException si no hay secciones o hay más de {@value #MAXIMO_SECCIONES}
+     */
+    public DistribucionCabina(List<Seccion> secciones) {
+        if (secciones.isEmpty() || secciones.size() > MAXIMO_SECCIONES) {
+            throw new IllegalArgumentException("Una cabina tiene entre 1 y " + MAXIMO_SECCIONES + " secciones: " + secciones.size());
+        }
+        this.secciones = Collections.unmodifiableList(new ArrayList<>(secciones));
+        this.nombres = new String[secciones.size()][];
+        int disponibles = 0;
+        for (int s = 0; s < secciones.size(); s++) {
+            Seccion seccion = secciones.get(s);
+            nombres[s] = new String[seccion.getAsientos() + 1];
+            for (int numero = 1; numero <= seccion.getAsientos(); numero++) {
+                nombres[s][numero] = (char) ('A' + s) + Integer.toString(numero);
+            }
+            disponibles += seccion.getDisponibles();
+        }
+        this.totalDisponibles = disponibles;
+    }
+
+    /**
+     * @param cantidadSecciones Cantidad de secciones
+     * @param asientosPorSeccion Asientos de cada sección (una sola fila, sin bloqueados)
+     * @return Cabina con todas las secciones iguales
+     */
+    public static DistribucionCabina uniforme(int cantidadSecciones, int asientosPorSeccion) {
+        List<Seccion> secciones = new ArrayList<>();
+        for (int s = 0; s < cantidadSecciones; s++) {
+            secciones.add(new Seccion(String.valueOf((char) ('A' + s)), 1, asientosPorSeccion));
+        }
+        return new DistribucionCabina(secciones);
+    }
+
+    public int getCantidadSecciones() {
+        return secciones.size();
+    }
+
+    public List<Seccion> getSecciones() {
+        return secciones;
+    }
+
+    /**
+     * @param indice Índice de la sección (0 = 'A')
+     */
+    public Seccion getSeccion(int indice) {
+        return secciones.get(indice);
+    }
+
+    /**
+     * @param letra Letra de la sección (ej: 'B')
+     * @return Sección o null si la cabina no la tiene
+     */
+    public Seccion getSeccion(char letra) {
+        int indice = letra - 'A';
+        return indice >= 0 && indice < secciones.size() ? secciones.get(indice) : null;
+    }
+
+    /**
+     * @return Asientos que se pueden vender en toda la cabina
+     */
+    public int getTotalAsientos() {
+        return totalDisponibles;
+    }
+
+    /**
+     * @param seccion Letra de la sección
+     * @param numero Número de asiento
+     * @return true si el asiento existe y no está bloqueado
+     */
+    public boolean esVendible(char seccion, int numero) {
+        Seccion s = getSeccion(seccion);
+        return s != null && numero >= 1 && numero <= s.getAsientos() && !s.estaBloqueado(numero);
+    }
+
+    /**
+     * @param seccion Índice de la sección (0 = 'A')
+     * @param numero Número de asiento (desde 1)
+     * @return Nombre del asiento (ej: "B7"), sin crear cadenas nuevas
+     */
+    String nombreAsiento(int seccion, int numero) {
+        return nombres[seccion][numero];
+    }
+}
@@ -0,0 +1,250 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Enrutador dirigido al objetivo: A* con cotas ALT (A*, Landmarks, desigualdad Triangular).
+ * Precalcula, para unas pocas ciudades de referencia (por ejemplo "Buenos Aires"), los tiempos
+ * mínimos desde y hacia cada ciudad de la red. Con ellos estima una cota inferior admisible del
+ * tiempo restante hasta el destino, de modo que la búsqueda se dirige hacia él y asienta muchas
+ * menos ciudades que Dijkstra, devolviendo el mismo itinerario óptimo (tiempo y, a igual tiempo, precio).
+ * Las tablas se reconstruyen automáticamente la primera vez que se consulta tras un cambio del grafo.
+ *
+ * @author Giuliano Zulatto
+ * @version 1.0
+ * @since 2025-12-01
+ */
+public class EnrutadorALT {
+    /** Cantidad de puntos de referencia elegidos automáticamente si no se indican. */
+    public static final int CANTIDAD_REFERENCIAS_POR_DEFECTO = 4;
+
+    private final Grafo grafo;
+    private final String[] referenciasPedidas;
+    private volatile Tablas tablas;
+
+    /**
+     * @param grafo Red de vuelos
+     * @param referencias Ciudades de referencia (hubs). Si no se indica ninguna, se eligen
+     *                    automáticamente las más alejadas entre sí.
+     */
+    public EnrutadorALT(Grafo grafo, String... referencias) {
+        this.grafo = grafo;
+        this.referenciasPedidas = referencias.clone();
+    }
+
+    /**
+     * Calcula el itinerario óptimo entre dos ciudades con A* guiado por las cotas de referencia.
+     * @param origenNombre Nombre de la ciudad de origen
+     * @param destinoNombre Nombre de la ciudad de destino
+     * @return Itinerario óptimo, o {@link Itinerario#vacio()} si no hay ruta
+     */
+    public Itinerario calcularItinerario(String origenNombre, String destinoNombre) {
+        GrafoCompacto compacto = grafo.getCompacto();
+        int origen = compacto.indice(origenNombre);
+        int destino = compacto.indice(destinoNombre);
+        if (origen == -1 || destino == -1) return Itinerario.vacio();
+        return calcularItinerario(compacto, origen, destino);
+    }
+
+    /**
+     * Búsqueda sobre una instantánea concreta (la que usa {@link Grafo} en el modo {@link ModoBusqueda#ALT}).
+     * @param compacto Instantánea de la red; las tablas se reconstruyen si son de otra versión
+     * @param origen Índice de la ciudad de origen
+     * @param destino Índice de la ciudad de destino
+     * @return Itinerario óptimo, o {@link Itinerario#vacio()} si no hay ruta
+     */
+    Itinerario calcularItinerario(GrafoCompacto compacto, int origen, int destino) {
+        Tablas t = obtenerTablas(compacto);
+        ContextoBusqueda contexto = compacto.tomarContexto();
+        try {
+            ColaPrioridadRuta cola = contexto.getCola();
+            contexto.etiquetar(origen, 0, 0, -1);
+            cola.agregar(origen, t.cota(origen, destino), 0);
+            while (!cola.estaVacia()) {
+                int actual = cola.extraerMinimo();
+                if (contexto.estaCerrada(actual)) continue;
+                contexto.cerrar(actual);
+                if (actual == destino) break;
+                long tiempoActual = contexto.tiempo(actual);
+                double precioActual = contexto.precio(actual);
+                for (int e = compacto.inicioTramos(actual), fin = compacto.finTramos(actual); e < fin; e++) {
+                    int vecino = compacto.destino(e);
+                    if (contexto.estaCerrada(vecino)) continue;
+                    long nuevoTiempo = tiempoActual + compacto.tiempoMicrohoras(e);
+                    double nuevoPrecio = precioActual + compacto.precio(e);
+                    long tiempoVecino = contexto.tiempo(vecino);
+                    double precioVecino = contexto.precio(vecino);
+                    if (GrafoCompacto.esMejor(nuevoTiempo, nuevoPrecio, tiempoVecino, precioVecino)) {
+                        contexto.etiquetar(vecino, nuevoTiempo, nuevoPrecio, e);
+                        // Prioridad = tiempo recorrido + cota inferior del tiempo restante
+                        cola.agregar(vecino, nuevoTiempo + t.cota(vecino, destino), nuevoPrecio);
+                    } else if (nuevoTiempo == tiempoVecino && nuevoPrecio == precioVecino && e < contexto.tramoPrevio(vecino)) {
+                        contexto.cambiarTramoPrevio(vecino, e); // Mismo desempate que Dijkstra
+                    }
+                }
+            }
+            if (!contexto.estaCerrada(destino)) {
+                return new Itinerario(Collections.emptyList(), 0.0, 0.0, contexto.getAsentados());
+            }
+
+            int cantidad = 0;
+            for (int v = destino; contexto.tramoPrevio(v) != -1; v = compacto.origen(contexto.tramoPrevio(v))) cantidad++;
+            int[] tramos = new int[cantidad];
+            for (int v = destino, i = cantidad - 1; i >= 0; v = compacto.origen(tramos[i]), i--) {
+                tramos[i] = contexto.tramoPrevio(v);
+            }
+            return compacto.armarItinerario(origen, tramos, contexto.getAsentados());
+        } finally {
+            compacto.devolverContexto(contexto);
+        }
+    }
+
+    /**
+     * Ciudades de referencia usadas por las tablas vigentes (las reconstruye si el grafo cambió).
+     * @return Nombres de las ciudades de referencia
+     */
+    public String[] getReferencias() {
+        Tablas t = obtenerTablas(grafo.getCompacto());
+        String[] nombres = new String[t.referencias.length];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = t.compacto.nombre(t.referencias[i]);
+        }
+        return nombres;
+    }
+
+    /**
+     * Devuelve las tablas de la instantánea indicada, reconstruyéndolas si quedaron obsoletas.
+     */
+    private Tablas obtenerTablas(GrafoCompacto compacto) {
+        Tablas actuales = tablas;
+        if (actuales != null && actuales.compacto == compacto) {
+            return actuales;
+        }
+        synchronized (this) {
+            if (tablas == null || tablas.compacto != compacto) {
+                tablas = construirTablas(compacto);
+            }
+            return tablas;
+        }
+    }
+
+    private Tablas construirTablas(GrafoCompacto compacto) {
+        int[] referencias;
+        if (referenciasPedidas.length > 0) {
+            referencias = new int[referenciasPedidas.length];
+            int cantidad = 0;
+            for (String nombre : referenciasPedidas) {
+                int id = compacto.indice(nombre);
+                if (id != -1) referencias[cantidad++] = id;
+            }
+            referencias = Arrays.copyOf(referencias, cantidad);
+        } else {
+            referencias = seleccionarLejanas(compacto, CANTIDAD_REFERENCIAS_POR_DEFECTO);
+        }
+
+        long[][] desde = new long[referencias.length][];
+        long[][] hacia = new long[referencias.length][];
+        for (int i = 0; i < referencias.length; i++) {
+            desde[i] = tiemposMinimos(compacto, referencias[i], false);
+            hacia[i] = tiemposMinimos(compacto, referencias[i], true);
+        }
+        return new Tablas(compacto, referencias, desde, hacia);
+    }
+
+    /**
+     * Selección por lejanía: empieza por la primera ciudad y agrega en cada paso la ciudad
+     * alcanzable más alejada (en tiempo) de las referencias ya elegidas.
+     */
+    private static int[] seleccionarLejanas(GrafoCompacto compacto, int cantidad) {
+        int n = compacto.getCantidadCiudades();
+        cantidad = Math.min(cantidad, n);
+        int[] elegidas = new int[cantidad];
+        if (cantidad == 0) return elegidas;
+        long[] distanciaMinima = new long[n];
+        Arrays.fill(distanciaMinima, GrafoCompacto.TIEMPO_INFINITO);
+        int actual = 0;
+        for (int k = 0; k < cantidad; k++) {
+            elegidas[k] = actual;
+            long[] tiempos = tiemposMinimos(compacto, actual, false);
+            int siguiente = -1;
+            for (int v = 0; v < n; v++) {
+                if (tiempos[v] < distanciaMinima[v]) distanciaMinima[v] = tiempos[v];
+                if (distanciaMinima[v] != GrafoCompacto.TIEMPO_INFINITO && distanciaMinima[v] > 0
+                        && (siguiente == -1 || distanciaMinima[v] > distanciaMinima[siguiente])) {
+                    siguiente = v;
+                }
+            }
+            if (siguiente == -1) return Arrays.copyOf(elegidas, k + 1);
+            actual = siguiente;
+        }
+        return elegidas;
+    }
+
+    /**
+     * Tiempos mínimos (en microhoras) desde la referencia a todas las ciudades o, si
+     * {@code haciaReferencia} es true, desde todas las ciudades hacia la referencia.
+     */
+    private static long[] tiemposMinimos(GrafoCompacto compacto, int referencia, boolean haciaReferencia) {
+        int n = compacto.getCantidadCiudades();
+        long[] tiempo = new long[n];
+        Arrays.fill(tiempo, GrafoCompacto.TIEMPO_INFINITO);
+        boolean[] cerrada = new boolean[n];
+        int[][] inversa = haciaReferencia ? compacto.getInversa() : null;
+        ColaPrioridadRuta cola = new ColaPrioridadRuta(16);
+        tiempo[referencia] = 0;
+        cola.agregar(referencia, 0, 0);
+        while (!cola.estaVacia()) {
+            int actual = cola.extraerMinimo();
+            if (cerrada[actual]) continue;
+            cerrada[actual] = true;
+            int desde = haciaReferencia ? inversa[0][actual] : compacto.inicioTramos(actual);
+            int hasta = haciaReferencia ? inversa[0][actual + 1] : compacto.finTramos(actual);
+            for (int i = desde; i < hasta; i++) {
+                int e = haciaReferencia ? inversa[1][i] : i;
+                int vecino = haciaReferencia ? compacto.origen(e) : compacto.destino(e);
+                long nuevo = tiempo[actual] + compacto.tiempoMicrohoras(e);
+                if (nuevo < tiempo[vecino]) {
+                    tiempo[vecino] = nuevo;
+                    cola.agregar(vecino, nuevo, 0);
+                }
+            }
+        }
+        return tiempo;
+    }
+
+    /** Tablas de tiempos de una versión concreta del grafo. */
+    private static final class Tablas {
+        private final GrafoCompacto compacto;
+        private final int[] referencias;
+        private final long[][] desde; // desde[i][v] = tiempo mínimo referencia i -> v
+        private final long[][] hacia; // hacia[i][v] = tiempo mínimo v -> referencia i
+
+        Tablas(GrafoCompacto compacto, int[] referencias, long[][] desde, long[][] hacia) {
+            this.compacto = compacto;
+            this.referencias = referencias;
+            this.desde = desde;
+            this.hacia = hacia;
+        }
+
+        /**
+         * Cota inferior del tiempo de {@code v} a {@code destino} por desigualdad triangular:
+         * máx. sobre las referencias L de d(L, destino) - d(L, v) y d(v, L) - d(destino, L).
+         */
+        long cota(int v, int destino) {
+            long mejor = 0;
+            final long inf = GrafoCompacto.TIEMPO_INFINITO;
+            for (int i = 0; i < referencias.length; i++) {
+                long[] d = desde[i];
+                if (d[destino] != inf && d[v] != inf) {
+                    mejor = Math.max(mejor, d[destino] - d[v]);
+                }
+                long[] h = hacia[i];
+                if (h[v] != inf && h[destino] != inf) {
+                    mejor = Math.max(mejor, h[v] - h[destino]);
+                }
+            }
+            return mejor;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.aerolineaspc21.modelo;
+
+/**
+ * Fuente de números de reserva. Cada llamada devuelve un número que nunca se repite
+ * (el código visible "RES-XXXX" se arma recién al mostrarlo).
+ * Las implementaciones deben ser seguras para varios hilos.
+ *
+ * @see SecuenciaReservas
+ * @see Reserva#setGeneradorIds(GeneradorIdsReserva)
+ */
+@FunctionalInterface
+public interface GeneradorIdsReserva {
+    /**
+     * @return Nuevo número de reserva
+     */
+    long siguiente();
+}
@@ -4,10 +4,11 @@ import java.util.List;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Grafo {
     public Vertice getVertice(String nombre) {
-        return vertices.get(nombre);
+        return vertices().get(nombre);
     }
 
     public List<String> recorridoDFS(String origenNombre) {
@@ -15,12 +16,143 @@ public class Grafo {
     }
     /**
      * Calcula la ruta óptima entre dos ciudades usando Dijkstra (tiempo principal, precio como desempate).
+     * Puede invocarse desde varios hilos a la vez mientras la red no se modifique.
+     * Los resultados se sirven desde la caché de rutas mientras la red no cambie.
      * @param origenNombre Nombre de la ciudad de origen
      * @param destinoNombre Nombre de la ciudad de destino
      * @return Lista de nombres de ciudades en el itinerario óptimo
      */
     public java.util.List<String> calcularRutaMinima(String origenNombre, String destinoNombre) {
-        return calcularRuta(origenNombre, destinoNombre);
+        return calcularItinerario(origenNombre, destinoNombre).getCiudades();
+    }
+
+    /**
+     * Calcula el itinerario óptimo (ciudades y totales) consultando primero la caché de rutas.
+     * Un acierto no ejecuta Dijkstra; un fallo calcula la ruta y la guarda para la versión actual.
+     * @param origenNombre Nombre de la ciudad de origen
+     * @param destinoNombre Nombre de la ciudad de destino
+     * @return Itinerario óptimo, o {@link Itinerario#vacio()} si no hay ruta
+     */
+    public Itinerario calcularItinerario(String origenNombre, String destinoNombre) {
+        GrafoCompacto compacto = getCompacto();
+        long versionCompacto = compacto.getVersion();
+        ModoBusqueda modo = modoBusqueda; // Se lee una vez: el mismo modo para la clave y el cálculo
+        Itinerario itinerario = cacheRutas.obtener(origenNombre, destinoNombre, modo, versionCompacto);
+        if (itinerario != null) return itinerario;
+
+        int origen = compacto.indice(origenNombre);
+        int destino = compacto.indice(destinoNombre);
+        if (origen == -1 || destino == -1) return Itinerario.vacio();
+        itinerario = calcularItinerario(compacto, origen, destino, modo);
+        cacheRutas.guardar(origenNombre, destinoNombre, modo, versionCompacto, itinerario);
+        return itinerario;
+    }
+
+    /**
+     * Calcula el itinerario óptimo con una estrategia concreta, sin pasar por la caché.
+     * Útil para comparar cuántas ciudades asienta cada modo ({@link Itinerario#getCiudadesAsentadas()}).
+     * @param origenNombre Nombre de la ciudad de origen
+     * @param destinoNombre Nombre de la ciudad de destino
+     * @param modo Estrategia de búsqueda
+     * @return Itinerario óptimo, o uno sin ciudades si no hay ruta (con las ciudades que asentó la
+     *         búsqueda); {@link Itinerario#vacio()} si alguna ciudad no existe
+     */
+    public Itinerario calcularItinerario(String origenNombre, String destinoNombre, ModoBusqueda modo) {
+        GrafoCompacto compacto = getCompacto();
+        int origen = compacto.indice(origenNombre);
+        int destino = compacto.indice(destinoNombre);
+        if (origen == -1 || destino == -1) return Itinerario.vacio();
+        return calcularItinerario(compacto, origen, destino, modo);
+    }
+
+    private Itinerario calcularItinerario(GrafoCompacto compacto, int origen, int destino, ModoBusqueda modo) {
+        if (modo == ModoBusqueda.CONTRACCION_JERARQUICA) {
+            return getJerarquia(compacto).calcularItinerario(origen, destino);
+        }
+        if (modo == ModoBusqueda.ALT) {
+            return enrutadorALT.calcularItinerario(compacto, origen, destino);
+        }
+        return compacto.calcularItinerario(origen, destino, modo);
+    }
+
+    /**
+     * Devuelve la jerarquía de contracción de la versión actual de la red, preprocesándola
+     * (en paralelo) si todavía no existe o si la red cambió desde la última vez.
+     * @return Jerarquía lista para consultas
+     */
+    public ContraccionJerarquica getJerarquia() {
+        return getJerarquia(getCompacto());
+    }
+
+    private ContraccionJerarquica getJerarquia(GrafoCompacto compacto) {
+        ContraccionJerarquica actual = jerarquia;
+        if (actual != null && actual.getCompacto() == compacto) {
+            return actual;
+        }
+        synchronized (bloqueoJerarquia) {
+            if (jerarquia == null || jerarquia.getCompacto() != compacto) {
+                jerarquia = ContraccionJerarquica.preprocesar(compacto);
+            }
+            return jerarquia;
+        }
+    }
+
+    /**
+     * Calcula en una sola búsqueda las rutas óptimas desde una ciudad hacia todas las demás.
+     * @param origenNombre Nombre de la ciudad de origen
+     * @return Matriz de una fila con una columna por ciudad de la red
+     * @throws IllegalArgumentException si la ciudad no existe
+     */
+    public MatrizRutas calcularRutasDesde(String origenNombre) {
+        GrafoCompacto compacto = getCompacto();
+        return compacto.calcularRutasDesde(indiceExistente(compacto, origenNombre));
+    }
+
+    /**
+     * Calcula la matriz de rutas óptimas entre varios orígenes y destinos (por ejemplo, para una
+     * planilla de tarifas). Los orígenes se procesan en paralelo.
+     * @param origenes Nombres de las ciudades de origen (filas, en el orden dado)
+     * @param destinos Nombres de las ciudades de destino (columnas, en el orden dado)
+     * @return Matriz de tiempos, precios y predecesores
+     * @throws IllegalArgumentException si alguna ciudad no existe
+     */
+    public MatrizRutas calcularMatrizRutas(List<String> origenes, List<String> destinos) {
+        GrafoCompacto compacto = getCompacto();
+        int[] filas = new int[origenes.size()];
+        for (int i = 0; i < filas.length; i++) {
+            filas[i] = indiceExistente(compacto, origenes.get(i));
+        }
+        int[] columnas = new int[destinos.size()];
+        for (int j = 0; j < columnas.length; j++) {
+            columnas[j] = indiceExistente(compacto, destinos.get(j));
+        }
+        return compacto.calcularMatriz(filas, columnas);
+    }
+
+    private static int indiceExistente(GrafoCompacto compacto, String nombre) {
+        int indice = compacto.indice(nombre);
+        if (indice == -1) {
+            throw new IllegalArgumentException("Ciudad inexistente: " + nombre);
+        }
+        return indice;
+    }
+
+    public ModoBusqueda getModoBusqueda() {
+        return modoBusqueda;
+    }
+
+    /**
+     * Cambia la estrategia usada por {@link #calcularRutaMinima(String, String)}.
+     * La caché guarda los itinerarios por modo, así que después del cambio no se sirven resultados
+     * (ni ciudades asentadas) calculados con la estrategia anterior.
+     * @param modoBusqueda Estrategia de búsqueda
+     */
+    public void setModoBusqueda(ModoBusqueda modoBusqueda) {
+        this.modoBusqueda = modoBusqueda;
+    }
+
+    public CacheRutas getCacheRutas() {
+        return cacheRutas;
     }
 
     /**
@@ -33,70 +165,161 @@ public class Grafo {
     }
     /**
      * Realiza un recorrido en anchura (BFS) desde el vértice de origen.
+     * Se ejecuta sobre la instantánea compacta del grafo.
      * @param origenNombre Nombre del vértice de origen
      * @return Lista de nombres de vértices alcanzables
      */
     public java.util.List<String> BFS(String origenNombre) {
-        java.util.List<String> resultado = new java.util.ArrayList<>();
-        java.util.Set<String> visitados = new java.util.HashSet<>();
-        java.util.Queue<Vertice> cola = new java.util.LinkedList<>();
-        Vertice origen = vertices.get(origenNombre);
-        if (origen == null) return resultado;
-        cola.add(origen);
-        visitados.add(origen.getNombre());
-        while (!cola.isEmpty()) {
-            Vertice actual = cola.poll();
-            resultado.add(actual.getNombre());
-            for (Arista arista : actual.getAdyacentes()) {
-                Vertice vecino = arista.getDestino();
-                if (!visitados.contains(vecino.getNombre())) {
-                    cola.add(vecino);
-                    visitados.add(vecino.getNombre());
-                }
-            }
-        }
-        return resultado;
+        GrafoCompacto compacto = getCompacto();
+        int origen = compacto.indice(origenNombre);
+        if (origen == -1) return new java.util.ArrayList<>();
+        return compacto.bfs(origen);
     }
 
     /**
      * Realiza un recorrido en profundidad (DFS) desde el vértice de origen.
+     * Se ejecuta sobre la instantánea compacta del grafo.
      * @param origenNombre Nombre del vértice de origen
      * @return Lista de nombres de vértices alcanzables
      */
     public java.util.List<String> DFS(String origenNombre) {
-        java.util.List<String> resultado = new java.util.ArrayList<>();
-        java.util.Set<String> visitados = new java.util.HashSet<>();
-        Vertice origen = vertices.get(origenNombre);
-        if (origen == null) return resultado;
-        DFSRecursivo(origen, visitados, resultado);
-        return resultado;
+        GrafoCompacto compacto = getCompacto();
+        int origen = compacto.indice(origenNombre);
+        if (origen == -1) return new java.util.ArrayList<>();
+        return compacto.dfs(origen);
     }
 
-    private void DFSRecursivo(Vertice actual, java.util.Set<String> visitados, java.util.List<String> resultado) {
-        visitados.add(actual.getNombre());
-        resultado.add(actual.getNombre());
-        for (Arista arista : actual.getAdyacentes()) {
-            Vertice vecino = arista.getDestino();
-            if (!visitados.contains(vecino.getNombre())) {
-                DFSRecursivo(vecino, visitados, resultado);
-            }
+    /**
+     * Calcula la cantidad mínima de tramos (escalas + 1) desde el origen hasta cada ciudad
+     * alcanzable, con un BFS que alterna entre expansión descendente y ascendente según el
+     * tamaño de la frontera. Pensado para barridos de alcanzabilidad sobre redes grandes.
+     * @param origenNombre Nombre de la ciudad de origen
+     * @return Mapa de ciudad alcanzable a cantidad de tramos (vacío si el origen no existe)
+     */
+    public Map<String, Integer> nivelesBFS(String origenNombre) {
+        GrafoCompacto compacto = getCompacto();
+        int origen = compacto.indice(origenNombre);
+        Map<String, Integer> resultado = new HashMap<>();
+        if (origen == -1) return resultado;
+        int[] niveles = compacto.nivelesBfs(origen);
+        for (int v = 0; v < niveles.length; v++) {
+            if (niveles[v] != -1) resultado.put(compacto.nombre(v), niveles[v]);
         }
+        return resultado;
     }
-    private Map<String, Vertice> vertices;
+
+    private volatile Map<String, Vertice> vertices; // null mientras el grafo cargado de archivo no se materialice
+    private final AtomicLong version = new AtomicLong(); // Se incrementa con cada modificación de la red
+    private volatile GrafoCompacto compacto; // Instantánea CSR de la última versión consultada
+    private static final int CAPACIDAD_CACHE_RUTAS = 1024;
+    private final CacheRutas cacheRutas = new CacheRutas(CAPACIDAD_CACHE_RUTAS);
+    private volatile ModoBusqueda modoBusqueda = ModoBusqueda.UNIDIRECCIONAL;
+    private volatile ContraccionJerarquica jerarquia; // Se preprocesa bajo demanda
+    private final Object bloqueoJerarquia = new Object();
+    private final EnrutadorALT enrutadorALT = new EnrutadorALT(this); // Referencias elegidas por lejanía
 
     public Grafo() {
         this.vertices = new HashMap<>();
     }
 
+    /**
+     * Grafo respaldado por una instantánea ya construida (por ejemplo, cargada de un archivo binario).
+     * Las consultas usan directamente la instantánea; los {@link Vertice} se crean recién cuando
+     * se los pide o cuando se modifica la red.
+     * @param instantanea Instantánea de la red
+     */
+    Grafo(GrafoCompacto instantanea) {
+        this.version.set(instantanea.getVersion());
+        this.compacto = instantanea;
+    }
+
+    /**
+     * Mapa de ciudades, materializándolo desde la instantánea si el grafo se cargó de archivo.
+     */
+    private Map<String, Vertice> vertices() {
+        Map<String, Vertice> actuales = vertices;
+        if (actuales != null) return actuales;
+        synchronized (this) {
+            if (vertices == null) {
+                Vertice[] porIndice = compacto.materializar();
+                Map<String, Vertice> mapa = new HashMap<>(porIndice.length * 2);
+                for (Vertice vertice : porIndice) {
+                    vertice.setGrafo(this);
+                    mapa.put(vertice.getNombre(), vertice);
+                }
+                vertices = mapa;
+            }
+            return vertices;
+        }
+    }
+
+    /**
+     * Devuelve los vértices del grafo (vista de solo lectura).
+     * Las modificaciones deben hacerse a través del grafo para mantener la instantánea al día.
+     * @return Mapa de nombre de ciudad a vértice
+     */
     public Map<String, Vertice> getVertices() {
-        return vertices;
+        return java.util.Collections.unmodifiableMap(vertices());
+    }
+
+    /**
+     * Versión actual de la red. Cambia con cada ciudad o arista agregada.
+     * @return Número de versión
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Devuelve la instantánea compacta (CSR) de la red, reconstruyéndola si el grafo cambió.
+     * Es segura para consultas concurrentes: la instantánea es inmutable y solo un hilo la reconstruye.
+     * @return Instantánea de la versión actual
+     */
+    public GrafoCompacto getCompacto() {
+        GrafoCompacto actual = compacto;
+        if (actual != null && actual.getVersion() == version.get()) {
+            return actual;
+        }
+        synchronized (this) {
+            long v = version.get();
+            if (compacto == null || compacto.getVersion() != v) {
+                compacto = GrafoCompacto.desde(vertices().values(), v);
+            }
+            return compacto;
+        }
+    }
+
+    /**
+     * Registra una modificación de la red; invalida la instantánea compacta.
+     * Lo invocan el propio grafo y {@link Vertice#agregarArista(Arista)}.
+     */
+    void registrarCambio() {
+        version.incrementAndGet();
+    }
+
+    private void agregarVertice(String nombre) {
+        Vertice vertice = new Vertice(nombre);
+        vertice.setGrafo(this);
+        vertices().put(nombre, vertice);
+        registrarCambio();
+    }
+
+    /**
+     * Agrega una ciudad a la red si todavía no existe.
+     * @param nombre Nombre de la ciudad
+     * @return true si la ciudad es nueva
+     */
+    public boolean agregarCiudad(String nombre) {
+        if (vertices().containsKey(nombre)) return false;
+        agregarVertice(nombre);
+        return true;
     }
 
     public void cargarDatosIniciales() {
         // Carga de 7 ciudades según enunciado
         String[] ciudades = {"Buenos Aires", "Córdoba", "Mendoza", "Bariloche", "Santa Cruz", "Santa Fe", "Posadas"};
         for (String ciudad : ciudades) {
-            vertices.put(ciudad, new Vertice(ciudad));
+            agregarVertice(ciudad);
         }
         // Conexiones directas desde Buenos Aires
         agregarAristaBidireccional("Buenos Aires", "Córdoba", 1.2, 120000);
@@ -115,65 +338,37 @@ public class Grafo {
         agregarAristaBidireccional("Santa Fe", "Posadas", 1.2, 80000);
     }
 
-    private void agregarAristaBidireccional(String origen, String destino, double tiempo, double precioBase) {
-        Vertice vOrigen = vertices.get(origen);
-        Vertice vDestino = vertices.get(destino);
+    /**
+     * Agrega un vuelo en ambos sentidos con el mismo tiempo y precio base.
+     * Si alguna de las ciudades no existe, la ruta se ignora.
+     * @param origen Nombre de una ciudad
+     * @param destino Nombre de la otra ciudad
+     * @param tiempo Tiempo de vuelo en horas
+     * @param precioBase Precio base del tramo
+     * @return true si la ruta se agregó
+     */
+    public boolean agregarAristaBidireccional(String origen, String destino, double tiempo, double precioBase) {
+        Vertice vOrigen = vertices().get(origen);
+        Vertice vDestino = vertices().get(destino);
         if (vOrigen != null && vDestino != null) {
             vOrigen.agregarArista(new Arista(vDestino, tiempo, precioBase));
             vDestino.agregarArista(new Arista(vOrigen, tiempo, precioBase));
+            return true;
         }
+        return false;
     }
     /**
      * Calcula la ruta mínima entre dos ciudades usando Dijkstra.
      * Prioriza tiempo total, y en caso de empate, precio total.
      * Devuelve la lista de nombres de ciudades en el itinerario.
+     * La búsqueda recorre la instantánea compacta del grafo (índices enteros y arreglos primitivos)
+     * con un estado de búsqueda propio, por lo que admite consultas concurrentes sobre el mismo grafo.
      */
     public java.util.List<String> calcularRuta(String origenNombre, String destinoNombre) {
-        // Reiniciar atributos de vértices
-        for (Vertice v : vertices.values()) {
-            v.clear();
-        }
-        Vertice origen = vertices.get(origenNombre);
-        Vertice destino = vertices.get(destinoNombre);
-        if (origen == null || destino == null) return java.util.Collections.emptyList();
-    origen.setTiempoMinimoAcumulado(0);
-    origen.setPrecioTotalAcumulado(0);
-        java.util.PriorityQueue<Vertice> cola = new java.util.PriorityQueue<>(
-            (a, b) -> {
-                int cmp = Double.compare(a.getTiempoMinimoAcumulado(), b.getTiempoMinimoAcumulado());
-                if (cmp == 0) {
-                    return Double.compare(a.getPrecioTotalAcumulado(), b.getPrecioTotalAcumulado());
-                }
-                return cmp;
-            }
-        );
-        cola.add(origen);
-        while (!cola.isEmpty()) {
-            Vertice actual = cola.poll();
-            if (actual.isVisitado()) continue;
-            actual.setVisitado(true);
-            if (actual == destino) break;
-            for (Arista arista : actual.getAdyacentes()) {
-                Vertice vecino = arista.getDestino();
-                double nuevoTiempo = actual.getTiempoMinimoAcumulado() + arista.getTiempo();
-                double nuevoPrecio = actual.getPrecioTotalAcumulado() + arista.getPrecioBase();
-                if (nuevoTiempo < vecino.getTiempoMinimoAcumulado() ||
-                    (Math.abs(nuevoTiempo - vecino.getTiempoMinimoAcumulado()) < 1e-6 && nuevoPrecio < vecino.getPrecioTotalAcumulado())) {
-                    vecino.setTiempoMinimoAcumulado(nuevoTiempo);
-                    vecino.setPrecioTotalAcumulado(nuevoPrecio);
-                    vecino.setPredecesor(actual);
-                    cola.add(vecino);
-                }
-            }
-        }
-        // Reconstruir la ruta
-        java.util.LinkedList<String> ruta = new java.util.LinkedList<>();
-        Vertice v = destino;
-        while (v != null) {
-            ruta.addFirst(v.getNombre());
-            v = v.getPredecesor();
-        }
-        if (ruta.isEmpty() || !ruta.getFirst().equals(origenNombre)) return java.util.Collections.emptyList();
-        return ruta;
+        GrafoCompacto compacto = getCompacto();
+        int origen = compacto.indice(origenNombre);
+        int destino = compacto.indice(destinoNombre);
+        if (origen == -1 || destino == -1) return java.util.Collections.emptyList();
+        return compacto.calcularRuta(origen, destino);
     }
 }
@@ -0,0 +1,787 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Instantánea compacta de la red de vuelos en formato CSR (Compressed Sparse Row).
+ * Cada ciudad se identifica con un índice entero y los tramos salientes de la ciudad {@code v}
+ * ocupan las posiciones {@code inicio[v]} a {@code inicio[v + 1] - 1} de los arreglos primitivos
+ * de destinos, tiempos y precios. Es inmutable: {@link Grafo} la reconstruye cuando la red cambia.
+ * Los tiempos se guardan como microhoras enteras: así las sumas son exactas y dos rutas de igual
+ * duración empatan de verdad, dejando que el precio decida sin depender de un margen de redondeo.
+ * Las búsquedas toman su estado de trabajo de un pool de {@link ContextoBusqueda}, por lo que
+ * pueden ejecutarse concurrentemente desde varios hilos.
+ *
+ * @author Giuliano Zulatto
+ * @version 1.0
+ * @since 2025-12-01
+ */
+public class GrafoCompacto {
+    private final String[] nombres;          // Índice -> nombre de ciudad
+    private final Map<String, Integer> indices; // Nombre de ciudad -> índice
+    private final int[] inicio;              // Desplazamientos CSR (longitud V + 1)
+    private final int[] origenes;            // Ciudad de salida de cada tramo
+    private final int[] destinos;            // Ciudad de llegada de cada tramo
+    private final long[] tiempos;            // Tiempo de cada tramo (microhoras)
+    private final double[] precios;          // Precio base de cada tramo
+    private volatile Arista[] aristas;       // Arista original de cada tramo (para reconstruir itinerarios)
+    private volatile Vertice[] vertices;     // Ciudades por índice (se crean bajo demanda si se cargó de archivo)
+    private final long version;              // Versión del grafo a partir de la cual se construyó
+    private final ConcurrentLinkedQueue<ContextoBusqueda> contextos = new ConcurrentLinkedQueue<>();
+    private volatile int[][] inversa;        // CSR inverso {inicio, tramos} (se construye bajo demanda)
+
+    /** Microhoras por hora: resolución con la que se comparan los tiempos de viaje. */
+    public static final long MICROHORAS_POR_HORA = 1_000_000L;
+    static final long TIEMPO_INFINITO = Long.MAX_VALUE;
+    /** Umbral de paso a modo ascendente: tramos de la frontera > tramos sin explorar / ALFA. */
+    private static final int ALFA_BFS = 14;
+    /** Umbral de regreso a modo descendente: frontera < ciudades / BETA. */
+    private static final int BETA_BFS = 24;
+
+    private GrafoCompacto(String[] nombres, Map<String, Integer> indices, int[] inicio, int[] origenes,
+                          int[] destinos, long[] tiempos, double[] precios, Vertice[] vertices, Arista[] aristas,
+                          long version) {
+        this.nombres = nombres;
+        this.indices = indices;
+        this.inicio = inicio;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.tiempos = tiempos;
+        this.precios = precios;
+        this.vertices = vertices;
+        this.aristas = aristas;
+        this.version = version;
+    }
+
+    /**
+     * Construye la instantánea a partir de los vértices del grafo.
+     * Respeta el orden de inserción de las aristas de cada vértice, de modo que los recorridos
+     * sobre la instantánea visitan las ciudades en el mismo orden que sobre las listas de adyacencia.
+     * @param vertices Vértices del grafo
+     * @param version Versión del grafo en el momento de la construcción
+     * @return Instantánea compacta
+     */
+    public static GrafoCompacto desde(Collection<Vertice> vertices, long version) {
+        int n = vertices.size();
+        String[] nombres = new String[n];
+        Vertice[] porIndice = new Vertice[n];
+        Map<String, Integer> indices = new HashMap<>(n * 2);
+        int m = 0;
+        int id = 0;
+        for (Vertice v : vertices) {
+            nombres[id] = v.getNombre();
+            porIndice[id] = v;
+            indices.put(v.getNombre(), id);
+            m += v.getAdyacentes().size();
+            id++;
+        }
+
+        int[] inicio = new int[n + 1];
+        int[] origenes = new int[m];
+        int[] destinos = new int[m];
+        long[] tiempos = new long[m];
+        double[] precios = new double[m];
+        Arista[] aristas = new Arista[m];
+        int e = 0;
+        id = 0;
+        for (Vertice v : vertices) {
+            inicio[id] = e;
+            for (Arista arista : v.getAdyacentes()) {
+                Integer destino = indices.get(arista.getDestino().getNombre());
+                if (destino == null) continue; // Arista hacia un vértice ajeno al grafo
+                origenes[e] = id;
+                destinos[e] = destino;
+                tiempos[e] = aMicrohoras(arista.getTiempo());
+                precios[e] = arista.getPrecioBase();
+                aristas[e] = arista;
+                e++;
+            }
+            id++;
+        }
+        inicio[n] = e;
+        if (e < m) {
+            origenes = Arrays.copyOf(origenes, e);
+            destinos = Arrays.copyOf(destinos, e);
+            tiempos = Arrays.copyOf(tiempos, e);
+            precios = Arrays.copyOf(precios, e);
+            aristas = Arrays.copyOf(aristas, e);
+        }
+        return new GrafoCompacto(nombres, indices, inicio, origenes, destinos, tiempos, precios, porIndice, aristas,
+                                 version);
+    }
+
+    /**
+     * Construye la instantánea directamente a partir de los arreglos CSR (por ejemplo, leídos de un
+     * archivo binario). No crea objetos por tramo: los {@link Vertice} y {@link Arista} se crean
+     * recién si alguien los pide ({@link #arista(int)} o {@link #materializar()}).
+     */
+    static GrafoCompacto desdeArreglos(String[] nombres, int[] inicio, int[] destinos, long[] tiempos,
+                                       double[] precios, long version) {
+        int n = nombres.length;
+        Map<String, Integer> indices = new HashMap<>(n * 2);
+        for (int v = 0; v < n; v++) {
+            indices.put(nombres[v], v);
+        }
+        int[] origenes = new int[destinos.length];
+        for (int v = 0; v < n; v++) {
+            Arrays.fill(origenes, inicio[v], inicio[v + 1], v);
+        }
+        return new GrafoCompacto(nombres, indices, inicio, origenes, destinos, tiempos, precios, null, null, version);
+    }
+
+    /**
+     * Convierte horas a microhoras enteras (redondeo al más cercano).
+     * @param horas Tiempo en horas
+     * @return Tiempo en microhoras
+     */
+    public static long aMicrohoras(double horas) {
+        return Math.round(horas * MICROHORAS_POR_HORA);
+    }
+
+    /**
+     * Convierte microhoras enteras a horas.
+     * @param microhoras Tiempo en microhoras
+     * @return Tiempo en horas
+     */
+    public static double aHoras(long microhoras) {
+        return microhoras / (double) MICROHORAS_POR_HORA;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getCantidadCiudades() {
+        return nombres.length;
+    }
+
+    public int getCantidadTramos() {
+        return destinos.length;
+    }
+
+    /**
+     * Devuelve el índice entero de una ciudad.
+     * @param nombre Nombre de la ciudad
+     * @return Índice de la ciudad o -1 si no existe
+     */
+    public int indice(String nombre) {
+        Integer id = indices.get(nombre);
+        return id != null ? id : -1;
+    }
+
+    public String nombre(int ciudad) {
+        return nombres[ciudad];
+    }
+
+    public int inicioTramos(int ciudad) {
+        return inicio[ciudad];
+    }
+
+    public int finTramos(int ciudad) {
+        return inicio[ciudad + 1];
+    }
+
+    public int origen(int tramo) {
+        return origenes[tramo];
+    }
+
+    public int destino(int tramo) {
+        return destinos[tramo];
+    }
+
+    public double tiempo(int tramo) {
+        return aHoras(tiempos[tramo]);
+    }
+
+    /**
+     * @param tramo Índice del tramo
+     * @return Tiempo del tramo en microhoras
+     */
+    public long tiempoMicrohoras(int tramo) {
+        return tiempos[tramo];
+    }
+
+    public double precio(int tramo) {
+        return precios[tramo];
+    }
+
+    public Arista arista(int tramo) {
+        Arista[] resultado = aristas;
+        if (resultado == null) {
+            materializar();
+            resultado = aristas;
+        }
+        return resultado[tramo];
+    }
+
+    /**
+     * Devuelve las ciudades de la instantánea como {@link Vertice} (en orden de índice), creándolas
+     * junto con sus {@link Arista} la primera vez si la instantánea se cargó desde arreglos.
+     * @return Vértices por índice
+     */
+    Vertice[] materializar() {
+        Vertice[] resultado = vertices;
+        if (resultado != null) return resultado;
+        synchronized (this) {
+            if (vertices == null) {
+                Vertice[] nuevos = new Vertice[nombres.length];
+                for (int v = 0; v < nuevos.length; v++) {
+                    nuevos[v] = new Vertice(nombres[v]);
+                }
+                Arista[] nuevasAristas = new Arista[destinos.length];
+                for (int e = 0; e < destinos.length; e++) {
+                    nuevasAristas[e] = new Arista(nuevos[destinos[e]], aHoras(tiempos[e]), precios[e]);
+                    nuevos[origenes[e]].agregarArista(nuevasAristas[e]);
+                }
+                aristas = nuevasAristas;
+                vertices = nuevos;
+            }
+            return vertices;
+        }
+    }
+
+    /**
+     * Arreglos CSR de la instantánea, para serializarla ({@link CargadorRed}).
+     */
+    int[] getInicio() {
+        return inicio;
+    }
+
+    int[] getDestinos() {
+        return destinos;
+    }
+
+    long[] getTiempos() {
+        return tiempos;
+    }
+
+    double[] getPrecios() {
+        return precios;
+    }
+
+    /**
+     * Índice inverso en formato CSR: para cada ciudad, los tramos que llegan a ella.
+     * Se construye una sola vez bajo demanda (búsquedas hacia atrás y recorridos ascendentes).
+     * @return Arreglo {inicio, tramos}: los tramos entrantes a {@code v} son
+     *         {@code tramos[inicio[v]] .. tramos[inicio[v + 1] - 1]}
+     */
+    int[][] getInversa() {
+        int[][] resultado = inversa;
+        if (resultado == null) {
+            synchronized (this) {
+                resultado = inversa;
+                if (resultado == null) {
+                    int n = nombres.length;
+                    int[] inicioInverso = new int[n + 1];
+                    for (int destino : destinos) {
+                        inicioInverso[destino + 1]++;
+                    }
+                    for (int v = 0; v < n; v++) {
+                        inicioInverso[v + 1] += inicioInverso[v];
+                    }
+                    int[] siguiente = Arrays.copyOf(inicioInverso, n);
+                    int[] tramosInversos = new int[destinos.length];
+                    for (int e = 0; e < destinos.length; e++) {
+                        tramosInversos[siguiente[destinos[e]]++] = e;
+                    }
+                    resultado = new int[][] {inicioInverso, tramosInversos};
+                    inversa = resultado;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Toma un contexto de búsqueda libre del pool (o crea uno nuevo) y lo deja listo para usar.
+     * @return Contexto exclusivo del hilo que lo tomó hasta que se devuelva
+     */
+    ContextoBusqueda tomarContexto() {
+        ContextoBusqueda contexto = contextos.poll();
+        if (contexto == null) {
+            contexto = new ContextoBusqueda(nombres.length);
+        }
+        contexto.iniciar();
+        return contexto;
+    }
+
+    void devolverContexto(ContextoBusqueda contexto) {
+        contextos.offer(contexto);
+    }
+
+    /**
+     * Dijkstra sobre los arreglos primitivos: tiempo como criterio principal y precio como desempate.
+     * Es reentrante: el estado de la búsqueda vive en un contexto propio de la consulta.
+     * @param origen Índice de la ciudad de origen
+     * @param destino Índice de la ciudad de destino
+     * @return Nombres de las ciudades del itinerario óptimo, o lista vacía si no hay ruta
+     */
+    public List<String> calcularRuta(int origen, int destino) {
+        return calcularItinerario(origen, destino).getCiudades();
+    }
+
+    /**
+     * Igual que {@link #calcularRuta(int, int)} pero devuelve también los totales de tiempo y precio.
+     * @param origen Índice de la ciudad de origen
+     * @param destino Índice de la ciudad de destino
+     * @return Itinerario óptimo, o uno sin ciudades si no hay ruta (con las ciudades asentadas igual)
+     */
+    public Itinerario calcularItinerario(int origen, int destino) {
+        return calcularItinerario(origen, destino, ModoBusqueda.UNIDIRECCIONAL);
+    }
+
+    /**
+     * Calcula el itinerario óptimo con la estrategia indicada.
+     * @param origen Índice de la ciudad de origen
+     * @param destino Índice de la ciudad de destino
+     * @param modo Estrategia de búsqueda (las que no requieren preprocesamiento)
+     * @return Itinerario óptimo, o uno sin ciudades si no hay ruta (con las ciudades asentadas igual)
+     * @throws IllegalArgumentException si el modo requiere preprocesamiento ({@link ContraccionJerarquica} o {@link EnrutadorALT})
+     */
+    public Itinerario calcularItinerario(int origen, int destino, ModoBusqueda modo) {
+        if (modo == ModoBusqueda.CONTRACCION_JERARQUICA) {
+            throw new IllegalArgumentException("El modo " + modo + " requiere preprocesar una ContraccionJerarquica");
+        }
+        if (modo == ModoBusqueda.ALT) {
+            throw new IllegalArgumentException("El modo " + modo + " requiere las tablas de un EnrutadorALT");
+        }
+        if (modo == ModoBusqueda.BIDIRECCIONAL) {
+            return calcularItinerarioBidireccional(origen, destino);
+        }
+        ContextoBusqueda contexto = tomarContexto();
+        try {
+            dijkstra(contexto, origen, destino);
+            if (!contexto.estaCerrada(destino)) return new Itinerario(Collections.emptyList(), 0.0, 0.0, contexto.getAsentados());
+            return armarItinerario(origen, tramosHasta(contexto, destino), contexto.getAsentados());
+        } finally {
+            devolverContexto(contexto);
+        }
+    }
+
+    /**
+     * Dijkstra bidireccional: un frente avanza desde el origen por los tramos salientes y otro
+     * desde el destino por los tramos entrantes. En cada paso se expande el frente cuyo mínimo es
+     * menor y, cada vez que una ciudad mejora su etiqueta en un frente y ya tiene etiqueta en el otro,
+     * se la compara como punto de encuentro con el mismo orden que la búsqueda unidireccional
+     * (tiempo y, a igual tiempo, precio; si empatan ambos, la ciudad de menor índice).
+     * <p>
+     * La búsqueda termina cuando la suma de los mínimos de ambos frentes ya no mejora el mejor
+     * encuentro. La ruta se arma uniendo los tramos previos del frente de ida (del origen al
+     * encuentro) con los del frente de vuelta (del encuentro al destino), sin otra búsqueda, así que
+     * las ciudades asentadas informadas son exactamente las de los dos frentes. Entre rutas de igual
+     * tiempo y precio puede elegir una distinta de la unidireccional.
+     */
+    private Itinerario calcularItinerarioBidireccional(int origen, int destino) {
+        int[][] inv = getInversa();
+        int[] inicioInverso = inv[0];
+        int[] tramosInversos = inv[1];
+        ContextoBusqueda adelante = tomarContexto();
+        ContextoBusqueda atras = tomarContexto();
+        try {
+            ColaPrioridadRuta colaAdelante = adelante.getCola();
+            ColaPrioridadRuta colaAtras = atras.getCola();
+            adelante.etiquetar(origen, 0, 0, -1);
+            colaAdelante.agregar(origen, 0, 0);
+            atras.etiquetar(destino, 0, 0, -1);
+            colaAtras.agregar(destino, 0, 0);
+
+            long mejorTiempo = TIEMPO_INFINITO;
+            double mejorPrecio = 0.0;
+            int encuentro = origen == destino ? origen : -1;
+            if (encuentro != -1) mejorTiempo = 0;
+
+            while (!colaAdelante.estaVacia() && !colaAtras.estaVacia()) {
+                if (encuentro != -1 && !esMejor(colaAdelante.tiempoMinimo() + colaAtras.tiempoMinimo(),
+                        colaAdelante.precioMinimo() + colaAtras.precioMinimo(), mejorTiempo, mejorPrecio)) {
+                    break;
+                }
+                boolean expandirAdelante = colaAdelante.tiempoMinimo() < colaAtras.tiempoMinimo()
+                        || (colaAdelante.tiempoMinimo() == colaAtras.tiempoMinimo()
+                            && colaAdelante.precioMinimo() <= colaAtras.precioMinimo());
+                ContextoBusqueda propio = expandirAdelante ? adelante : atras;
+                ContextoBusqueda opuesto = expandirAdelante ? atras : adelante;
+                ColaPrioridadRuta cola = propio.getCola();
+
+                int actual = cola.extraerMinimo();
+                if (propio.estaCerrada(actual)) continue;
+                propio.cerrar(actual);
+                long tiempoActual = propio.tiempo(actual);
+                double precioActual = propio.precio(actual);
+                int desde = expandirAdelante ? inicio[actual] : inicioInverso[actual];
+                int hasta = expandirAdelante ? inicio[actual + 1] : inicioInverso[actual + 1];
+                for (int i = desde; i < hasta; i++) {
+                    int e = expandirAdelante ? i : tramosInversos[i];
+                    int vecino = expandirAdelante ? destinos[e] : origenes[e];
+                    if (propio.estaCerrada(vecino)) continue;
+                    long nuevoTiempo = tiempoActual + tiempos[e];
+                    double nuevoPrecio = precioActual + precios[e];
+                    if (esMejor(nuevoTiempo, nuevoPrecio, propio.tiempo(vecino), propio.precio(vecino))) {
+                        propio.etiquetar(vecino, nuevoTiempo, nuevoPrecio, e);
+                        cola.agregar(vecino, nuevoTiempo, nuevoPrecio);
+                        if (opuesto.tieneEtiqueta(vecino)) {
+                            long tiempoCandidato = nuevoTiempo + opuesto.tiempo(vecino);
+                            double precioCandidato = nuevoPrecio + opuesto.precio(vecino);
+                            if (esMejor(tiempoCandidato, precioCandidato, mejorTiempo, mejorPrecio)
+                                    || (tiempoCandidato == mejorTiempo && precioCandidato == mejorPrecio && vecino < encuentro)) {
+                                mejorTiempo = tiempoCandidato;
+                                mejorPrecio = precioCandidato;
+                                encuentro = vecino;
+                            }
+                        }
+                    }
+                }
+            }
+            int asentadas = adelante.getAsentados() + atras.getAsentados();
+            if (encuentro == -1) return new Itinerario(Collections.emptyList(), 0.0, 0.0, asentadas);
+            return armarItinerario(origen, tramosPorEncuentro(adelante, atras, encuentro), asentadas);
+        } finally {
+            devolverContexto(adelante);
+            devolverContexto(atras);
+        }
+    }
+
+    /**
+     * Une los tramos previos del frente de ida (del origen al encuentro) con los del frente de vuelta
+     * (del encuentro al destino; en ese frente el tramo previo de una ciudad es el que sale de ella).
+     */
+    private int[] tramosPorEncuentro(ContextoBusqueda adelante, ContextoBusqueda atras, int encuentro) {
+        int[] ida = tramosHasta(adelante, encuentro);
+        int vuelta = 0;
+        for (int v = encuentro; atras.tramoPrevio(v) != -1; v = destinos[atras.tramoPrevio(v)]) vuelta++;
+        int[] tramosRuta = Arrays.copyOf(ida, ida.length + vuelta);
+        for (int v = encuentro, i = ida.length; i < tramosRuta.length; v = destinos[tramosRuta[i]], i++) {
+            tramosRuta[i] = atras.tramoPrevio(v);
+        }
+        return tramosRuta;
+    }
+
+    /**
+     * Arma el itinerario a partir de los tramos de la ruta en orden de viaje.
+     * Los totales se acumulan desde el origen, en el mismo orden que lo hace Dijkstra, por lo que
+     * coinciden exactamente con las etiquetas de la búsqueda.
+     * @param origen Índice de la ciudad de origen
+     * @param tramosRuta Tramos de la ruta, del origen al destino
+     * @param asentadas Ciudades asentadas por la búsqueda
+     * @return Itinerario con ciudades, aristas y totales
+     */
+    Itinerario armarItinerario(int origen, int[] tramosRuta, int asentadas) {
+        List<String> ciudades = new ArrayList<>(tramosRuta.length + 1);
+        List<Arista> tramosItinerario = new ArrayList<>(tramosRuta.length);
+        ciudades.add(nombres[origen]);
+        long tiempoTotal = 0;
+        double precioTotal = 0.0;
+        for (int e : tramosRuta) {
+            tiempoTotal += tiempos[e];
+            precioTotal += precios[e];
+            ciudades.add(nombres[destinos[e]]);
+            tramosItinerario.add(arista(e));
+        }
+        return new Itinerario(ciudades, tramosItinerario, aHoras(tiempoTotal), precioTotal, asentadas);
+    }
+
+    /**
+     * Ejecuta Dijkstra desde {@code origen} dejando las etiquetas en el contexto.
+     * Entre rutas de igual tiempo y precio se queda con la de menor índice de tramo previo, así el
+     * resultado no depende del orden interno de la cola.
+     * @param contexto Contexto recién iniciado
+     * @param origen Índice de la ciudad de origen
+     * @param destino Índice de la ciudad de destino, o -1 para no cortar antes de tiempo
+     */
+    void dijkstra(ContextoBusqueda contexto, int origen, int destino) {
+        ColaPrioridadRuta cola = contexto.getCola();
+        contexto.etiquetar(origen, 0, 0, -1);
+        cola.agregar(origen, 0, 0);
+        while (!cola.estaVacia()) {
+            int actual = cola.extraerMinimo();
+            if (contexto.estaCerrada(actual)) continue;
+            contexto.cerrar(actual);
+            if (actual == destino) break;
+            long tiempoActual = contexto.tiempo(actual);
+            double precioActual = contexto.precio(actual);
+            for (int e = inicio[actual], fin = inicio[actual + 1]; e < fin; e++) {
+                int vecino = destinos[e];
+                if (contexto.estaCerrada(vecino)) continue;
+                long nuevoTiempo = tiempoActual + tiempos[e];
+                double nuevoPrecio = precioActual + precios[e];
+                long tiempoVecino = contexto.tiempo(vecino);
+                double precioVecino = contexto.precio(vecino);
+                if (esMejor(nuevoTiempo, nuevoPrecio, tiempoVecino, precioVecino)) {
+                    contexto.etiquetar(vecino, nuevoTiempo, nuevoPrecio, e);
+                    cola.agregar(vecino, nuevoTiempo, nuevoPrecio);
+                } else if (nuevoTiempo == tiempoVecino && nuevoPrecio == precioVecino && e < contexto.tramoPrevio(vecino)) {
+                    contexto.cambiarTramoPrevio(vecino, e); // Mismo costo: desempate por tramo previo
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Tramos de la ruta del origen a {@code destino}, siguiendo los tramos previos del contexto
+     */
+    private int[] tramosHasta(ContextoBusqueda contexto, int destino) {
+        int cantidad = 0;
+        for (int v = destino; contexto.tramoPrevio(v) != -1; v = origenes[contexto.tramoPrevio(v)]) cantidad++;
+        int[] tramosRuta = new int[cantidad];
+        for (int v = destino, i = cantidad - 1; i >= 0; v = origenes[tramosRuta[i]], i--) {
+            tramosRuta[i] = contexto.tramoPrevio(v);
+        }
+        return tramosRuta;
+    }
+
+    /**
+     * Rutas óptimas desde una ciudad hacia todas las demás con un único Dijkstra sin corte temprano.
+     * @param origen Índice de la ciudad de origen
+     * @return Matriz de una fila cuyas columnas son todas las ciudades, en orden de índice
+     */
+    public MatrizRutas calcularRutasDesde(int origen) {
+        int[] todas = new int[nombres.length];
+        for (int v = 0; v < todas.length; v++) todas[v] = v;
+        MatrizRutas matriz = new MatrizRutas(this, new int[] {origen}, todas);
+        ContextoBusqueda contexto = tomarContexto();
+        try {
+            dijkstra(contexto, origen, -1);
+            matriz.completarFila(0, contexto);
+        } finally {
+            devolverContexto(contexto);
+        }
+        return matriz;
+    }
+
+    /**
+     * Matriz de rutas óptimas origen x destino. Se ejecuta un Dijkstra completo por origen,
+     * repartiendo los orígenes entre los hilos del {@link ForkJoinPool} común; cada tarea hoja
+     * toma un único contexto de búsqueda del pool y lo reutiliza para todas sus filas.
+     * @param origenes Índices de las ciudades de origen (filas)
+     * @param destinos Índices de las ciudades de destino (columnas)
+     * @return Matriz con tiempos, precios y predecesores de cada origen
+     */
+    public MatrizRutas calcularMatriz(int[] origenes, int[] destinos) {
+        MatrizRutas matriz = new MatrizRutas(this, origenes.clone(), destinos.clone());
+        int paralelismo = ForkJoinPool.getCommonPoolParallelism();
+        int umbral = Math.max(1, origenes.length / (paralelismo * 4));
+        ForkJoinPool.commonPool().invoke(new TareaMatriz(matriz, origenes, 0, origenes.length, umbral));
+        return matriz;
+    }
+
+    /** Calcula las filas [desde, hasta) de la matriz, dividiendo el rango mientras supere el umbral. */
+    private final class TareaMatriz extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // RecursiveAction es Serializable, pero la tarea nunca se serializa
+        private final MatrizRutas matriz;
+        private final int[] origenes;
+        private final int desde;
+        private final int hasta;
+        private final int umbral;
+
+        TareaMatriz(MatrizRutas matriz, int[] origenes, int desde, int hasta, int umbral) {
+            this.matriz = matriz;
+            this.origenes = origenes;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.umbral = umbral;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > umbral) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new TareaMatriz(matriz, origenes, desde, medio, umbral),
+                          new TareaMatriz(matriz, origenes, medio, hasta, umbral));
+                return;
+            }
+            ContextoBusqueda contexto = tomarContexto();
+            try {
+                for (int fila = desde; fila < hasta; fila++) {
+                    if (fila > desde) contexto.iniciar();
+                    dijkstra(contexto, origenes[fila], -1);
+                    matriz.completarFila(fila, contexto);
+                }
+            } finally {
+                devolverContexto(contexto);
+            }
+        }
+    }
+
+    /**
+     * Criterio de Dijkstra: menor tiempo y, a igual tiempo, menor precio.
+     * @return true si (t1, p1) es estrictamente mejor que (t2, p2)
+     */
+    static boolean esMejor(long t1, double p1, long t2, double p2) {
+        return t1 < t2 || (t1 == t2 && p1 < p2);
+    }
+
+    /**
+     * Recorrido en anchura (BFS) sobre la instantánea.
+     * Usa un conjunto de visitados de bits ({@code long[]}) y una cola sobre un arreglo de enteros.
+     * @param origen Índice de la ciudad de origen
+     * @return Nombres de las ciudades alcanzables en orden de visita
+     */
+    public List<String> bfs(int origen) {
+        List<String> resultado = new ArrayList<>();
+        long[] visitado = new long[(nombres.length + 63) >>> 6];
+        int[] cola = new int[nombres.length];
+        int frente = 0;
+        int fondo = 0;
+        cola[fondo++] = origen;
+        marcar(visitado, origen);
+        while (frente < fondo) {
+            int actual = cola[frente++];
+            resultado.add(nombres[actual]);
+            for (int e = inicio[actual], fin = inicio[actual + 1]; e < fin; e++) {
+                int vecino = destinos[e];
+                if (!estaMarcado(visitado, vecino)) {
+                    marcar(visitado, vecino);
+                    cola[fondo++] = vecino;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Recorrido en profundidad (DFS) sobre la instantánea.
+     * Es iterativo (pila explícita de ciudad y próximo tramo a explorar), por lo que no desborda
+     * la pila de llamadas en cadenas largas, y visita las ciudades en el mismo orden que la
+     * versión recursiva.
+     * @param origen Índice de la ciudad de origen
+     * @return Nombres de las ciudades alcanzables en orden de visita
+     */
+    public List<String> dfs(int origen) {
+        List<String> resultado = new ArrayList<>();
+        long[] visitado = new long[(nombres.length + 63) >>> 6];
+        int[] pila = new int[nombres.length];          // Ciudades del camino actual
+        int[] siguienteTramo = new int[nombres.length]; // Próximo tramo a explorar de cada una
+        int tope = 0;
+        marcar(visitado, origen);
+        resultado.add(nombres[origen]);
+        pila[0] = origen;
+        siguienteTramo[0] = inicio[origen];
+        while (tope >= 0) {
+            int actual = pila[tope];
+            int e = siguienteTramo[tope];
+            int fin = inicio[actual + 1];
+            while (e < fin && estaMarcado(visitado, destinos[e])) e++;
+            if (e == fin) {
+                tope--;
+                continue;
+            }
+            siguienteTramo[tope] = e + 1;
+            int vecino = destinos[e];
+            marcar(visitado, vecino);
+            resultado.add(nombres[vecino]);
+            tope++;
+            pila[tope] = vecino;
+            siguienteTramo[tope] = inicio[vecino];
+        }
+        return resultado;
+    }
+
+    /**
+     * BFS con optimización de dirección: calcula la cantidad mínima de tramos desde el origen
+     * hasta cada ciudad. Mientras la frontera es chica expande de arriba hacia abajo (tramos
+     * salientes de la frontera); cuando la frontera concentra muchos tramos pasa a expandir de
+     * abajo hacia arriba: cada ciudad no visitada busca entre sus tramos entrantes un padre en la
+     * frontera y se detiene al encontrar el primero, lo que evita revisar la mayoría de los tramos
+     * en las capas centrales de redes grandes.
+     * @param origen Índice de la ciudad de origen
+     * @return Nivel (cantidad de tramos) de cada ciudad por índice, o -1 si no es alcanzable
+     */
+    public int[] nivelesBfs(int origen) {
+        int n = nombres.length;
+        int[] inicioInverso = null;
+        int[] tramosInversos = null;
+        int[] nivel = new int[n];
+        Arrays.fill(nivel, -1);
+        int palabras = (n + 63) >>> 6;
+        long[] visitado = new long[palabras];
+        long[] frontera = new long[palabras];
+        long[] siguiente = new long[palabras];
+        int[] cola = new int[n];         // Frontera como lista (modo descendente)
+        int tamanoFrontera = 1;
+        cola[0] = origen;
+        marcar(visitado, origen);
+        nivel[origen] = 0;
+        long tramosFrontera = inicio[origen + 1] - inicio[origen];
+        long tramosSinExplorar = destinos.length - tramosFrontera;
+        boolean ascendente = false;
+        int profundidad = 0;
+
+        while (tamanoFrontera > 0) {
+            // Heurística de cambio de dirección (Beamer et al.)
+            if (!ascendente && tramosFrontera > tramosSinExplorar / ALFA_BFS) {
+                ascendente = true;
+                if (inicioInverso == null) {
+                    int[][] inv = getInversa();
+                    inicioInverso = inv[0];
+                    tramosInversos = inv[1];
+                }
+                Arrays.fill(frontera, 0L);
+                for (int i = 0; i < tamanoFrontera; i++) marcar(frontera, cola[i]);
+            } else if (ascendente && tamanoFrontera < n / BETA_BFS) {
+                ascendente = false;
+                int k = 0;
+                for (int v = 0; v < n; v++) {
+                    if (nivel[v] == profundidad) cola[k++] = v;
+                }
+            }
+            profundidad++;
+            int nuevos = 0;
+            long nuevosTramos = 0;
+            if (ascendente) {
+                Arrays.fill(siguiente, 0L);
+                for (int v = 0; v < n; v++) {
+                    if (estaMarcado(visitado, v)) continue;
+                    for (int i = inicioInverso[v], fin = inicioInverso[v + 1]; i < fin; i++) {
+                        if (estaMarcado(frontera, origenes[tramosInversos[i]])) {
+                            marcar(siguiente, v);
+                            nivel[v] = profundidad;
+                            nuevos++;
+                            nuevosTramos += inicio[v + 1] - inicio[v];
+                            break;
+                        }
+                    }
+                }
+                for (int w = 0; w < palabras; w++) visitado[w] |= siguiente[w];
+                long[] auxiliar = frontera;
+                frontera = siguiente;
+                siguiente = auxiliar;
+            } else {
+                int fondo = tamanoFrontera;
+                for (int i = 0; i < tamanoFrontera; i++) {
+                    int actual = cola[i];
+                    for (int e = inicio[actual], fin = inicio[actual + 1]; e < fin; e++) {
+                        int vecino = destinos[e];
+                        if (!estaMarcado(visitado, vecino)) {
+                            marcar(visitado, vecino);
+                            nivel[vecino] = profundidad;
+                            cola[fondo++] = vecino;
+                            nuevosTramos += inicio[vecino + 1] - inicio[vecino];
+                        }
+                    }
+                }
+                nuevos = fondo - tamanoFrontera;
+                System.arraycopy(cola, tamanoFrontera, cola, 0, nuevos);
+            }
+            tamanoFrontera = nuevos;
+            tramosFrontera = nuevosTramos;
+            tramosSinExplorar -= nuevosTramos;
+        }
+        return nivel;
+    }
+
+    private static void marcar(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static boolean estaMarcado(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Índice secundario asiento -> reserva de un vuelo.
+ * Guarda las reservas por sección ('A' = 0, 'B' = 1, ...) y número de asiento, por lo que
+ * responder "¿quién está en B7?" es O(1). Crece según los asientos que aparecen, sin suponer
+ * una distribución de cabina fija.
+ * <p>
+ * Es seguro para varios hilos: los asientos viven en bloques atómicos de tamaño fijo que nunca se
+ * copian, y solo el directorio de bloques se reemplaza (copia al escribir) cuando hace falta uno
+ * nuevo. Las lecturas no bloquean.
+ */
+class IndiceAsientos {
+    private static final int BITS_BLOQUE = 4;
+    private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE; // Asientos por bloque
+    private static final int MASCARA_BLOQUE = TAMANO_BLOQUE - 1;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private volatile AtomicReferenceArray<Reserva>[][] porSeccion = new AtomicReferenceArray[0][];
+
+    /**
+     * Registra la reserva en su asiento (reemplaza la anterior si la hubiera).
+     * @param reserva Reserva a indexar
+     */
+    void agregar(Reserva reserva) {
+        int seccion = indiceSeccion(reserva.getSeccion());
+        int numero = reserva.getNumeroAsiento();
+        if (seccion < 0 || numero < 1) return;
+        bloque(seccion, numero >>> BITS_BLOQUE, true).set(numero & MASCARA_BLOQUE, reserva);
+    }
+
+    /**
+     * Registra la reserva en su asiento sin pisar a otra que siga vigente. Pensado para avisos que
+     * llegan fuera de orden: si el asiento ya es de otra reserva vigente (por ejemplo, la reserva
+     * cancelada se avisa tarde y el asiento ya se volvió a vender), no se toca.
+     * @param reserva Reserva a indexar
+     * @param vigente Indica si una reserva sigue en la versión publicada
+     */
+    void agregar(Reserva reserva, Predicate<Reserva> vigente) {
+        int seccion = indiceSeccion(reserva.getSeccion());
+        int numero = reserva.getNumeroAsiento();
+        if (seccion < 0 || numero < 1) return;
+        AtomicReferenceArray<Reserva> asientos = bloque(seccion, numero >>> BITS_BLOQUE, true);
+        int i = numero & MASCARA_BLOQUE;
+        while (true) {
+            Reserva actual = asientos.get(i);
+            if (actual == reserva || (actual != null && vigente.test(actual))) return;
+            if (asientos.compareAndSet(i, actual, reserva)) return;
+        }
+    }
+
+    /**
+     * Quita la reserva de su asiento, solo si es la que está indexada ahí.
+     * @param reserva Reserva a quitar
+     */
+    void quitar(Reserva reserva) {
+        int seccion = indiceSeccion(reserva.getSeccion());
+        int numero = reserva.getNumeroAsiento();
+        if (seccion < 0 || numero < 1) return;
+        AtomicReferenceArray<Reserva> asientos = bloque(seccion, numero >>> BITS_BLOQUE, false);
+        if (asientos != null) {
+            asientos.compareAndSet(numero & MASCARA_BLOQUE, reserva, null);
+        }
+    }
+
+    /**
+     * @param seccion Sección del asiento (ej: 'B')
+     * @param numero Número de asiento (desde 1)
+     * @return Reserva que ocupa el asiento o null si está libre
+     */
+    Reserva obtener(char seccion, int numero) {
+        int s = indiceSeccion(seccion);
+        if (s < 0 || numero < 1) return null;
+        AtomicReferenceArray<Reserva> asientos = bloque(s, numero >>> BITS_BLOQUE, false);
+        return asientos != null ? asientos.get(numero & MASCARA_BLOQUE) : null;
+    }
+
+    /**
+     * Bloque de asientos de la sección. Si no existe y {@code crear} es true, lo agrega publicando
+     * un directorio nuevo (los bloques existentes se comparten, así no se pierden escrituras).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private AtomicReferenceArray<Reserva> bloque(int seccion, int bloque, boolean crear) {
+        AtomicReferenceArray<Reserva>[][] secciones = porSeccion;
+        AtomicReferenceArray<Reserva>[] bloques = seccion < secciones.length ? secciones[seccion] : null;
+        if (bloques != null && bloque < bloques.length && bloques[bloque] != null) return bloques[bloque];
+        if (!crear) return null;
+        synchronized (this) {
+            secciones = porSeccion;
+            secciones = Arrays.copyOf(secciones, Math.max(secciones.length, seccion + 1));
+            bloques = secciones[seccion];
+            if (bloques == null) {
+                bloques = new AtomicReferenceArray[bloque + 1];
+            } else if (bloque >= bloques.length) {
+                bloques = Arrays.copyOf(bloques, Math.max(bloque + 1, bloques.length * 2));
+            } else if (bloques[bloque] != null) {
+                return bloques[bloque]; // Lo creó otro hilo
+            } else {
+                bloques = bloques.clone();
+            }
+            bloques[bloque] = new AtomicReferenceArray<>(TAMANO_BLOQUE);
+            secciones[seccion] = bloques;
+            porSeccion = secciones;
+            return bloques[bloque];
+        }
+    }
+
+    private static int indiceSeccion(char seccion) {
+        return seccion >= 'A' && seccion <= 'Z' ? seccion - 'A' : -1;
+    }
+}
@@ -0,0 +1,115 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Índice de toda la flota: número de reserva -> (vuelo, reserva).
+ * Cada vuelo registrado lo mantiene al día observando su índice de reservas, así que buscar una
+ * reserva por código es O(1) sin importar cuántos vuelos haya, en lugar de recorrer cada AVL.
+ * Admite lecturas y escrituras concurrentes (se apoya en {@link ConcurrentHashMap}).
+ */
+public class IndiceGlobalReservas {
+    /**
+     * Ubicación de una reserva en la flota.
+     */
+    public static final class Entrada {
+        private final Vuelo vuelo;
+        private final Reserva reserva;
+
+        Entrada(Vuelo vuelo, Reserva reserva) {
+            this.vuelo = vuelo;
+            this.reserva = reserva;
+        }
+
+        public Vuelo getVuelo() {
+            return vuelo;
+        }
+
+        public Reserva getReserva() {
+            return reserva;
+        }
+    }
+
+    private final ConcurrentMap<Long, Entrada> porNumero = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Vuelo> vuelos = new ConcurrentHashMap<>();
+
+    /**
+     * Empieza a indexar las reservas del vuelo (las que ya tiene y las que vengan).
+     * @param vuelo Vuelo a registrar
+     * @return true si se registró, false si ya estaba registrado
+     * @throws IllegalArgumentException si ya hay otro vuelo registrado con el mismo código
+     */
+    public boolean registrar(Vuelo vuelo) {
+        Vuelo anterior = vuelos.putIfAbsent(vuelo.getCodigo(), vuelo);
+        if (anterior == vuelo) return false;
+        if (anterior != null) {
+            throw new IllegalArgumentException("Ya hay un vuelo registrado con el código " + vuelo.getCodigo());
+        }
+        vuelo.getReservas().agregarObservador(new ObservadorReservas() {
+            @Override
+            public void reservaAgregada(Reserva reserva) {
+                porNumero.put(reserva.getNumeroReserva(), new Entrada(vuelo, reserva));
+            }
+
+            @Override
+            public void reservaEliminada(Reserva reserva) {
+                quitar(reserva);
+            }
+        });
+        AVLConcurrente reservas = vuelo.getReservas();
+        for (Reserva reserva : reservas) {
+            porNumero.putIfAbsent(reserva.getNumeroReserva(), new Entrada(vuelo, reserva));
+            // Si se canceló mientras se recorría la foto, su baja pudo avisarse antes de este alta
+            if (reservas.buscar(reserva.getNumeroReserva()) != reserva) {
+                quitar(reserva);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quita la entrada de la reserva solo si es esta misma instancia (la baja puede repetirse).
+     */
+    private void quitar(Reserva reserva) {
+        porNumero.computeIfPresent(reserva.getNumeroReserva(), (numero, entrada) -> entrada.reserva == reserva ? null : entrada);
+    }
+
+    /**
+     * @param codigo Código de reserva (ej: "RES-1234")
+     * @return Ubicación de la reserva o null si no existe o el código no es válido
+     */
+    public Entrada buscar(String codigo) {
+        try {
+            return buscar(Reserva.parsearCodigo(codigo));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * El índice se actualiza justo después de cada cambio en el vuelo, así que se confirma contra el
+     * AVL del vuelo (O(log n)) que la reserva siga vigente.
+     * @param numero Número de reserva
+     * @return Ubicación de la reserva o null si no existe
+     */
+    public Entrada buscar(long numero) {
+        Entrada entrada = porNumero.get(numero);
+        if (entrada == null || entrada.vuelo.getReservas().buscar(numero) != entrada.reserva) return null;
+        return entrada;
+    }
+
+    /**
+     * @return Cantidad de reservas indexadas
+     */
+    public int tamano() {
+        return porNumero.size();
+    }
+
+    /**
+     * @return Cantidad de vuelos registrados
+     */
+    public int getCantidadVuelos() {
+        return vuelos.size();
+    }
+}
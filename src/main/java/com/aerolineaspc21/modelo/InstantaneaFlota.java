@@ -0,0 +1,128 @@
+package com.aerolineaspc21.modelo;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fotos de varios vuelos tomadas de una sola pasada ({@link InstantaneaVuelo} de cada uno).
+ * No se copian los árboles de reservas; de cada vuelo se copian solo las palabras de bits de sus
+ * asientos, así que tomarla cuesta O(vuelos + asientos de todos los vuelos / 64). Se usa para
+ * reportes, exportación y para volver los vuelos al estado fotografiado.
+ * <p>
+ * No es un corte atómico de la flota: los vuelos se fotografían uno tras otro mientras siguen
+ * entrando reservas. En cada foto toda reserva tiene su asiento ocupado, pero dos vuelos pueden
+ * verse en momentos distintos (por ejemplo, una {@link ReservaMultitramo} confirmada durante la
+ * pasada puede aparecer en un tramo y no en otro). Para un corte exacto hay que frenar las reservas mientras se toma.
+ */
+public final class InstantaneaFlota {
+    private final Map<String, InstantaneaVuelo> vuelos;
+    private final long momento;
+
+    private InstantaneaFlota(Map<String, InstantaneaVuelo> vuelos, long momento) {
+        this.vuelos = Collections.unmodifiableMap(vuelos);
+        this.momento = momento;
+    }
+
+    /**
+     * @param vuelos Vuelos a fotografiar
+     * @return Instantánea con un vuelo por código, en el orden recibido
+     */
+    public static InstantaneaFlota de(Collection<Vuelo> vuelos) {
+        long momento = System.currentTimeMillis();
+        Map<String, InstantaneaVuelo> fotos = new LinkedHashMap<>();
+        for (Vuelo vuelo : vuelos) {
+            fotos.put(vuelo.getCodigo(), vuelo.instantanea());
+        }
+        return new InstantaneaFlota(fotos, momento);
+    }
+
+    public List<InstantaneaVuelo> getVuelos() {
+        return new ArrayList<>(vuelos.values());
+    }
+
+    /**
+     * @param codigo Código de vuelo
+     * @return Foto del vuelo o null si no estaba en la flota
+     */
+    public InstantaneaVuelo getVuelo(String codigo) {
+        return vuelos.get(codigo);
+    }
+
+    public int getCantidadVuelos() {
+        return vuelos.size();
+    }
+
+    /**
+     * @return Momento en que empezó la pasada (milisegundos desde la época): ninguna foto es anterior
+     */
+    public long getMomento() {
+        return momento;
+    }
+
+    public int getTotalReservas() {
+        int total = 0;
+        for (InstantaneaVuelo vuelo : vuelos.values()) total += vuelo.getReservas().tamano();
+        return total;
+    }
+
+    /**
+     * Vuelve cada vuelo de la foto al estado de su propia foto. Los vuelos que no están en
+     * {@code activos} se ignoran y los creados después de la foto no se tocan.
+     * @param activos Vuelos actuales por código
+     * @throws IllegalStateException si una reserva de la foto cae en un asiento retenido ahora (los
+     *         vuelos anteriores de la pasada ya quedaron restaurados)
+     */
+    public void restaurarEn(Map<String, Vuelo> activos) {
+        for (InstantaneaVuelo foto : vuelos.values()) {
+            Vuelo vuelo = activos.get(foto.getCodigo());
+            if (vuelo != null) vuelo.restaurar(foto);
+        }
+    }
+
+    /**
+     * Copia las reservas de todos los vuelos de la foto a un almacenamiento por columnas
+     * (unos 12 bytes por reserva), para conservar una temporada cerrada en memoria una vez que se
+     * descartan sus vuelos. Cuesta O(reservas de la foto); mientras los vuelos sigan activos, la copia
+     * no ahorra memoria (ellos conservan sus {@link Reserva}).
+     * @param internador Internador de ciudades y vuelos (conviene compartirlo entre archivos)
+     * @return Reservas de la foto, ordenadas por número
+     */
+    public ReservasColumnares archivar(InternadorTextos internador) {
+        ReservasColumnares archivo = new ReservasColumnares(internador);
+        for (InstantaneaVuelo vuelo : vuelos.values()) {
+            for (Reserva reserva : vuelo.getReservas()) archivo.agregar(reserva);
+        }
+        archivo.compactar();
+        return archivo;
+    }
+
+    /**
+     * Exporta las reservas de la foto en CSV ({@code codigo,vuelo,origen,destino,asiento}).
+     * @param salida Destino del CSV
+     * @throws IOException si no se puede escribir
+     */
+    public void exportarCsv(Writer salida) throws IOException {
+        salida.write("codigo,vuelo,origen,destino,asiento\n");
+        for (InstantaneaVuelo vuelo : vuelos.values()) {
+            for (Reserva reserva : vuelo.getReservas()) {
+                salida.write(reserva.getCodigoReserva());
+                salida.write(',');
+                salida.write(vuelo.getCodigo());
+                salida.write(',');
+                salida.write(reserva.getOrigen());
+                salida.write(',');
+                salida.write(reserva.getDestino());
+                salida.write(',');
+                salida.write(reserva.getAsientoCompleto());
+                salida.write('\n');
+            }
+        }
+        salida.flush();
+    }
+}
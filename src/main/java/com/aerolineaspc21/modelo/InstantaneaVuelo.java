@@ -0,0 +1,124 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Foto inmutable de un vuelo en un momento dado: la versión de sus reservas ({@link AVLPersistente},
+ * que se obtiene en O(1) sin copiar el árbol) y una copia de las palabras de bits de los asientos
+ * ocupados. La ocupación por sección y los asientos ocupados se derivan de esos bits al pedirlos.
+ * Sirve para armar reportes consistentes mientras siguen entrando reservas y para deshacer cambios
+ * con {@link Vuelo#restaurar(InstantaneaVuelo)}.
+ */
+public final class InstantaneaVuelo {
+    private final String codigo;
+    private final String origen;
+    private final String destino;
+    private final AVLPersistente reservas;
+    private final long[] ocupados; // Bits de la sección s en [inicio[s], inicio[s + 1])
+    private final int[] inicio; // Compartido con el AsignadorAsientos del vuelo (no se modifica)
+    private final int totalOcupados;
+    private final DistribucionCabina cabina;
+
+    InstantaneaVuelo(String codigo, String origen, String destino, AVLPersistente reservas,
+                     long[] ocupados, int[] inicio, DistribucionCabina cabina) {
+        this.codigo = codigo;
+        this.origen = origen;
+        this.destino = destino;
+        this.reservas = reservas;
+        this.ocupados = ocupados;
+        this.inicio = inicio;
+        this.cabina = cabina;
+        int total = 0;
+        for (long palabra : ocupados) total += Long.bitCount(palabra);
+        this.totalOcupados = total;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public String getDestino() {
+        return destino;
+    }
+
+    public AVLPersistente getReservas() {
+        return reservas;
+    }
+
+    /**
+     * @return Ocupación por sección (A, B, C...), contada sobre los bits de la foto en O(asientos / 64)
+     */
+    public Map<Character, Integer> getOcupacionPorSeccion() {
+        Map<Character, Integer> ocupacion = new LinkedHashMap<>();
+        for (int s = 0; s + 1 < inicio.length; s++) {
+            int ocupadosSeccion = 0;
+            for (int w = inicio[s]; w < inicio[s + 1]; w++) ocupadosSeccion += Long.bitCount(ocupados[w]);
+            ocupacion.put((char) ('A' + s), ocupadosSeccion);
+        }
+        return Collections.unmodifiableMap(ocupacion);
+    }
+
+    /**
+     * Nombres de los asientos ocupados. Se arma en cada llamada (O(asientos / 64 + ocupados));
+     * para consultar un asiento conviene {@link #estaOcupado(String)}.
+     * @return Asientos ocupados (ej: "B7")
+     */
+    public Set<String> getAsientosOcupados() {
+        Set<String> asientos = new HashSet<>();
+        for (int s = 0; s + 1 < inicio.length; s++) {
+            for (int w = inicio[s]; w < inicio[s + 1]; w++) {
+                for (long bits = ocupados[w]; bits != 0; bits &= bits - 1) {
+                    asientos.add(cabina.nombreAsiento(s, (w - inicio[s]) * Long.SIZE + Long.numberOfTrailingZeros(bits) + 1));
+                }
+            }
+        }
+        return Collections.unmodifiableSet(asientos);
+    }
+
+    /**
+     * @param asiento Asiento completo (ej: "B7")
+     * @return true si el asiento estaba ocupado al momento de la foto
+     */
+    public boolean estaOcupado(String asiento) {
+        if (asiento == null || asiento.length() < 2) return false;
+        int s = asiento.charAt(0) - 'A';
+        int numero;
+        try {
+            numero = Integer.parseInt(asiento.substring(1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (!cabina.esVendible(asiento.charAt(0), numero)) return false;
+        return (ocupados[inicio[s] + (numero - 1) / Long.SIZE] & (1L << (numero - 1))) != 0;
+    }
+
+    public int getTotalAsientosOcupados() {
+        return totalOcupados;
+    }
+
+    public int getTotalAsientos() {
+        return cabina.getTotalAsientos();
+    }
+
+    /**
+     * @return Cabina del vuelo (inmutable, para conocer la capacidad de cada sección)
+     */
+    public DistribucionCabina getCabina() {
+        return cabina;
+    }
+
+    /**
+     * @return Porcentaje de ocupación (0-100) al momento de la foto
+     */
+    public double calcularOcupacionPorcentual() {
+        return (totalOcupados / (double) cabina.getTotalAsientos()) * 100.0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Asigna a cada texto distinto (ciudad, código de vuelo) un identificador entero estable, para
+ * guardar en cada reserva un número en lugar de repetir la misma cadena miles de veces.
+ * Puede compartirse entre varios almacenamientos (por ejemplo, todos los vuelos de una temporada)
+ * y entre hilos: pedir el identificador de un texto ya conocido es una lectura sin bloqueo de un
+ * {@link ConcurrentHashMap}; solo los textos nuevos (pocos) toman el lock para agregarse.
+ */
+public final class InternadorTextos {
+    // Estimaciones por texto con referencias comprimidas: nodo del mapa + Integer + ranura de la tabla,
+    // y cabeceras de String y de su arreglo de bytes
+    private static final int BYTES_ENTRADA_MAPA = 32 + 16 + 8;
+    private static final int BYTES_CABECERA_TEXTO = 24 + 16;
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] textos = new String[16]; // id -> texto; se escribe bajo this
+    private volatile int cantidad;
+    private long bytesTextos; // Bajo this
+
+    /**
+     * @param texto Texto a internar
+     * @return Identificador del texto (el mismo cada vez que se pide)
+     */
+    public int id(String texto) {
+        Integer id = ids.get(texto);
+        return id != null ? id : ids.computeIfAbsent(texto, this::agregar);
+    }
+
+    /** Solo se llama una vez por texto nuevo (dentro de computeIfAbsent). */
+    private synchronized Integer agregar(String texto) {
+        int id = cantidad;
+        String[] actuales = textos;
+        if (id == actuales.length) actuales = Arrays.copyOf(actuales, id * 2);
+        actuales[id] = texto;
+        bytesTextos += BYTES_CABECERA_TEXTO + (long) texto.length() * 2;
+        textos = actuales; // Publica el texto antes que el identificador
+        cantidad = id + 1;
+        return id;
+    }
+
+    /**
+     * @param id Identificador devuelto por {@link #id(String)}
+     * @return Texto original
+     * @throws IndexOutOfBoundsException si el identificador no fue asignado
+     */
+    public String texto(int id) {
+        if (id < 0 || id >= cantidad) {
+            throw new IndexOutOfBoundsException("Identificador " + id + " no asignado (hay " + cantidad + ")");
+        }
+        return textos[id];
+    }
+
+    /**
+     * @return Cantidad de textos distintos
+     */
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Estimación de la memoria del internador: tabla de identificadores, mapa de búsqueda y textos
+     * (a lo sumo 2 bytes por carácter).
+     * @return Bytes aproximados
+     */
+    public synchronized long bytesOcupados() {
+        return (long) textos.length * Integer.BYTES + (long) cantidad * BYTES_ENTRADA_MAPA + bytesTextos;
+    }
+}
@@ -0,0 +1,110 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una búsqueda de ruta: ciudades del itinerario, tramos ({@link Arista}) elegidos
+ * y totales acumulados.
+ * Registra además cuántas ciudades asentó la búsqueda que lo produjo, para comparar estrategias.
+ * Es inmutable, por lo que puede compartirse entre hilos y guardarse en {@link CacheRutas}.
+ */
+public class Itinerario {
+    private static final Itinerario VACIO = new Itinerario(Collections.emptyList(), 0.0, 0.0, 0);
+
+    private final List<String> ciudades;
+    private final List<Arista> tramos;
+    private final double tiempoTotal;
+    private final double precioTotal;
+    private final int ciudadesAsentadas;
+
+    public Itinerario(List<String> ciudades, double tiempoTotal, double precioTotal) {
+        this(ciudades, tiempoTotal, precioTotal, 0);
+    }
+
+    /**
+     * @param ciudades Ciudades del itinerario en orden
+     * @param tiempoTotal Tiempo total en horas
+     * @param precioTotal Precio base total
+     * @param ciudadesAsentadas Ciudades que asentó la búsqueda que calculó el itinerario
+     */
+    public Itinerario(List<String> ciudades, double tiempoTotal, double precioTotal, int ciudadesAsentadas) {
+        this(ciudades, Collections.emptyList(), tiempoTotal, precioTotal, ciudadesAsentadas);
+    }
+
+    /**
+     * @param ciudades Ciudades del itinerario en orden
+     * @param tramos Aristas recorridas en orden (una menos que las ciudades)
+     * @param tiempoTotal Tiempo total en horas
+     * @param precioTotal Precio base total
+     * @param ciudadesAsentadas Ciudades que asentó la búsqueda que calculó el itinerario
+     */
+    public Itinerario(List<String> ciudades, List<Arista> tramos, double tiempoTotal, double precioTotal,
+                      int ciudadesAsentadas) {
+        this.ciudades = Collections.unmodifiableList(ciudades);
+        this.tramos = Collections.unmodifiableList(tramos);
+        this.tiempoTotal = tiempoTotal;
+        this.precioTotal = precioTotal;
+        this.ciudadesAsentadas = ciudadesAsentadas;
+    }
+
+    /**
+     * Itinerario que representa la ausencia de ruta.
+     * @return Itinerario sin ciudades
+     */
+    public static Itinerario vacio() {
+        return VACIO;
+    }
+
+    /**
+     * @return true si existe una ruta entre origen y destino
+     */
+    public boolean existe() {
+        return !ciudades.isEmpty();
+    }
+
+    public List<String> getCiudades() {
+        return ciudades;
+    }
+
+    /**
+     * @return Aristas del itinerario en orden de viaje (vacía si el itinerario no registra tramos)
+     */
+    public List<Arista> getTramos() {
+        return tramos;
+    }
+
+    /**
+     * @return Cantidad de tramos (vuelos) del itinerario: 1 si es directo
+     */
+    public int getCantidadTramos() {
+        return Math.max(0, ciudades.size() - 1);
+    }
+
+    /**
+     * @return true si el itinerario es un vuelo directo (un solo tramo)
+     */
+    public boolean esDirecto() {
+        return getCantidadTramos() == 1;
+    }
+
+    public double getTiempoTotal() {
+        return tiempoTotal;
+    }
+
+    public double getPrecioTotal() {
+        return precioTotal;
+    }
+
+    /**
+     * @return Ciudades asentadas por la búsqueda que produjo este itinerario
+     */
+    public int getCiudadesAsentadas() {
+        return ciudadesAsentadas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%.2fh, ARS %.2f)", String.join(" → ", ciudades), tiempoTotal, precioTotal);
+    }
+}
@@ -0,0 +1,156 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Resultado de un cálculo de rutas por lotes (uno a muchos o muchos a muchos).
+ * Guarda en arreglos primitivos el tiempo (microhoras) y el precio óptimos de cada par
+ * (fila = origen, columna = destino) y, por cada origen, el árbol de predecesores de la búsqueda
+ * completa (tramo por el que se llega a cada ciudad), a partir del cual se reconstruye cualquier
+ * itinerario sin volver a buscar.
+ * Es inmutable y pertenece a una versión concreta de la red ({@link #getCompacto()}).
+ */
+public class MatrizRutas {
+    private final GrafoCompacto compacto;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final long[] tiempos;       // tiempos[fila * columnas + columna], en microhoras
+    private final double[] precios;     // precios[fila * columnas + columna]
+    private final int[] tramosPrevios;  // tramosPrevios[fila * V + ciudad] = tramo por el que se llega, o -1
+
+    MatrizRutas(GrafoCompacto compacto, int[] origenes, int[] destinos) {
+        this.compacto = compacto;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.tiempos = new long[origenes.length * destinos.length];
+        this.precios = new double[origenes.length * destinos.length];
+        this.tramosPrevios = new int[origenes.length * compacto.getCantidadCiudades()];
+    }
+
+    /**
+     * Vuelca en la fila {@code fila} el resultado de un Dijkstra completo desde su origen.
+     * Cada fila la escribe un único hilo.
+     */
+    void completarFila(int fila, ContextoBusqueda contexto) {
+        int base = fila * destinos.length;
+        for (int j = 0; j < destinos.length; j++) {
+            int destino = destinos[j];
+            if (contexto.estaCerrada(destino)) {
+                tiempos[base + j] = contexto.tiempo(destino);
+                precios[base + j] = contexto.precio(destino);
+            } else {
+                tiempos[base + j] = GrafoCompacto.TIEMPO_INFINITO;
+                precios[base + j] = Double.POSITIVE_INFINITY;
+            }
+        }
+        int n = compacto.getCantidadCiudades();
+        int baseTramos = fila * n;
+        for (int v = 0; v < n; v++) {
+            tramosPrevios[baseTramos + v] = contexto.tramoPrevio(v);
+        }
+    }
+
+    public GrafoCompacto getCompacto() {
+        return compacto;
+    }
+
+    public int getCantidadOrigenes() {
+        return origenes.length;
+    }
+
+    public int getCantidadDestinos() {
+        return destinos.length;
+    }
+
+    public String getOrigen(int fila) {
+        return compacto.nombre(origenes[fila]);
+    }
+
+    public String getDestino(int columna) {
+        return compacto.nombre(destinos[columna]);
+    }
+
+    /**
+     * @param fila Índice del origen
+     * @param columna Índice del destino
+     * @return true si existe ruta del origen al destino
+     */
+    public boolean existeRuta(int fila, int columna) {
+        return tiempos[fila * destinos.length + columna] != GrafoCompacto.TIEMPO_INFINITO;
+    }
+
+    /**
+     * @param fila Índice del origen
+     * @param columna Índice del destino
+     * @return Tiempo óptimo en horas, o {@link Double#POSITIVE_INFINITY} si no hay ruta
+     */
+    public double getTiempo(int fila, int columna) {
+        long tiempo = tiempos[fila * destinos.length + columna];
+        return tiempo == GrafoCompacto.TIEMPO_INFINITO ? Double.POSITIVE_INFINITY : GrafoCompacto.aHoras(tiempo);
+    }
+
+    /**
+     * @param fila Índice del origen
+     * @param columna Índice del destino
+     * @return Tiempo óptimo en microhoras, o {@code Long.MAX_VALUE} si no hay ruta
+     */
+    public long getTiempoMicrohoras(int fila, int columna) {
+        return tiempos[fila * destinos.length + columna];
+    }
+
+    /**
+     * @param fila Índice del origen
+     * @param columna Índice del destino
+     * @return Precio base total de la ruta óptima, o {@link Double#POSITIVE_INFINITY} si no hay ruta
+     */
+    public double getPrecio(int fila, int columna) {
+        return precios[fila * destinos.length + columna];
+    }
+
+    /**
+     * Ciudad anterior a {@code ciudad} en la ruta óptima desde el origen de la fila.
+     * @param fila Índice del origen
+     * @param ciudad Índice de la ciudad en {@link #getCompacto()}
+     * @return Índice de la ciudad predecesora, o -1 para el origen y las ciudades inalcanzables
+     */
+    public int getPredecesor(int fila, int ciudad) {
+        int tramo = tramosPrevios[fila * compacto.getCantidadCiudades() + ciudad];
+        return tramo == -1 ? -1 : compacto.origen(tramo);
+    }
+
+    /**
+     * Reconstruye las ciudades de la ruta óptima siguiendo los predecesores.
+     * @param fila Índice del origen
+     * @param columna Índice del destino
+     * @return Nombres de las ciudades del itinerario, o lista vacía si no hay ruta
+     */
+    public List<String> getRuta(int fila, int columna) {
+        if (!existeRuta(fila, columna)) return Collections.emptyList();
+        LinkedList<String> ruta = new LinkedList<>();
+        for (int v = destinos[columna]; v != -1; v = getPredecesor(fila, v)) {
+            ruta.addFirst(compacto.nombre(v));
+        }
+        return ruta;
+    }
+
+    /**
+     * @param fila Índice del origen
+     * @param columna Índice del destino
+     * @return Itinerario óptimo del par, o {@link Itinerario#vacio()} si no hay ruta
+     */
+    public Itinerario getItinerario(int fila, int columna) {
+        if (!existeRuta(fila, columna)) return Itinerario.vacio();
+        int base = fila * compacto.getCantidadCiudades();
+        int cantidad = 0;
+        for (int v = destinos[columna]; tramosPrevios[base + v] != -1; v = compacto.origen(tramosPrevios[base + v])) {
+            cantidad++;
+        }
+        int[] tramos = new int[cantidad];
+        for (int v = destinos[columna], i = cantidad - 1; i >= 0; v = compacto.origen(tramos[i]), i--) {
+            tramos[i] = tramosPrevios[base + v];
+        }
+        return compacto.armarItinerario(origenes[fila], tramos, 0);
+    }
+}
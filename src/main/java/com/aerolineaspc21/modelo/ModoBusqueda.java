@@ -0,0 +1,22 @@
+package com.aerolineaspc21.modelo;
+
+/**
+ * Estrategia de búsqueda de rutas punto a punto. Todas devuelven el mismo itinerario óptimo
+ * (tiempo como criterio principal, precio como desempate); difieren en cuántas ciudades asientan.
+ */
+public enum ModoBusqueda {
+    /** Dijkstra clásico desde el origen, se detiene al asentar el destino. */
+    UNIDIRECCIONAL,
+    /** Dijkstra simultáneo desde el origen y hacia el destino, se detiene cuando ambos frentes se encuentran. */
+    BIDIRECCIONAL,
+    /**
+     * Búsqueda bidireccional ascendente sobre una {@link ContraccionJerarquica}. Requiere un
+     * preprocesamiento que {@link Grafo} realiza (y repite tras cada cambio de la red) en la primera consulta.
+     */
+    CONTRACCION_JERARQUICA,
+    /**
+     * A* guiado por cotas de ciudades de referencia ({@link EnrutadorALT}). Las tablas de referencias
+     * se calculan en la primera consulta y se rehacen tras cada cambio de la red.
+     */
+    ALT
+}
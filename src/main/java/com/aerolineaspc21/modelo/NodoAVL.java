@@ -1,5 +1,9 @@
 package com.aerolineaspc21.modelo;
 
+/**
+ * @deprecated {@link AVL} usa los mismos nodos que {@link AVLPersistente}; esta clase ya no se usa.
+ */
+@Deprecated
 public class NodoAVL {
     public Reserva reserva;
     public NodoAVL izquierdo;
@@ -0,0 +1,224 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Nodo de un AVL ordenado por número de reserva.
+ * Las operaciones de esta clase no modifican ningún nodo: copian solo el camino desde la raíz hasta
+ * el punto modificado (O(log n) nodos nuevos) y devuelven la raíz nueva, compartiendo el resto del
+ * árbol. Así cualquier raíz ya publicada es una versión estable que se puede leer sin bloqueos.
+ * <p>
+ * Los campos no son finales solo para {@link AVL}, que de un solo hilo modifica en el lugar los
+ * nodos de su propio árbol (nunca los publica como versión) y comparte con el árbol persistente
+ * las lecturas: rank, select y recorridos.
+ */
+final class NodoAVLPersistente {
+    Reserva reserva;
+    long clave;
+    NodoAVLPersistente izquierdo;
+    NodoAVLPersistente derecho;
+    int altura;
+    int tamano; // Cantidad de nodos del subárbol (incluye este)
+
+    private NodoAVLPersistente(Reserva reserva, long clave, NodoAVLPersistente izquierdo, NodoAVLPersistente derecho) {
+        this.reserva = reserva;
+        this.clave = clave;
+        this.izquierdo = izquierdo;
+        this.derecho = derecho;
+        this.altura = 1 + Math.max(altura(izquierdo), altura(derecho));
+        this.tamano = 1 + tamano(izquierdo) + tamano(derecho);
+    }
+
+    /** Hoja nueva (para {@link AVL}). */
+    NodoAVLPersistente(Reserva reserva) {
+        this(reserva, reserva.getNumeroReserva(), null, null);
+    }
+
+    /** Recalcula altura y tamaño a partir de los hijos (solo para los nodos propios de {@link AVL}). */
+    void actualizar() {
+        altura = 1 + Math.max(altura(izquierdo), altura(derecho));
+        tamano = 1 + tamano(izquierdo) + tamano(derecho);
+    }
+
+    static int altura(NodoAVLPersistente nodo) {
+        return nodo == null ? 0 : nodo.altura;
+    }
+
+    static int tamano(NodoAVLPersistente nodo) {
+        return nodo == null ? 0 : nodo.tamano;
+    }
+
+    /**
+     * @param nodo Raíz de la versión actual (puede ser null)
+     * @param reserva Reserva a insertar
+     * @return Raíz de la nueva versión, o la misma raíz si el número de reserva ya existía
+     */
+    static NodoAVLPersistente insertar(NodoAVLPersistente nodo, Reserva reserva) {
+        return insertar(nodo, reserva, reserva.getNumeroReserva());
+    }
+
+    private static NodoAVLPersistente insertar(NodoAVLPersistente nodo, Reserva reserva, long clave) {
+        if (nodo == null) return new NodoAVLPersistente(reserva, clave, null, null);
+        if (clave == nodo.clave) return nodo;
+        if (clave < nodo.clave) {
+            NodoAVLPersistente izquierdo = insertar(nodo.izquierdo, reserva, clave);
+            return izquierdo == nodo.izquierdo ? nodo : balancear(nodo.reserva, nodo.clave, izquierdo, nodo.derecho);
+        }
+        NodoAVLPersistente derecho = insertar(nodo.derecho, reserva, clave);
+        return derecho == nodo.derecho ? nodo : balancear(nodo.reserva, nodo.clave, nodo.izquierdo, derecho);
+    }
+
+    /**
+     * @param nodo Raíz de la versión actual (puede ser null)
+     * @param clave Número de reserva a eliminar
+     * @return Raíz de la nueva versión, o la misma raíz si el número no existía
+     */
+    static NodoAVLPersistente eliminar(NodoAVLPersistente nodo, long clave) {
+        if (nodo == null) return null;
+        if (clave < nodo.clave) {
+            NodoAVLPersistente izquierdo = eliminar(nodo.izquierdo, clave);
+            return izquierdo == nodo.izquierdo ? nodo : balancear(nodo.reserva, nodo.clave, izquierdo, nodo.derecho);
+        }
+        if (clave > nodo.clave) {
+            NodoAVLPersistente derecho = eliminar(nodo.derecho, clave);
+            return derecho == nodo.derecho ? nodo : balancear(nodo.reserva, nodo.clave, nodo.izquierdo, derecho);
+        }
+        if (nodo.izquierdo == null) return nodo.derecho;
+        if (nodo.derecho == null) return nodo.izquierdo;
+        // Dos hijos: el sucesor pasa a ocupar el lugar del nodo
+        NodoAVLPersistente sucesor = nodo.derecho;
+        while (sucesor.izquierdo != null) sucesor = sucesor.izquierdo;
+        return balancear(sucesor.reserva, sucesor.clave, nodo.izquierdo, eliminarMinimo(nodo.derecho));
+    }
+
+    private static NodoAVLPersistente eliminarMinimo(NodoAVLPersistente nodo) {
+        if (nodo.izquierdo == null) return nodo.derecho;
+        return balancear(nodo.reserva, nodo.clave, eliminarMinimo(nodo.izquierdo), nodo.derecho);
+    }
+
+    /**
+     * Subárbol balanceado con las reservas [desde, hasta) de un lote ordenado, tomando la mediana como raíz.
+     */
+    static NodoAVLPersistente construir(Reserva[] lote, int desde, int hasta) {
+        if (desde >= hasta) return null;
+        int medio = (desde + hasta) >>> 1;
+        return new NodoAVLPersistente(lote[medio], lote[medio].getNumeroReserva(),
+                construir(lote, desde, medio), construir(lote, medio + 1, hasta));
+    }
+
+    static NodoAVLPersistente buscar(NodoAVLPersistente nodo, long clave) {
+        while (nodo != null) {
+            if (clave == nodo.clave) return nodo;
+            nodo = clave < nodo.clave ? nodo.izquierdo : nodo.derecho;
+        }
+        return null;
+    }
+
+    /** Cantidad de reservas con número menor a {@code clave}. */
+    static int rank(NodoAVLPersistente nodo, long clave) {
+        int menores = 0;
+        while (nodo != null) {
+            if (clave <= nodo.clave) {
+                if (clave == nodo.clave) return menores + tamano(nodo.izquierdo);
+                nodo = nodo.izquierdo;
+            } else {
+                menores += tamano(nodo.izquierdo) + 1;
+                nodo = nodo.derecho;
+            }
+        }
+        return menores;
+    }
+
+    /** Reserva en la posición {@code k} (0 <= k < tamano(nodo)). */
+    static Reserva select(NodoAVLPersistente nodo, int k) {
+        while (true) {
+            int izquierda = tamano(nodo.izquierdo);
+            if (k < izquierda) {
+                nodo = nodo.izquierdo;
+            } else if (k == izquierda) {
+                return nodo.reserva;
+            } else {
+                k -= izquierda + 1;
+                nodo = nodo.derecho;
+            }
+        }
+    }
+
+    /**
+     * Crea el nodo con los hijos dados aplicando, si hace falta, la rotación simple o doble.
+     * Los hijos difieren en altura a lo sumo en 2 (una inserción o eliminación por debajo).
+     */
+    private static NodoAVLPersistente balancear(Reserva reserva, long clave,
+                                                NodoAVLPersistente izquierdo, NodoAVLPersistente derecho) {
+        int balance = altura(izquierdo) - altura(derecho);
+        if (balance > 1) {
+            if (altura(izquierdo.izquierdo) >= altura(izquierdo.derecho)) {
+                // Rotación derecha
+                return new NodoAVLPersistente(izquierdo.reserva, izquierdo.clave, izquierdo.izquierdo,
+                        new NodoAVLPersistente(reserva, clave, izquierdo.derecho, derecho));
+            }
+            // Rotación izquierda-derecha
+            NodoAVLPersistente medio = izquierdo.derecho;
+            return new NodoAVLPersistente(medio.reserva, medio.clave,
+                    new NodoAVLPersistente(izquierdo.reserva, izquierdo.clave, izquierdo.izquierdo, medio.izquierdo),
+                    new NodoAVLPersistente(reserva, clave, medio.derecho, derecho));
+        }
+        if (balance < -1) {
+            if (altura(derecho.derecho) >= altura(derecho.izquierdo)) {
+                // Rotación izquierda
+                return new NodoAVLPersistente(derecho.reserva, derecho.clave,
+                        new NodoAVLPersistente(reserva, clave, izquierdo, derecho.izquierdo), derecho.derecho);
+            }
+            // Rotación derecha-izquierda
+            NodoAVLPersistente medio = derecho.izquierdo;
+            return new NodoAVLPersistente(medio.reserva, medio.clave,
+                    new NodoAVLPersistente(reserva, clave, izquierdo, medio.izquierdo),
+                    new NodoAVLPersistente(derecho.reserva, derecho.clave, medio.derecho, derecho.derecho));
+        }
+        return new NodoAVLPersistente(reserva, clave, izquierdo, derecho);
+    }
+
+    /**
+     * Recorrido InOrder de una versión del árbol a partir de una posición, con una pila explícita.
+     * No detecta modificaciones: sobre el árbol mutable de {@link AVL} lo vigila quien lo usa.
+     */
+    static final class Cursor implements Iterator<Reserva> {
+        private final NodoAVLPersistente[] pila;
+        private int tope;
+
+        Cursor(NodoAVLPersistente raiz, int desde) {
+            pila = new NodoAVLPersistente[altura(raiz)];
+            NodoAVLPersistente nodo = raiz;
+            int k = desde;
+            while (nodo != null) {
+                int izquierda = tamano(nodo.izquierdo);
+                if (k < izquierda) {
+                    pila[tope++] = nodo;
+                    nodo = nodo.izquierdo;
+                } else if (k == izquierda) {
+                    pila[tope++] = nodo;
+                    break;
+                } else {
+                    k -= izquierda + 1;
+                    nodo = nodo.derecho;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return tope > 0;
+        }
+
+        @Override
+        public Reserva next() {
+            if (tope == 0) throw new NoSuchElementException();
+            NodoAVLPersistente nodo = pila[--tope];
+            for (NodoAVLPersistente hijo = nodo.derecho; hijo != null; hijo = hijo.izquierdo) {
+                pila[tope++] = hijo;
+            }
+            return nodo.reserva;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.aerolineaspc21.modelo;
+
+/**
+ * Recibe los cambios de un índice de reservas ({@link AVLConcurrente}).
+ * Se invoca en el hilo que hizo el cambio, después de publicarlo, por lo que debe ser rápido
+ * y seguro para varios hilos.
+ * <p>
+ * Los avisos de hilos distintos pueden llegar fuera de orden, así que una misma reserva puede
+ * avisarse más de una vez (por ejemplo, una baja repetida tras un alta tardía). Las implementaciones
+ * deben ser idempotentes: el último aviso de cada reserva es el que refleja la versión vigente.
+ */
+public interface ObservadorReservas {
+    /**
+     * @param reserva Reserva recién insertada
+     */
+    void reservaAgregada(Reserva reserva);
+
+    /**
+     * @param reserva Reserva recién eliminada
+     */
+    void reservaEliminada(Reserva reserva);
+}
@@ -9,15 +9,16 @@ package com.aerolineaspc21.modelo;
  * @since 2025-12-01
  */
 public class Reserva {
-    private String codigoReserva;  // Código único de la reserva (clave para AVL)
+    private final long numeroReserva; // Número único de la reserva (clave del AVL)
     private String asientoCompleto; // Ej: "A5", "B10", "C3"
-    private char seccion;           // Sección: 'A', 'B' o 'C'
-    private int numeroAsiento;      // Número de asiento: 1-10
+    private char seccion;           // Sección: 'A' en adelante, según la DistribucionCabina del vuelo
+    private int numeroAsiento;      // Número de asiento: desde 1 hasta los asientos de la sección
     private String origen;          // Ciudad de origen del tramo
     private String destino;         // Ciudad de destino del tramo
     private String codigoVuelo;     // Código del vuelo
 
-    private static int contadorReservas = 1000; // Contador para generar códigos únicos
+    private static volatile GeneradorIdsReserva generadorIds = new SecuenciaReservas(1000); // Números únicos
+    private static final String PREFIJO_CODIGO = "RES-";
 
     /**
      * Constructor que genera automáticamente el código de reserva.
@@ -27,30 +28,95 @@ public class Reserva {
      * @param codigoVuelo Código del vuelo
      */
     public Reserva(String asientoCompleto, String origen, String destino, String codigoVuelo) {
+        this(generadorIds.siguiente(), asientoCompleto, origen, destino, codigoVuelo);
+    }
+
+    /**
+     * Reserva con un número ya asignado (por ejemplo, al reconstruirla desde un almacenamiento compacto).
+     * @param numeroReserva Número de reserva
+     * @param asientoCompleto Asiento completo (ej: "A5")
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param codigoVuelo Código del vuelo
+     */
+    Reserva(long numeroReserva, String asientoCompleto, String origen, String destino, String codigoVuelo) {
         this.asientoCompleto = asientoCompleto;
         this.seccion = asientoCompleto.charAt(0);
         this.numeroAsiento = Integer.parseInt(asientoCompleto.substring(1));
         this.origen = origen;
         this.destino = destino;
         this.codigoVuelo = codigoVuelo;
-        this.codigoReserva = generarCodigoReserva();
+        this.numeroReserva = numeroReserva;
+    }
+
+    /**
+     * Cambia la fuente de números de las reservas que se creen a partir de ahora
+     * (por ejemplo, una {@link SecuenciaReservas} persistente al iniciar la aplicación).
+     * @param generador Generador a usar
+     */
+    public static void setGeneradorIds(GeneradorIdsReserva generador) {
+        if (generador == null) throw new IllegalArgumentException("El generador de números no puede ser null");
+        generadorIds = generador;
+    }
+
+    public static GeneradorIdsReserva getGeneradorIds() {
+        return generadorIds;
     }
 
     /**
-     * Genera un código único de reserva.
-     * @return Código en formato "RES-XXXX"
+     * Formatea un número de reserva como código visible.
+     * @param numero Número de reserva
+     * @return Código en formato "RES-XXXX" (al menos 4 dígitos)
      */
-    private String generarCodigoReserva() {
-        return "RES-" + String.format("%04d", contadorReservas++);
+    public static String formatearCodigo(long numero) {
+        String digitos = Long.toString(numero);
+        StringBuilder codigo = new StringBuilder(PREFIJO_CODIGO.length() + Math.max(4, digitos.length()));
+        codigo.append(PREFIJO_CODIGO);
+        for (int i = digitos.length(); i < 4; i++) codigo.append('0');
+        return codigo.append(digitos).toString();
+    }
+
+    /**
+     * Convierte un código visible en el número de reserva.
+     * @param codigo Código en formato "RES-XXXX"
+     * @return Número de reserva
+     * @throws IllegalArgumentException si el código no tiene el formato esperado
+     */
+    public static long parsearCodigo(String codigo) {
+        if (codigo == null || !codigo.startsWith(PREFIJO_CODIGO) || codigo.length() == PREFIJO_CODIGO.length()) {
+            throw new IllegalArgumentException("Código de reserva inválido: " + codigo);
+        }
+        long numero = 0;
+        for (int i = PREFIJO_CODIGO.length(); i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if (c < '0' || c > '9' || numero > (Long.MAX_VALUE - 9) / 10) {
+                throw new IllegalArgumentException("Código de reserva inválido: " + codigo);
+            }
+            numero = numero * 10 + (c - '0');
+        }
+        return numero;
     }
 
     // Getters
+    /**
+     * @return Código visible de la reserva (se formatea al pedirlo)
+     */
     public String getCodigoReserva() {
-        return codigoReserva;
+        return formatearCodigo(numeroReserva);
     }
 
+    /**
+     * @return Código visible de la reserva (igual que {@link #getCodigoReserva()}, por compatibilidad)
+     */
     public String getId() {
-        return codigoReserva; // Para compatibilidad con AVL
+        return getCodigoReserva();
+    }
+
+    /**
+     * @return Número de reserva: clave numérica con la que la ordena el AVL
+     */
+    public long getNumeroReserva() {
+        return numeroReserva;
     }
 
     public String getAsientoCompleto() {
@@ -80,6 +146,6 @@ public class Reserva {
     @Override
     public String toString() {
         return String.format("Reserva %s | Vuelo: %s | %s → %s | Asiento: %s", 
-                           codigoReserva, codigoVuelo, origen, destino, asientoCompleto);
+                           getCodigoReserva(), codigoVuelo, origen, destino, asientoCompleto);
     }
 }
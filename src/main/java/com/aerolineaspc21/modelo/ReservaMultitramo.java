@@ -0,0 +1,154 @@
+package com.aerolineaspc21.modelo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reserva de un itinerario con escalas en dos fases, sin lock global:
+ * <ol>
+ *   <li>{@link #retener(List)} toma un asiento provisorio en el vuelo de cada tramo (con la asignación
+ *       sin bloqueos de {@link Vuelo}). Si algún tramo está lleno, devuelve los asientos ya tomados y la
+ *       reserva queda liberada: no quedan asientos ni reservas sueltas en los tramos anteriores.</li>
+ *   <li>{@link #confirmar()} crea las {@link Reserva} de todos los tramos (no puede fallar: los
+ *       asientos ya son propios) o {@link #liberar()} los devuelve a todos.</li>
+ * </ol>
+ * El paso de retenida a confirmando o liberada es un compare-and-set sobre el estado, así que confirmar
+ * y liberar a la vez no puede hacer las dos cosas. Mientras se confirma, la reserva no figura ni como
+ * retenida ni como confirmada: pasa a confirmada recién con todos los tramos apartados y sus reservas
+ * creadas, así que nadie la ve confirmada para después verla liberada. Itinerarios que comparten
+ * vuelos no se esperan entre sí: cada tramo se resuelve con CAS sobre su propio vuelo.
+ * <p>
+ * Las retenciones vencen ({@link #PLAZO_RETENCION} por defecto): una reserva abandonada no deja los
+ * asientos tomados para siempre. Pasado el plazo, {@link #confirmar()} falla y devuelve los asientos,
+ * y cada vuelo puede recuperar los suyos con {@link Vuelo#liberarRetencionesVencidas()} (lo hace solo
+ * cuando se llena). Si un tramo vence mientras los demás siguen retenidos, la confirmación falla
+ * entera: nunca queda un itinerario confirmado a medias.
+ */
+public final class ReservaMultitramo {
+    private static final int RETENIDA = 0;
+    private static final int CONFIRMADA = 1;
+    private static final int LIBERADA = 2;
+    private static final int CONFIRMANDO = 3; // Apartando los tramos; termina en CONFIRMADA o LIBERADA
+
+    /** Tiempo que se guardan los asientos retenidos si no se indica otro. */
+    public static final Duration PLAZO_RETENCION = Duration.ofMinutes(15);
+
+    private final List<RetencionAsiento> retenciones;
+    private final Vuelo vueloSinLugar;
+    private final AtomicInteger estado;
+    private volatile List<Reserva> reservas = Collections.emptyList();
+
+    private ReservaMultitramo(List<RetencionAsiento> retenciones, Vuelo vueloSinLugar) {
+        this.retenciones = Collections.unmodifiableList(retenciones);
+        this.vueloSinLugar = vueloSinLugar;
+        this.estado = new AtomicInteger(vueloSinLugar == null ? RETENIDA : LIBERADA);
+    }
+
+    /**
+     * Fase 1: retiene un asiento en cada tramo, en orden, por {@link #PLAZO_RETENCION}.
+     * @param tramos Vuelos del itinerario, en orden
+     * @return Reserva retenida, o liberada si algún tramo no tenía lugar (ver {@link #getVueloSinLugar()})
+     */
+    public static ReservaMultitramo retener(List<Vuelo> tramos) {
+        return retener(tramos, PLAZO_RETENCION);
+    }
+
+    /**
+     * Fase 1 con un plazo propio.
+     * @param tramos Vuelos del itinerario, en orden
+     * @param plazo Tiempo que se guardan los asientos antes de vencer
+     * @return Reserva retenida, o liberada si algún tramo no tenía lugar (ver {@link #getVueloSinLugar()})
+     * @throws IllegalArgumentException si el plazo es negativo
+     */
+    public static ReservaMultitramo retener(List<Vuelo> tramos, Duration plazo) {
+        if (plazo.isNegative()) throw new IllegalArgumentException("El plazo de retención no puede ser negativo: " + plazo);
+        long vencimiento = System.nanoTime() + plazo.toNanos();
+        List<RetencionAsiento> retenciones = new ArrayList<>(tramos.size());
+        for (Vuelo vuelo : tramos) {
+            RetencionAsiento retencion = vuelo.retenerAsiento(vencimiento);
+            if (retencion == null) {
+                for (RetencionAsiento tomada : retenciones) tomada.liberar();
+                return new ReservaMultitramo(Collections.emptyList(), vuelo);
+            }
+            retenciones.add(retencion);
+        }
+        return new ReservaMultitramo(retenciones, null);
+    }
+
+    /**
+     * Fase 2: convierte las retenciones en reservas de cada tramo. Primero aparta todas las
+     * retenciones para que ya no puedan vencer; si alguna venció, libera las demás y falla sin haber
+     * pasado nunca por confirmada. El estado confirmada se publica al final, con las reservas ya creadas.
+     * @return Reservas creadas, una por tramo y en orden
+     * @throws IllegalStateException si la reserva ya fue confirmada o liberada, otro hilo la está
+     *         confirmando, o venció
+     */
+    public List<Reserva> confirmar() {
+        if (!estado.compareAndSet(RETENIDA, CONFIRMANDO)) {
+            throw new IllegalStateException("La reserva " + describirEstado(estado.get()));
+        }
+        long ahora = System.nanoTime();
+        for (RetencionAsiento retencion : retenciones) {
+            if (retencion.vencida(ahora) || !retencion.tomar()) {
+                for (RetencionAsiento tomada : retenciones) tomada.liberar();
+                estado.set(LIBERADA);
+                throw new IllegalStateException("La reserva venció: " + retencion);
+            }
+        }
+        List<Reserva> creadas = new ArrayList<>(retenciones.size());
+        for (RetencionAsiento retencion : retenciones) creadas.add(retencion.confirmar());
+        reservas = Collections.unmodifiableList(creadas);
+        estado.set(CONFIRMADA);
+        return reservas;
+    }
+
+    private static String describirEstado(int estado) {
+        switch (estado) {
+            case CONFIRMADA: return "ya fue confirmada";
+            case CONFIRMANDO: return "se está confirmando";
+            default: return "ya fue liberada";
+        }
+    }
+
+    /**
+     * Devuelve los asientos retenidos a sus vuelos.
+     * @return true si se liberó, false si ya estaba confirmada, confirmándose o liberada
+     */
+    public boolean liberar() {
+        if (!estado.compareAndSet(RETENIDA, LIBERADA)) return false;
+        for (RetencionAsiento retencion : retenciones) retencion.liberar();
+        return true;
+    }
+
+    public boolean estaRetenida() {
+        return estado.get() == RETENIDA;
+    }
+
+    public boolean estaConfirmada() {
+        return estado.get() == CONFIRMADA;
+    }
+
+    /**
+     * @return Asientos retenidos por tramo (vacío si algún tramo no tenía lugar)
+     */
+    public List<RetencionAsiento> getRetenciones() {
+        return retenciones;
+    }
+
+    /**
+     * @return Reservas creadas al confirmar (vacío antes de confirmar)
+     */
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    /**
+     * @return Primer tramo que no tenía asientos libres, o null si se retuvieron todos
+     */
+    public Vuelo getVueloSinLugar() {
+        return vueloSinLugar;
+    }
+}
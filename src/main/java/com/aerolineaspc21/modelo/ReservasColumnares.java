@@ -0,0 +1,329 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Almacenamiento compacto de las reservas de un vuelo (o de muchos), por columnas.
+ * En lugar de un objeto {@link Reserva} con sus cadenas por reserva, guarda por fila:
+ * <ul>
+ *   <li>el número de reserva ({@code long}, 8 bytes),</li>
+ *   <li>el asiento empaquetado en un {@code short} (sección y número, 2 bytes),</li>
+ *   <li>el tramo en un {@code char} (2 bytes): índice de la combinación origen/destino/vuelo,
+ *       cuyos textos se guardan una sola vez como identificadores de un {@link InternadorTextos}.</li>
+ * </ul>
+ * Son 12 bytes por reserva frente a los más de 150 de una {@link Reserva} con sus cadenas y su nodo
+ * de AVL. Las filas se mantienen ordenadas por número (el caso habitual, números crecientes, es
+ * agregar al final), así que buscar un número es una búsqueda binaria. Las {@link Reserva} se
+ * arman recién al pedirlas, como vistas de solo lectura.
+ * <p>
+ * No es seguro para varios hilos: está pensado para cargar temporadas completas o guardar
+ * instantáneas de vuelos ya cerrados ({@link InstantaneaFlota#archivar(InternadorTextos)}). Los
+ * vuelos activos no lo usan: sus reservas viven en un {@link AVLConcurrente}.
+ */
+public class ReservasColumnares implements Iterable<Reserva> {
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int BITS_NUMERO_ASIENTO = 10;
+    private static final int MAXIMO_NUMERO_ASIENTO = (1 << BITS_NUMERO_ASIENTO) - 1;
+    private static final int MAXIMO_TRAMOS = Character.MAX_VALUE + 1;
+    private static final int BITS_ID = 21; // Bits por identificador internado en la clave de un tramo
+    private static final int MASCARA_ID = (1 << BITS_ID) - 1;
+
+    private final InternadorTextos internador;
+
+    // Columnas (una posición por reserva, ordenadas por número)
+    private long[] numeros = new long[CAPACIDAD_INICIAL];
+    private short[] asientos = new short[CAPACIDAD_INICIAL];
+    private char[] tramos = new char[CAPACIDAD_INICIAL];
+    private int cantidad;
+
+    // Tramos distintos: identificadores internados de origen, destino y vuelo
+    private int[] tramoOrigen = new int[4];
+    private int[] tramoDestino = new int[4];
+    private int[] tramoVuelo = new int[4];
+    private int cantidadTramos;
+    private int ultimoTramo = -1;
+    // Tabla hash abierta (origen, destino, vuelo) -> tramo, en arreglos primitivos; -1 = ranura libre
+    private long[] clavesTabla = vaciaTabla(8);
+    private char[] tramosTabla = new char[8];
+
+    public ReservasColumnares() {
+        this(new InternadorTextos());
+    }
+
+    /**
+     * @param internador Internador de ciudades y vuelos (conviene compartirlo entre vuelos)
+     */
+    public ReservasColumnares(InternadorTextos internador) {
+        this.internador = internador;
+    }
+
+    /**
+     * @param reservas Reservas a copiar (en cualquier orden)
+     * @param internador Internador de ciudades y vuelos
+     * @return Almacenamiento con las reservas
+     */
+    public static ReservasColumnares desde(Iterable<Reserva> reservas, InternadorTextos internador) {
+        ReservasColumnares columnas = new ReservasColumnares(internador);
+        for (Reserva reserva : reservas) columnas.agregar(reserva);
+        return columnas;
+    }
+
+    /**
+     * Copia la reserva a las columnas (el objeto puede descartarse después).
+     * @param reserva Reserva a guardar
+     * @return true si se agregó, false si ya había una reserva con ese número
+     */
+    public boolean agregar(Reserva reserva) {
+        return agregar(reserva.getNumeroReserva(), reserva.getSeccion(), reserva.getNumeroAsiento(),
+                       reserva.getOrigen(), reserva.getDestino(), reserva.getCodigoVuelo());
+    }
+
+    /**
+     * Agrega una reserva sin crear el objeto {@link Reserva}.
+     * @param numero Número de reserva
+     * @param seccion Sección del asiento ('A' a 'Z')
+     * @param numeroAsiento Número de asiento (1 a 1023)
+     * @param origen Ciudad de origen del tramo
+     * @param destino Ciudad de destino del tramo
+     * @param codigoVuelo Código del vuelo
+     * @return true si se agregó, false si ya había una reserva con ese número
+     * @throws IllegalArgumentException si el asiento no se puede empaquetar
+     */
+    public boolean agregar(long numero, char seccion, int numeroAsiento, String origen, String destino, String codigoVuelo) {
+        short asiento = empaquetarAsiento(seccion, numeroAsiento);
+        int posicion;
+        if (cantidad == 0 || numero > numeros[cantidad - 1]) {
+            posicion = cantidad; // Caso habitual: número nuevo mayor a todos
+        } else {
+            posicion = Arrays.binarySearch(numeros, 0, cantidad, numero);
+            if (posicion >= 0) return false;
+            posicion = -posicion - 1;
+        }
+        char tramo = tramo(origen, destino, codigoVuelo);
+        if (cantidad == numeros.length) {
+            int capacidad = numeros.length * 2;
+            numeros = Arrays.copyOf(numeros, capacidad);
+            asientos = Arrays.copyOf(asientos, capacidad);
+            tramos = Arrays.copyOf(tramos, capacidad);
+        }
+        if (posicion < cantidad) {
+            System.arraycopy(numeros, posicion, numeros, posicion + 1, cantidad - posicion);
+            System.arraycopy(asientos, posicion, asientos, posicion + 1, cantidad - posicion);
+            System.arraycopy(tramos, posicion, tramos, posicion + 1, cantidad - posicion);
+        }
+        numeros[posicion] = numero;
+        asientos[posicion] = asiento;
+        tramos[posicion] = tramo;
+        cantidad++;
+        return true;
+    }
+
+    /**
+     * @param numero Número de reserva
+     * @return true si se eliminó, false si no existía
+     */
+    public boolean eliminar(long numero) {
+        int posicion = Arrays.binarySearch(numeros, 0, cantidad, numero);
+        if (posicion < 0) return false;
+        int siguientes = cantidad - posicion - 1;
+        System.arraycopy(numeros, posicion + 1, numeros, posicion, siguientes);
+        System.arraycopy(asientos, posicion + 1, asientos, posicion, siguientes);
+        System.arraycopy(tramos, posicion + 1, tramos, posicion, siguientes);
+        cantidad--;
+        return true;
+    }
+
+    /**
+     * @param numero Número de reserva
+     * @return Fila de la reserva o -1 si no existe
+     */
+    public int fila(long numero) {
+        int posicion = Arrays.binarySearch(numeros, 0, cantidad, numero);
+        return posicion >= 0 ? posicion : -1;
+    }
+
+    public boolean contiene(long numero) {
+        return fila(numero) >= 0;
+    }
+
+    /**
+     * @param numero Número de reserva
+     * @return Vista de la reserva o null si no existe
+     */
+    public Reserva buscar(long numero) {
+        int fila = fila(numero);
+        return fila >= 0 ? obtener(fila) : null;
+    }
+
+    /**
+     * Arma la {@link Reserva} de una fila (un objeto nuevo en cada llamada).
+     * @param fila Fila (0 a tamano() - 1), en orden de número
+     * @return Vista de la reserva
+     */
+    public Reserva obtener(int fila) {
+        comprobarFila(fila);
+        int tramo = tramos[fila];
+        return new Reserva(numeros[fila], getSeccion(fila) + Integer.toString(getNumeroAsiento(fila)),
+                           internador.texto(tramoOrigen[tramo]), internador.texto(tramoDestino[tramo]),
+                           internador.texto(tramoVuelo[tramo]));
+    }
+
+    public long getNumero(int fila) {
+        comprobarFila(fila);
+        return numeros[fila];
+    }
+
+    public char getSeccion(int fila) {
+        comprobarFila(fila);
+        return (char) ('A' + (asientos[fila] >>> BITS_NUMERO_ASIENTO));
+    }
+
+    public int getNumeroAsiento(int fila) {
+        comprobarFila(fila);
+        return asientos[fila] & MAXIMO_NUMERO_ASIENTO;
+    }
+
+    public int tamano() {
+        return cantidad;
+    }
+
+    /**
+     * @return Cantidad de combinaciones origen/destino/vuelo distintas
+     */
+    public int getCantidadTramos() {
+        return cantidadTramos;
+    }
+
+    /**
+     * Memoria del almacenamiento: columnas, tabla de tramos y su índice de búsqueda (capacidad
+     * reservada incluida) más la del internador. Si el internador se comparte entre varios
+     * almacenamientos, cada uno lo cuenta completo.
+     * @return Bytes ocupados (el internador es una estimación, ver {@link InternadorTextos#bytesOcupados()})
+     */
+    public long bytesOcupados() {
+        return (long) numeros.length * Long.BYTES + (long) asientos.length * Short.BYTES
+             + (long) tramos.length * Character.BYTES + 3L * tramoOrigen.length * Integer.BYTES
+             + (long) clavesTabla.length * Long.BYTES + (long) tramosTabla.length * Character.BYTES
+             + internador.bytesOcupados();
+    }
+
+    /**
+     * Libera la capacidad sobrante de las columnas (por ejemplo, al terminar una carga masiva).
+     */
+    public void compactar() {
+        int capacidad = Math.max(cantidad, 1);
+        numeros = Arrays.copyOf(numeros, capacidad);
+        asientos = Arrays.copyOf(asientos, capacidad);
+        tramos = Arrays.copyOf(tramos, capacidad);
+    }
+
+    /**
+     * @return Iterador de vistas en orden de número (no admite modificaciones durante el recorrido)
+     */
+    @Override
+    public Iterator<Reserva> iterator() {
+        return new Iterator<Reserva>() {
+            private int fila;
+
+            @Override
+            public boolean hasNext() {
+                return fila < cantidad;
+            }
+
+            @Override
+            public Reserva next() {
+                if (fila >= cantidad) throw new NoSuchElementException();
+                return obtener(fila++);
+            }
+        };
+    }
+
+    public Stream<Reserva> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    private void comprobarFila(int fila) {
+        if (fila < 0 || fila >= cantidad) {
+            throw new IndexOutOfBoundsException("Fila " + fila + " fuera de rango (tamaño " + cantidad + ")");
+        }
+    }
+
+    private static short empaquetarAsiento(char seccion, int numeroAsiento) {
+        if (seccion < 'A' || seccion > 'Z' || numeroAsiento < 1 || numeroAsiento > MAXIMO_NUMERO_ASIENTO) {
+            throw new IllegalArgumentException("Asiento no representable: " + seccion + numeroAsiento);
+        }
+        return (short) (((seccion - 'A') << BITS_NUMERO_ASIENTO) | numeroAsiento);
+    }
+
+    /**
+     * Índice del tramo origen/destino/vuelo, agregándolo si es nuevo. Las reservas suelen llegar
+     * agrupadas por tramo, así que se prueba primero el último usado antes de ir a la tabla.
+     */
+    private char tramo(String origen, String destino, String codigoVuelo) {
+        int o = internador.id(origen);
+        int d = internador.id(destino);
+        int v = internador.id(codigoVuelo);
+        int ultimo = ultimoTramo;
+        if (ultimo >= 0 && tramoOrigen[ultimo] == o && tramoDestino[ultimo] == d && tramoVuelo[ultimo] == v) {
+            return (char) ultimo;
+        }
+        if (Math.max(o, Math.max(d, v)) > MASCARA_ID) {
+            throw new IllegalStateException("Demasiados textos internados para empaquetar el tramo");
+        }
+        long clave = ((long) o << (2 * BITS_ID)) | ((long) d << BITS_ID) | v;
+        int ranura = ranura(clave);
+        if (clavesTabla[ranura] == clave) {
+            ultimoTramo = tramosTabla[ranura];
+            return tramosTabla[ranura];
+        }
+        if (cantidadTramos == MAXIMO_TRAMOS) {
+            throw new IllegalStateException("Demasiados tramos distintos en un mismo almacenamiento: " + MAXIMO_TRAMOS);
+        }
+        if (cantidadTramos == tramoOrigen.length) {
+            int capacidad = tramoOrigen.length * 2;
+            tramoOrigen = Arrays.copyOf(tramoOrigen, capacidad);
+            tramoDestino = Arrays.copyOf(tramoDestino, capacidad);
+            tramoVuelo = Arrays.copyOf(tramoVuelo, capacidad);
+        }
+        tramoOrigen[cantidadTramos] = o;
+        tramoDestino[cantidadTramos] = d;
+        tramoVuelo[cantidadTramos] = v;
+        clavesTabla[ranura] = clave;
+        tramosTabla[ranura] = (char) cantidadTramos;
+        ultimoTramo = cantidadTramos;
+        cantidadTramos++;
+        if (cantidadTramos * 2 > clavesTabla.length) agrandarTabla(); // Carga máxima del 50 %
+        return (char) ultimoTramo;
+    }
+
+    /** Ranura de la clave o, si no está, la ranura libre donde iría (sondeo lineal). */
+    private int ranura(long clave) {
+        int mascara = clavesTabla.length - 1;
+        int i = Long.hashCode(clave * 0x9E3779B97F4A7C15L) & mascara;
+        while (clavesTabla[i] != -1 && clavesTabla[i] != clave) i = (i + 1) & mascara;
+        return i;
+    }
+
+    private void agrandarTabla() {
+        long[] claves = clavesTabla;
+        char[] indices = tramosTabla;
+        clavesTabla = vaciaTabla(claves.length * 2);
+        tramosTabla = new char[claves.length * 2];
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] == -1) continue;
+            int ranura = ranura(claves[i]);
+            clavesTabla[ranura] = claves[i];
+            tramosTabla[ranura] = indices[i];
+        }
+    }
+
+    private static long[] vaciaTabla(int capacidad) {
+        long[] tabla = new long[capacidad];
+        Arrays.fill(tabla, -1);
+        return tabla;
+    }
+}
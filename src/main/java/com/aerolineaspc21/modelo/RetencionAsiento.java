@@ -0,0 +1,107 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asiento tomado en un vuelo de forma provisoria: ya cuenta como ocupado (nadie más lo puede
+ * asignar), pero todavía no tiene una {@link Reserva} en el AVL. Se confirma o se libera a través
+ * de {@link ReservaMultitramo}, o vence si no se confirma a tiempo
+ * ({@link Vuelo#liberarRetencionesVencidas()}).
+ * <p>
+ * El estado pasa con compare-and-set de vigente a tomada (se está confirmando) o a liberada, así que
+ * un vencimiento y una confirmación simultáneos no pueden hacer las dos cosas.
+ */
+public final class RetencionAsiento {
+    private static final int VIGENTE = 0;
+    private static final int TOMADA = 1;
+    private static final int CONFIRMADA = 2;
+    private static final int LIBERADA = 3;
+
+    private final Vuelo vuelo;
+    private final int indice; // Índice del asiento en el AsignadorAsientos del vuelo
+    private final String asiento;
+    private final long vencimiento; // System.nanoTime() a partir del cual vence
+    private final AtomicInteger estado = new AtomicInteger(VIGENTE);
+
+    RetencionAsiento(Vuelo vuelo, int indice, String asiento, long vencimiento) {
+        this.vuelo = vuelo;
+        this.indice = indice;
+        this.asiento = asiento;
+        this.vencimiento = vencimiento;
+    }
+
+    public Vuelo getVuelo() {
+        return vuelo;
+    }
+
+    /**
+     * @return Asiento retenido (ej: "B7")
+     */
+    public String getAsiento() {
+        return asiento;
+    }
+
+    int getIndice() {
+        return indice;
+    }
+
+    /**
+     * @return true si la retención sigue esperando confirmación
+     */
+    public boolean estaVigente() {
+        return estado.get() == VIGENTE;
+    }
+
+    /**
+     * @param ahora Instante actual ({@link System#nanoTime()})
+     * @return true si ya pasó el vencimiento
+     */
+    boolean vencida(long ahora) {
+        return ahora - vencimiento >= 0;
+    }
+
+    /**
+     * Primer paso de la confirmación: aparta la retención para que ya no pueda vencer.
+     * @return false si ya venció o fue liberada
+     */
+    boolean tomar() {
+        return estado.compareAndSet(VIGENTE, TOMADA);
+    }
+
+    /**
+     * Crea la reserva del asiento y la inserta en el AVL del vuelo (sin bloqueos).
+     * La retención se da por terminada recién después, así el asiento nunca queda sin dueño.
+     * @throws IllegalStateException si la retención no fue tomada con {@link #tomar()}
+     */
+    Reserva confirmar() {
+        if (estado.get() != TOMADA) throw new IllegalStateException(this + " no está tomada");
+        Reserva reserva = new Reserva(asiento, vuelo.getOrigen(), vuelo.getDestino(), vuelo.getCodigo());
+        vuelo.getReservas().insertar(reserva);
+        estado.set(CONFIRMADA);
+        vuelo.retencionConfirmada(this);
+        return reserva;
+    }
+
+    /**
+     * Libera la retención si vence en {@code ahora} y nadie la está confirmando.
+     * @return true si se liberó el asiento
+     */
+    boolean vencer(long ahora) {
+        return vencida(ahora) && estado.compareAndSet(VIGENTE, LIBERADA) && vuelo.liberarRetencion(this);
+    }
+
+    /**
+     * Devuelve el asiento al vuelo (también una retención tomada cuya confirmación se abandona).
+     * No hace nada si ya estaba confirmada o liberada.
+     */
+    void liberar() {
+        if (estado.compareAndSet(VIGENTE, LIBERADA) || estado.compareAndSet(TOMADA, LIBERADA)) {
+            vuelo.liberarRetencion(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Retención " + asiento + " en vuelo " + vuelo.getCodigo();
+    }
+}
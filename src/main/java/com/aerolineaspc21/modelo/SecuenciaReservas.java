@@ -0,0 +1,154 @@
+package com.aerolineaspc21.modelo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de números de reserva sin contención: cada hilo toma en préstamo un bloque de números
+ * consecutivos de una secuencia atómica compartida y los reparte localmente, así que solo toca
+ * el contador compartido una vez por bloque. Los números de un mismo hilo son crecientes; entre
+ * hilos quedan ordenados por bloque, no por momento de entrega. Con un solo hilo cada número es un
+ * nuevo máximo y {@link AVL} lo agrega por su camino rápido al final; con varios hilos solo lo toma
+ * el que reparte el bloque más alto, y los demás hacen la inserción normal en O(log n).
+ * <p>
+ * Opcionalmente persiste un techo (un número que todavía no se prestó) en un archivo, adelantado
+ * varios bloques para escribir pocas veces. Al reabrir se continúa desde el techo guardado, de modo
+ * que tras un reinicio nunca se repiten números (a lo sumo se saltean los de bloques sin usar).
+ * El techo se adelanta en un hilo de fondo cuando se consumió la mitad del margen, así que pedir un
+ * bloque no espera al disco; solo si el hilo de fondo se atrasa (o falló) se escribe en el momento.
+ */
+public class SecuenciaReservas implements GeneradorIdsReserva {
+    /** Números por bloque prestado a cada hilo. */
+    public static final int TAMANO_BLOQUE_PREDETERMINADO = 64;
+    /** Bloques que se reservan por adelantado en el archivo cada vez que se persiste el techo. */
+    private static final int BLOQUES_ADELANTO = 16;
+    private static final ExecutorService ESCRITOR = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "secuencia-reservas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final AtomicLong proximoLibre; // Primer número sin prestar
+    private final int tamanoBloque;
+    private final Path archivoTecho;       // null: solo en memoria
+    private volatile long techoPersistido; // Se escribe bajo this
+    private final AtomicBoolean adelantoPendiente = new AtomicBoolean();
+    private final ThreadLocal<long[]> bloqueLocal = ThreadLocal.withInitial(() -> new long[2]); // {siguiente, limite}
+
+    /**
+     * Secuencia solo en memoria.
+     * @param primero Primer número a entregar
+     */
+    public SecuenciaReservas(long primero) {
+        this(primero, TAMANO_BLOQUE_PREDETERMINADO, null);
+    }
+
+    private SecuenciaReservas(long primero, int tamanoBloque, Path archivoTecho) {
+        if (tamanoBloque < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tamanoBloque);
+        }
+        this.proximoLibre = new AtomicLong(primero);
+        this.tamanoBloque = tamanoBloque;
+        this.archivoTecho = archivoTecho;
+        this.techoPersistido = primero;
+    }
+
+    /**
+     * Abre (o crea) una secuencia persistente que continúa desde el techo guardado en el archivo.
+     * @param archivoTecho Archivo con el techo (texto con un número); si no existe se empieza en {@code primero}
+     * @param primero Primer número si el archivo no existe
+     * @param tamanoBloque Números por bloque prestado a cada hilo
+     * @return Secuencia lista para usar
+     * @throws IOException si el archivo existe pero no se puede leer o no contiene un número
+     */
+    public static SecuenciaReservas abrir(Path archivoTecho, long primero, int tamanoBloque) throws IOException {
+        long inicio = primero;
+        if (Files.exists(archivoTecho)) {
+            String contenido = new String(Files.readAllBytes(archivoTecho), StandardCharsets.UTF_8).trim();
+            try {
+                inicio = Math.max(primero, Long.parseLong(contenido));
+            } catch (NumberFormatException e) {
+                throw new IOException("Techo de secuencia inválido en " + archivoTecho + ": " + contenido, e);
+            }
+        }
+        SecuenciaReservas secuencia = new SecuenciaReservas(inicio, tamanoBloque, archivoTecho);
+        secuencia.persistirHasta(inicio); // El primer margen se escribe al abrir, no al pedir el primer bloque
+        return secuencia;
+    }
+
+    @Override
+    public long siguiente() {
+        long[] bloque = bloqueLocal.get();
+        if (bloque[0] == bloque[1]) {
+            long inicio = proximoLibre.getAndAdd(tamanoBloque);
+            long limite = inicio + tamanoBloque;
+            if (archivoTecho != null) asegurarPersistido(limite);
+            bloque[0] = inicio;
+            bloque[1] = limite;
+        }
+        return bloque[0]++;
+    }
+
+    /**
+     * Garantiza que el techo guardado cubra {@code limite} antes de entregar números del bloque.
+     * Si ya lo cubre pero queda menos de la mitad del margen, pide el adelanto al hilo de fondo.
+     */
+    private void asegurarPersistido(long limite) {
+        long margen = (long) tamanoBloque * BLOQUES_ADELANTO;
+        long techo = techoPersistido;
+        if (limite > techo) {
+            persistirHasta(limite); // El hilo de fondo no llegó a tiempo: se escribe en el momento
+        } else if (techo - limite < margen / 2 && adelantoPendiente.compareAndSet(false, true)) {
+            ESCRITOR.execute(() -> {
+                try {
+                    persistirHasta(proximoLibre.get());
+                } catch (UncheckedIOException e) {
+                    // Se reintenta (y se informa) cuando algún bloque deje de estar cubierto
+                } finally {
+                    adelantoPendiente.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Escribe un techo de {@code limite} más el margen de {@value #BLOQUES_ADELANTO} bloques,
+     * salvo que el guardado ya llegue hasta ahí.
+     */
+    private synchronized void persistirHasta(long limite) {
+        long nuevoTecho = limite + (long) tamanoBloque * BLOQUES_ADELANTO;
+        if (nuevoTecho <= techoPersistido) return;
+        Path temporal = archivoTecho.resolveSibling(archivoTecho.getFileName() + ".tmp");
+        try {
+            Files.write(temporal, Long.toString(nuevoTecho).getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporal, archivoTecho, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, archivoTecho, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo persistir el techo de la secuencia en " + archivoTecho, e);
+        }
+        techoPersistido = nuevoTecho;
+    }
+
+    /**
+     * @return Primer número que todavía no se prestó a ningún hilo
+     */
+    public long getProximoLibre() {
+        return proximoLibre.get();
+    }
+
+    public int getTamanoBloque() {
+        return tamanoBloque;
+    }
+}
@@ -1,68 +1,109 @@
 package com.aerolineaspc21.modelo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Ciudad de la red de vuelos con su lista de tramos salientes.
+ * No guarda estado de búsqueda: Dijkstra y los recorridos usan un contexto propio por consulta,
+ * de modo que varias consultas pueden compartir el mismo grafo.
+ * <p>
+ * Las etiquetas de búsqueda (tiempo, precio, predecesor, visitado) y el orden por tiempo quedan solo
+ * por compatibilidad: ninguna búsqueda las lee ni las escribe, y se quitarán en una versión futura.
+ */
 public class Vertice implements Comparable<Vertice> {
-    // ...existing code...
-    public int compareTo(Vertice otro) {
-        if (this.tiempoMinimoAcumulado < otro.tiempoMinimoAcumulado) return -1;
-        if (this.tiempoMinimoAcumulado > otro.tiempoMinimoAcumulado) return 1;
-        if (this.precioTotalAcumulado < otro.precioTotalAcumulado) return -1;
-        if (this.precioTotalAcumulado > otro.precioTotalAcumulado) return 1;
-        return 0;
-    }
     private String nombre;
     private List<Arista> adyacentes;
+    private Grafo grafo; // Grafo al que pertenece (se notifica de cada arista nueva)
+
+    // Etiquetas de búsqueda anteriores a ContextoBusqueda (obsoletas)
     private double tiempoMinimoAcumulado;
     private double precioTotalAcumulado;
     private Vertice predecesor;
     private boolean visitado;
-    public static final double INFINITO = Double.MAX_VALUE;
 
     public Vertice(String nombre) {
         this.nombre = nombre;
         this.adyacentes = new ArrayList<>();
-        clear();
-    }
-
-    public void clear() {
-        this.tiempoMinimoAcumulado = INFINITO;
-        this.precioTotalAcumulado = 0.0;
-        this.predecesor = null;
-        this.visitado = false;
+        this.tiempoMinimoAcumulado = Double.MAX_VALUE;
     }
 
     public String getNombre() {
         return nombre;
     }
     public List<Arista> getAdyacentes() {
-        return adyacentes;
+        return Collections.unmodifiableList(adyacentes);
     }
     public void agregarArista(Arista arista) {
         adyacentes.add(arista);
+        if (grafo != null) grafo.registrarCambio();
+    }
+    void setGrafo(Grafo grafo) {
+        this.grafo = grafo;
     }
+
+    /**
+     * @deprecated Las búsquedas usan {@link ContextoBusqueda}; ordenar vértices por estas etiquetas ya no tiene sentido.
+     */
+    @Deprecated
+    @Override
+    public int compareTo(Vertice otro) {
+        if (this.tiempoMinimoAcumulado < otro.tiempoMinimoAcumulado) return -1;
+        if (this.tiempoMinimoAcumulado > otro.tiempoMinimoAcumulado) return 1;
+        if (this.precioTotalAcumulado < otro.precioTotalAcumulado) return -1;
+        if (this.precioTotalAcumulado > otro.precioTotalAcumulado) return 1;
+        return 0;
+    }
+
+    /**
+     * @deprecated Cada consulta arranca con un contexto limpio; no hace falta reiniciar los vértices.
+     */
+    @Deprecated
+    public void clear() {
+        this.tiempoMinimoAcumulado = Double.MAX_VALUE;
+        this.precioTotalAcumulado = 0.0;
+        this.predecesor = null;
+        this.visitado = false;
+    }
+
+    /** @deprecated Usar el resultado de la búsqueda ({@link Itinerario}). */
+    @Deprecated
     public double getTiempoMinimoAcumulado() {
         return tiempoMinimoAcumulado;
     }
+    /** @deprecated Las búsquedas no leen esta etiqueta. */
+    @Deprecated
     public void setTiempoMinimoAcumulado(double t) {
         this.tiempoMinimoAcumulado = t;
     }
+    /** @deprecated Usar el resultado de la búsqueda ({@link Itinerario}). */
+    @Deprecated
     public double getPrecioTotalAcumulado() {
         return precioTotalAcumulado;
     }
+    /** @deprecated Las búsquedas no leen esta etiqueta. */
+    @Deprecated
     public void setPrecioTotalAcumulado(double p) {
         this.precioTotalAcumulado = p;
     }
+    /** @deprecated Usar el resultado de la búsqueda ({@link Itinerario}). */
+    @Deprecated
     public Vertice getPredecesor() {
         return predecesor;
     }
+    /** @deprecated Las búsquedas no leen esta etiqueta. */
+    @Deprecated
     public void setPredecesor(Vertice v) {
         this.predecesor = v;
     }
+    /** @deprecated Usar el resultado de la búsqueda ({@link Itinerario}). */
+    @Deprecated
     public boolean isVisitado() {
         return visitado;
     }
+    /** @deprecated Las búsquedas no leen esta etiqueta. */
+    @Deprecated
     public void setVisitado(boolean v) {
         this.visitado = v;
     }
@@ -1,39 +1,50 @@
 package com.aerolineaspc21.modelo;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Representa un vuelo con gestión de reservas usando AVL y asignación aleatoria balanceada de asientos.
  * Implementa la regla de balance: la diferencia de ocupación entre secciones no debe superar 1.
+ * La asignación de asientos no usa locks: varios hilos pueden reservar en el mismo vuelo a la vez
+ * (ver {@link AsignadorAsientos}) sin repetir asientos ni romper la regla de balance.
  * 
  * @author Giuliano Zulatto
  * @version 1.0
  * @since 2025-12-01
  */
 public class Vuelo {
+    private static final int INTENTOS_INSTANTANEA = 4; // Lecturas validadas antes de sumar las reservas a mano
     private String codigo;
     private String origen;
     private String destino;
-    private AVL reservas;
-    private Map<Character, Integer> ocupacionPorSeccion; // Cambiado a Character para mejor manejo
-    private Set<String> asientosOcupados; // Set para verificación rápida O(1)
-    private Random random; // Generador de números aleatorios
-    private static final int ASIENTOS_POR_SECCION = 10;
-    private static final int TOTAL_ASIENTOS = 30; // 3 secciones x 10 asientos
+    private AVLConcurrente reservas; // Admite inserciones y lecturas concurrentes sin bloqueos
+    private AsignadorAsientos asientos; // Ocupación en mapas de bits por sección
+    private Random random; // Generador con semilla (tests) o null para usar ThreadLocalRandom
+    private final ConcurrentMap<Integer, RetencionAsiento> retenciones = new ConcurrentHashMap<>(); // Asiento -> retención vigente
+    private volatile int restauraciones; // Se incrementa al empezar y al terminar cada restaurar() (impar: en curso)
 
+    /**
+     * Vuelo con la cabina estándar ({@link DistribucionCabina#ESTANDAR}: secciones A, B y C de 10 asientos).
+     */
     public Vuelo(String codigo, String origen, String destino) {
+        this(codigo, origen, destino, DistribucionCabina.ESTANDAR);
+    }
+
+    /**
+     * @param codigo Código del vuelo
+     * @param origen Ciudad de origen
+     * @param destino Ciudad de destino
+     * @param cabina Distribución de secciones, filas y asientos bloqueados del avión
+     */
+    public Vuelo(String codigo, String origen, String destino, DistribucionCabina cabina) {
         this.codigo = codigo;
         this.origen = origen;
         this.destino = destino;
-        this.reservas = new AVL();
-        this.ocupacionPorSeccion = new HashMap<>();
-        this.asientosOcupados = new HashSet<>();
-        this.random = new Random();
-        
-        // Inicializar contadores de ocupación (A=0, B=0, C=0)
-        for (char seccion = 'A'; seccion <= 'C'; seccion++) {
-            ocupacionPorSeccion.put(seccion, 0);
-        }
+        this.reservas = new AVLConcurrente();
+        this.asientos = new AsignadorAsientos(cabina);
     }
 
     /**
@@ -44,8 +55,17 @@ public class Vuelo {
      * @param seed Semilla para Random (para tests)
      */
     public Vuelo(String codigo, String origen, String destino, long seed) {
-        this(codigo, origen, destino);
-        this.random.setSeed(seed);
+        this(codigo, origen, destino, DistribucionCabina.ESTANDAR, seed);
+    }
+
+    /**
+     * Constructor para tests con cabina propia y semilla.
+     * @param cabina Distribución de la cabina
+     * @param seed Semilla para Random (para tests)
+     */
+    public Vuelo(String codigo, String origen, String destino, DistribucionCabina cabina, long seed) {
+        this(codigo, origen, destino, cabina);
+        this.random = new Random(seed);
     }
 
     /**
@@ -53,51 +73,68 @@ public class Vuelo {
      * - La diferencia de ocupación entre secciones no debe superar 1
      * - Si hay empate en la sección menos cargada, se elige una al azar
      * - Dentro de la sección elegida, se asigna un asiento aleatorio
+     * La ocupación vive en mapas de bits ({@link AsignadorAsientos}), así que no se crean colecciones
+     * ni cadenas por asignación. Es seguro llamarlo desde varios hilos: los conflictos se resuelven
+     * con compare-and-set y reintento, sin bloquear. Sin semilla, cada hilo usa su propio generador.
      * 
      * @return String con el asiento asignado (ej: "A5") o null si el vuelo está lleno
      */
     public String asignarAsientoAleatorioBalanceado() {
-        // Verificar si el vuelo está lleno
-        if (asientosOcupados.size() >= TOTAL_ASIENTOS) {
-            return null;
-        }
-
-        // PASO 1: Encontrar la ocupación mínima
-        int minOcupacion = Collections.min(ocupacionPorSeccion.values());
-
-        // PASO 2: Encontrar todas las secciones con ocupación mínima (para desempate aleatorio)
-        List<Character> seccionesMenosCargadas = new ArrayList<>();
-        for (Map.Entry<Character, Integer> entry : ocupacionPorSeccion.entrySet()) {
-            if (entry.getValue() == minOcupacion) {
-                seccionesMenosCargadas.add(entry.getKey());
-            }
-        }
-
-        // PASO 3: Elegir una sección al azar entre las menos cargadas (desempate aleatorio)
-        char seccionElegida = seccionesMenosCargadas.get(random.nextInt(seccionesMenosCargadas.size()));
+        int asiento = asientos.asignarBalanceado(generador());
+        return asiento < 0 ? null : asientos.nombre(asiento);
+    }
 
-        // PASO 4: Obtener todos los asientos libres en la sección elegida
-        List<String> asientosLibresEnSeccion = new ArrayList<>();
-        for (int num = 1; num <= ASIENTOS_POR_SECCION; num++) {
-            String asiento = seccionElegida + String.valueOf(num);
-            if (!asientosOcupados.contains(asiento)) {
-                asientosLibresEnSeccion.add(asiento);
-            }
-        }
+    /**
+     * Toma un asiento de forma provisoria, con la misma regla de balance que
+     * {@link #asignarAsientoAleatorioBalanceado()} (ver {@link ReservaMultitramo}). Si el vuelo está
+     * lleno, antes de rendirse libera las retenciones vencidas y prueba una vez más.
+     * @param vencimiento Instante ({@link System#nanoTime()}) a partir del cual la retención vence
+     * @return Retención del asiento o null si el vuelo está lleno
+     */
+    RetencionAsiento retenerAsiento(long vencimiento) {
+        int indice = asientos.asignarBalanceado(generador());
+        if (indice < 0 && liberarRetencionesVencidas() > 0) indice = asientos.asignarBalanceado(generador());
+        if (indice < 0) return null;
+        RetencionAsiento retencion = new RetencionAsiento(this, indice, asientos.nombre(indice), vencimiento);
+        retenciones.put(indice, retencion);
+        return retencion;
+    }
 
-        // PASO 5: Elegir un asiento aleatorio de los disponibles en la sección
-        if (asientosLibresEnSeccion.isEmpty()) {
-            // No debería ocurrir, pero por seguridad
-            return null;
+    /**
+     * Devuelve al vuelo los asientos de las retenciones que vencieron sin confirmarse. Las que ya se
+     * están confirmando no se tocan.
+     * @return Cantidad de asientos liberados
+     */
+    public int liberarRetencionesVencidas() {
+        long ahora = System.nanoTime();
+        int liberadas = 0;
+        for (RetencionAsiento retencion : retenciones.values()) {
+            if (retencion.vencer(ahora)) liberadas++;
         }
+        return liberadas;
+    }
 
-        String asientoAsignado = asientosLibresEnSeccion.get(random.nextInt(asientosLibresEnSeccion.size()));
+    /**
+     * Da por terminada una retención ya convertida en reserva (el asiento sigue ocupado).
+     */
+    void retencionConfirmada(RetencionAsiento retencion) {
+        retenciones.remove(retencion.getIndice(), retencion);
+    }
 
-        // PASO 6: Actualizar contadores y registros
-        asientosOcupados.add(asientoAsignado);
-        ocupacionPorSeccion.put(seccionElegida, ocupacionPorSeccion.get(seccionElegida) + 1);
+    /**
+     * Devuelve al vuelo el asiento de una retención descartada. La propia retención hace de
+     * comprobante: el bit se apaga solo si el asiento seguía registrado a su nombre, así que una
+     * retención vieja nunca libera un asiento que ya es de otro. Se sincroniza con
+     * {@link #restaurar(InstantaneaVuelo)} para que una restauración no ponga una reserva en el asiento
+     * entre la baja del registro y la del bit.
+     * @return true si se liberó el asiento
+     */
+    synchronized boolean liberarRetencion(RetencionAsiento retencion) {
+        return retenciones.remove(retencion.getIndice(), retencion) && asientos.liberar(retencion.getIndice());
+    }
 
-        return asientoAsignado;
+    private Random generador() {
+        return random != null ? random : ThreadLocalRandom.current();
     }
 
     /**
@@ -105,7 +142,7 @@ public class Vuelo {
      * @return Porcentaje de ocupación (0-100)
      */
     public double calcularOcupacionPorcentual() {
-        return (asientosOcupados.size() / (double) TOTAL_ASIENTOS) * 100.0;
+        return (getTotalAsientosOcupados() / (double) getTotalAsientos()) * 100.0;
     }
 
     /**
@@ -116,13 +153,142 @@ public class Vuelo {
         return calcularOcupacionPorcentual() >= 95.0;
     }
 
+    /**
+     * Foto del vuelo: la versión vigente de las reservas (O(1), sin copiar el árbol) y una copia de
+     * las palabras de bits de los asientos (O(asientos / 64)); la ocupación se deriva de esos bits.
+     * Para que toda reserva de la foto tenga su asiento ocupado en la foto, la versión se vuelve a
+     * leer después de copiar los bits: si no cambió (y no hubo una restauración en el medio), ninguna
+     * reserva de la versión pudo liberar su asiento mientras tanto. Si las escrituras no dejan validar
+     * tras unos intentos, se suman a los bits los asientos de todas las reservas de la versión (O(n)).
+     * Los asientos tomados sin reserva (retenciones, reservas a mitad de insertarse) también cuentan
+     * como ocupados.
+     * @return Instantánea inmutable del vuelo
+     */
+    public InstantaneaVuelo instantanea() {
+        for (int intento = 0; intento < INTENTOS_INSTANTANEA; intento++) {
+            int restauracion = restauraciones;
+            AVLPersistente version = reservas.instantanea();
+            long[] ocupados = asientos.copiarOcupados();
+            if ((restauracion & 1) == 0 && reservas.instantanea() == version && restauraciones == restauracion) {
+                return new InstantaneaVuelo(codigo, origen, destino, version, ocupados, asientos.getInicioCopia(), asientos.getCabina());
+            }
+        }
+        AVLPersistente version = reservas.instantanea();
+        long[] ocupados = asientos.copiarOcupados();
+        for (Reserva reserva : version) asientos.marcarEnCopia(ocupados, reserva.getSeccion() - 'A', reserva.getNumeroAsiento());
+        return new InstantaneaVuelo(codigo, origen, destino, version, ocupados, asientos.getInicioCopia(), asientos.getCabina());
+    }
+
+    /**
+     * Vuelve las reservas del vuelo a las de una instantánea. Los asientos ocupados se rearman a partir
+     * de esas reservas más las retenciones vigentes ({@link ReservaMultitramo}), que se conservan: los
+     * asientos tomados sin reserva en la foto no se restauran. Si una reserva de la foto cae en un
+     * asiento retenido ahora, no se cambia nada (quedaría vendido dos veces).
+     * Es una operación administrativa: no debe correr mientras otros hilos asignan asientos.
+     * @param instantanea Foto tomada con {@link #instantanea()} de este mismo vuelo
+     * @throws IllegalArgumentException si la foto es de otro vuelo
+     * @throws IllegalStateException si una reserva de la foto ocupa un asiento retenido
+     */
+    public synchronized void restaurar(InstantaneaVuelo instantanea) {
+        if (!codigo.equals(instantanea.getCodigo())) {
+            throw new IllegalArgumentException("La instantánea es del vuelo " + instantanea.getCodigo()
+                                               + ", no de " + codigo);
+        }
+        AVLPersistente foto = instantanea.getReservas();
+        for (Reserva reserva : foto) {
+            RetencionAsiento retenida = retenciones.get(asientos.indice(reserva.getSeccion() - 'A', reserva.getNumeroAsiento()));
+            if (retenida != null) {
+                throw new IllegalStateException("No se puede restaurar " + reserva.getCodigoReserva() + ": " + retenida);
+            }
+        }
+        restauraciones++; // Impar: las instantáneas que se tomen mientras tanto no son válidas
+        try {
+            reservas.restaurar(foto);
+            asientos.vaciar();
+            for (Reserva reserva : foto) asientos.ocupar(reserva.getSeccion() - 'A', reserva.getNumeroAsiento());
+            for (int indice : retenciones.keySet()) asientos.ocupar(indice);
+        } finally {
+            restauraciones++;
+        }
+    }
+
+    /**
+     * Cancela una reserva: la quita del AVL y libera su asiento en O(1) para que se pueda volver a
+     * asignar. Si dos hilos cancelan la misma reserva, solo uno libera el asiento.
+     * @param codigo Código de reserva (ej: "RES-1234"); los códigos inválidos se ignoran
+     * @return Reserva cancelada o null si no existía en este vuelo
+     */
+    public Reserva cancelarReserva(String codigo) {
+        long numero;
+        try {
+            numero = Reserva.parsearCodigo(codigo);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return cancelarReserva(numero);
+    }
+
+    /**
+     * @param numero Número de reserva
+     * @return Reserva cancelada o null si no existía en este vuelo
+     */
+    public Reserva cancelarReserva(long numero) {
+        Reserva reserva = reservas.eliminar(numero);
+        if (reserva != null) asientos.liberar(reserva.getSeccion() - 'A', reserva.getNumeroAsiento());
+        return reserva;
+    }
+
+    /**
+     * Cancela un lote de reservas (por ejemplo, todas las de una conexión cancelada) en una pasada:
+     * una sola versión nueva del AVL y un CAS por palabra de asientos tocada.
+     * @param numeros Números de reserva (los que no existen en este vuelo se ignoran)
+     * @return Reservas canceladas
+     */
+    public List<Reserva> cancelarReservas(Collection<Long> numeros) {
+        List<Reserva> canceladas = reservas.eliminarTodas(numeros);
+        asientos.liberar(canceladas);
+        return canceladas;
+    }
+
     // Getters
-    public AVL getReservas() {
+    public AVLConcurrente getReservas() {
         return reservas;
     }
 
+    /**
+     * @return Copia de la ocupación por sección (A, B, C...), en orden de sección
+     */
     public Map<Character, Integer> getOcupacionPorSeccion() {
-        return ocupacionPorSeccion;
+        Map<Character, Integer> ocupacion = new LinkedHashMap<>();
+        for (int s = 0; s < asientos.getSecciones(); s++) {
+            ocupacion.put((char) ('A' + s), asientos.getOcupacion(s));
+        }
+        return ocupacion;
+    }
+
+    /**
+     * @param seccion Sección (ej: 'B')
+     * @return Asientos ocupados en la sección, o 0 si la sección no existe
+     */
+    public int getOcupacionSeccion(char seccion) {
+        int s = seccion - 'A';
+        return s >= 0 && s < asientos.getSecciones() ? asientos.getOcupacion(s) : 0;
+    }
+
+    /**
+     * @param asiento Asiento completo (ej: "B7")
+     * @return true si el asiento existe en el vuelo y está ocupado
+     */
+    public boolean estaOcupado(String asiento) {
+        if (asiento == null || asiento.length() < 2) return false;
+        int s = asiento.charAt(0) - 'A';
+        int numero;
+        try {
+            numero = Integer.parseInt(asiento.substring(1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return asientos.esVendible(s, numero) && asientos.estaOcupado(s, numero);
     }
 
     public String getCodigo() {
@@ -138,11 +304,18 @@ public class Vuelo {
     }
 
     public int getTotalAsientosOcupados() {
-        return asientosOcupados.size();
+        return asientos.getTotalOcupados();
     }
 
+    /**
+     * @return Asientos vendibles del vuelo (sin los bloqueados)
+     */
     public int getTotalAsientos() {
-        return TOTAL_ASIENTOS;
+        return asientos.getTotalAsientos();
+    }
+
+    public DistribucionCabina getCabina() {
+        return asientos.getCabina();
     }
 
     /**
@@ -151,7 +324,7 @@ public class Vuelo {
      */
     public Map<String, Integer> getOcupacionPorSeccionString() {
         Map<String, Integer> result = new HashMap<>();
-        for (Map.Entry<Character, Integer> entry : ocupacionPorSeccion.entrySet()) {
+        for (Map.Entry<Character, Integer> entry : getOcupacionPorSeccion().entrySet()) {
             result.put(String.valueOf(entry.getKey()), entry.getValue());
         }
         return result;
@@ -0,0 +1,108 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+class AVLConcurrenteTest {
+    @Test
+    void testOperacionesCoincidenConTreeMap() {
+        AVLConcurrente arbol = new AVLConcurrente();
+        TreeMap<Long, Reserva> referencia = new TreeMap<>();
+        List<Reserva> creadas = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Reserva r = new Reserva("A" + (1 + i % 10), "CiudadA", "CiudadB", "V1");
+            creadas.add(r);
+        }
+        Random random = new Random(8);
+        for (int i = 0; i < 6000; i++) {
+            Reserva r = creadas.get(random.nextInt(creadas.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(referencia.remove(r.getNumeroReserva()), arbol.eliminar(r.getCodigoReserva()));
+            } else {
+                assertEquals(referencia.put(r.getNumeroReserva(), r) == null, arbol.insertar(r));
+            }
+        }
+        assertEquals(new ArrayList<>(referencia.values()), arbol.inOrder());
+        assertEquals(referencia.size(), arbol.tamano());
+        assertTrue(arbol.altura() <= 16, "Altura " + arbol.altura());
+        for (int k = 0; k < arbol.tamano(); k += 53) {
+            assertEquals(k, arbol.rank(arbol.select(k).getNumeroReserva()));
+        }
+        assertEquals(new ArrayList<>(referencia.values()).subList(10, 30), arbol.inOrder(10, 20));
+        assertEquals(arbol.inOrder(), arbol.stream().parallel().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testInsercionesConcurrentesNoPierdenReservas() throws Exception {
+        AVLConcurrente arbol = new AVLConcurrente();
+        int hilos = 8;
+        int porHilo = 2000;
+        List<List<Reserva>> lotes = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            List<Reserva> lote = new ArrayList<>();
+            char seccion = (char) ('A' + h);
+            for (int i = 1; i <= porHilo; i++) lote.add(new Reserva(seccion + String.valueOf(i), "CiudadA", "CiudadB", "V1"));
+            lotes.add(lote);
+        }
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos + 1);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicBoolean terminado = new AtomicBoolean();
+        try {
+            // Un lector recorre versiones mientras escriben: cada una debe estar ordenada y completa
+            Future<?> lector = ejecutor.submit(() -> {
+                largada.await();
+                while (!terminado.get()) {
+                    int esperado = arbol.tamano();
+                    long anterior = Long.MIN_VALUE;
+                    int vistos = 0;
+                    for (Iterator<Reserva> it = arbol.iterator(); it.hasNext(); vistos++) {
+                        long clave = it.next().getNumeroReserva();
+                        assertTrue(clave > anterior);
+                        anterior = clave;
+                    }
+                    assertTrue(vistos >= esperado);
+                }
+                return null;
+            });
+            List<Future<?>> escritores = new ArrayList<>();
+            for (List<Reserva> lote : lotes) {
+                escritores.add(ejecutor.submit(() -> {
+                    largada.await();
+                    for (Reserva r : lote) assertTrue(arbol.insertar(r));
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> escritor : escritores) escritor.get(30, TimeUnit.SECONDS);
+            terminado.set(true);
+            lector.get(30, TimeUnit.SECONDS);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+        assertEquals(hilos * porHilo, arbol.tamano());
+        for (List<Reserva> lote : lotes) {
+            for (Reserva r : lote) {
+                assertSame(r, arbol.buscar(r.getNumeroReserva()));
+                assertSame(r, arbol.buscarPorAsiento(r.getAsientoCompleto()));
+            }
+        }
+        Reserva quitada = lotes.get(0).get(4);
+        assertSame(quitada, arbol.eliminar(quitada.getNumeroReserva()));
+        assertNull(arbol.buscarPorAsiento("A5"));
+        assertNull(arbol.eliminar(quitada.getNumeroReserva()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class AVLPersistenteTest {
+    @Test
+    void testLasVersionesAnterioresNoCambian() {
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = 0; i < 500; i++) reservas.add(new Reserva("B" + (1 + i % 10), "CiudadA", "CiudadB", "V1"));
+
+        List<AVLPersistente> versiones = new ArrayList<>();
+        AVLPersistente arbol = AVLPersistente.vacio();
+        versiones.add(arbol);
+        for (Reserva r : reservas) {
+            arbol = arbol.insertar(r);
+            versiones.add(arbol);
+        }
+        assertSame(arbol, arbol.insertar(reservas.get(3)), "Repetida: devuelve la misma versión.");
+        for (int i = 0; i < versiones.size(); i++) {
+            assertEquals(reservas.subList(0, i), versiones.get(i).inOrder());
+        }
+
+        AVLPersistente sinPares = arbol;
+        for (int i = 0; i < reservas.size(); i += 2) sinPares = sinPares.eliminar(reservas.get(i).getNumeroReserva());
+        assertEquals(250, sinPares.tamano());
+        assertEquals(500, arbol.tamano());
+        assertNull(sinPares.buscar(reservas.get(0).getCodigoReserva()));
+        assertSame(reservas.get(0), arbol.buscar(reservas.get(0).getCodigoReserva()));
+        assertTrue(sinPares.altura() <= 11, "Altura " + sinPares.altura());
+        assertEquals(reservas, AVLPersistente.desdeOrdenadas(reservas).inOrder());
+        assertEquals(9, AVLPersistente.desdeOrdenadas(reservas).altura());
+    }
+
+    @Test
+    void testInstantaneaDeFlotaParaReporteExportacionYVueltaAtras() throws IOException {
+        Vuelo vuelo = new Vuelo("AR101", "Buenos Aires", "Córdoba", 7);
+        Map<String, Vuelo> activos = new HashMap<>();
+        activos.put(vuelo.getCodigo(), vuelo);
+        for (int i = 0; i < 4; i++) {
+            vuelo.getReservas().insertar(new Reserva(vuelo.asignarAsientoAleatorioBalanceado(), "Buenos Aires", "Córdoba", "AR101"));
+        }
+        InstantaneaFlota foto = InstantaneaFlota.de(activos.values());
+
+        List<String> asientosNuevos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String asiento = vuelo.asignarAsientoAleatorioBalanceado();
+            asientosNuevos.add(asiento);
+            vuelo.getReservas().insertar(new Reserva(asiento, "Buenos Aires", "Córdoba", "AR101"));
+        }
+        InstantaneaVuelo antes = foto.getVuelo("AR101");
+        assertEquals(4, antes.getTotalAsientosOcupados());
+        assertEquals(4, antes.getReservas().tamano());
+        assertEquals(7, vuelo.getReservas().tamano());
+
+        StringWriter csv = new StringWriter();
+        foto.exportarCsv(csv);
+        assertEquals(5, csv.toString().split("\n").length);
+
+        foto.restaurarEn(activos);
+        assertEquals(4, vuelo.getTotalAsientosOcupados());
+        assertEquals(antes.getReservas().inOrder(), vuelo.getReservas().inOrder());
+        for (String asiento : asientosNuevos) assertNull(vuelo.getReservas().buscarPorAsiento(asiento));
+        for (Reserva r : antes.getReservas()) assertSame(r, vuelo.getReservas().buscarPorAsiento(r.getAsientoCompleto()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new Vuelo("AR999", "Córdoba", "Mendoza").restaurar(antes));
+    }
+}
@@ -3,7 +3,15 @@ package com.aerolineaspc21.modelo;
 import com.aerolineaspc21.modelo.Reserva;
 
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class AVLTest {
@@ -44,4 +52,163 @@ public class AVLTest {
         arbol.eliminar(r1.getCodigoReserva());
         assertNull(arbol.buscar(r1.getCodigoReserva()));
     }
+
+    @Test
+    public void testBuscarPorAsientoUsaElIndice() {
+        AVL arbol = new AVL();
+        Reserva r1 = new Reserva("B7", "CiudadA", "CiudadB", "V1");
+        Reserva r2 = new Reserva("A1", "CiudadA", "CiudadB", "V1");
+        Reserva r3 = new Reserva("C10", "CiudadA", "CiudadB", "V1");
+        arbol.insertar(r1);
+        arbol.insertar(r2);
+        arbol.insertar(r3);
+
+        assertSame(r1, arbol.buscarPorAsiento("B7"));
+        assertSame(r3, arbol.buscarPorAsiento('C', 10));
+        assertNull(arbol.buscarPorAsiento("B8"));
+        assertNull(arbol.buscarPorAsiento(r1.getCodigoReserva()), "El código de reserva no es un asiento.");
+
+        arbol.eliminar(r2.getCodigoReserva());
+        assertNull(arbol.buscarPorAsiento("A1"));
+        assertSame(r1, arbol.buscarPorAsiento("B7"));
+    }
+
+    @Test
+    public void testTamanoRankSelectYPaginas() {
+        AVL arbol = new AVL();
+        List<Reserva> creadas = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Reserva r = new Reserva("A1", "CiudadA", "CiudadB", "V1");
+            creadas.add(r);
+        }
+        // Insertar en orden mezclado para forzar rotaciones de todo tipo
+        List<Reserva> mezcladas = new ArrayList<>(creadas);
+        Collections.shuffle(mezcladas, new Random(3));
+        for (Reserva r : mezcladas) arbol.insertar(r);
+        for (int i = 0; i < 200; i += 3) arbol.eliminar(mezcladas.get(i).getCodigoReserva());
+
+        List<Reserva> orden = arbol.inOrder();
+        assertEquals(orden.size(), arbol.tamano());
+        assertEquals(orden.size(), arbol.contarNodos());
+        for (int k = 0; k < orden.size(); k++) {
+            assertSame(orden.get(k), arbol.select(k));
+            assertEquals(k, arbol.rank(orden.get(k).getCodigoReserva()));
+        }
+        assertEquals(orden.subList(10, 35), arbol.inOrder(10, 25));
+        assertEquals(orden.subList(orden.size() - 5, orden.size()), arbol.inOrder(orden.size() - 5, 100));
+        assertTrue(arbol.inOrder(orden.size(), 10).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> arbol.select(orden.size()));
+    }
+
+    @Test
+    public void testIteradorSpliteratorYRangos() {
+        AVL arbol = new AVL();
+        List<Reserva> creadas = new ArrayList<>();
+        for (int i = 0; i < 500; i++) creadas.add(new Reserva("B2", "CiudadA", "CiudadB", "V1"));
+        List<Reserva> mezcladas = new ArrayList<>(creadas);
+        Collections.shuffle(mezcladas, new Random(8));
+        for (Reserva r : mezcladas) arbol.insertar(r);
+
+        List<Reserva> orden = arbol.inOrder();
+        List<Reserva> iteradas = new ArrayList<>();
+        for (Reserva r : arbol) iteradas.add(r);
+        assertEquals(orden, iteradas);
+        assertEquals(orden, arbol.stream().parallel().collect(Collectors.toList()));
+        assertEquals(500, arbol.spliterator().estimateSize());
+        assertNotNull(arbol.spliterator().trySplit(), "El spliterator debe poder dividirse.");
+
+        String desde = orden.get(100).getCodigoReserva();
+        String hasta = orden.get(199).getCodigoReserva();
+        assertEquals(orden.subList(100, 200), arbol.rango(desde, hasta).collect(Collectors.toList()));
+        assertEquals(100, arbol.contarRango(desde, hasta));
+        assertEquals(0, arbol.rango(hasta, desde).count());
+
+        Iterator<Reserva> iterador = arbol.iterator();
+        iterador.next();
+        arbol.eliminar(orden.get(0).getCodigoReserva());
+        assertThrows(ConcurrentModificationException.class, iterador::next);
+    }
+
+    @Test
+    public void testInsercionesYEliminacionesIterativasMantienenElBalance() {
+        AVL arbol = new AVL();
+        TreeMap<Long, Reserva> referencia = new TreeMap<>();
+        List<Reserva> creadas = new ArrayList<>();
+        // Inserciones en orden creciente de código (camino rápido al final)
+        for (int i = 0; i < 4000; i++) {
+            Reserva r = new Reserva("C3", "CiudadA", "CiudadB", "V1");
+            creadas.add(r);
+            arbol.insertar(r);
+            referencia.put(r.getNumeroReserva(), r);
+        }
+        assertEquals(3999, arbol.getInsercionesAlFinal(), "Cada nuevo máximo (salvo la raíz) va por el camino rápido");
+        arbol.insertar(creadas.get(10)); // Repetida: se ignora
+        assertEquals(3999, arbol.getInsercionesAlFinal());
+        assertEquals(4000, arbol.tamano());
+        // log2(4001) ~ 12: un AVL tiene altura menor a 1.44 log2(n + 2)
+        assertTrue(arbol.altura() <= 17, "Altura " + arbol.altura());
+
+        Random random = new Random(4);
+        for (int i = 0; i < 3000; i++) {
+            Reserva r = creadas.get(random.nextInt(creadas.size()));
+            if (random.nextBoolean()) {
+                arbol.eliminar(r.getCodigoReserva());
+                referencia.remove(r.getNumeroReserva());
+            } else {
+                arbol.insertar(r);
+                referencia.put(r.getNumeroReserva(), r);
+            }
+        }
+        assertEquals(new ArrayList<>(referencia.values()), arbol.inOrder());
+        assertEquals(referencia.size(), arbol.tamano());
+        assertTrue(arbol.altura() <= 17, "Altura " + arbol.altura());
+        for (int k = 0; k < arbol.tamano(); k += 97) {
+            assertEquals(k, arbol.rank(arbol.select(k).getCodigoReserva()));
+        }
+    }
+
+    @Test
+    public void testCargaOrdenadaEnBloque() {
+        List<Reserva> lote = new ArrayList<>();
+        for (int i = 0; i < 1023; i++) lote.add(new Reserva("A" + (1 + i % 10), "CiudadA", "CiudadB", "V1"));
+        AVL arbol = new AVL();
+        arbol.insertar(new Reserva("B1", "CiudadA", "CiudadB", "V1"));
+        arbol.cargarOrdenado(lote);
+
+        assertEquals(lote, arbol.inOrder());
+        assertEquals(10, arbol.altura(), "1023 nodos forman un árbol perfecto de altura 10.");
+        assertNull(arbol.buscarPorAsiento("B1"));
+        assertSame(lote.get(lote.size() - 1), arbol.buscarPorAsiento("A3"));
+
+        Reserva nueva = new Reserva("B2", "CiudadA", "CiudadB", "V1");
+        arbol.insertar(nueva);
+        assertSame(nueva, arbol.select(arbol.tamano() - 1));
+
+        List<Reserva> desordenado = new ArrayList<>(lote);
+        Collections.reverse(desordenado);
+        assertThrows(IllegalArgumentException.class, () -> arbol.cargarOrdenado(desordenado));
+    }
+
+    @Test
+    public void testClavesNumericasRespetanElOrdenDeCreacion() {
+        AVL arbol = new AVL();
+        // Se generan reservas hasta pasar RES-9999: desde ahí "RES-10000" < "RES-9999" como texto
+        Reserva anterior = new Reserva("A1", "CiudadA", "CiudadB", "V1");
+        while (anterior.getNumeroReserva() < 9_999) anterior = new Reserva("A1", "CiudadA", "CiudadB", "V1");
+        Reserva siguiente = new Reserva("A2", "CiudadA", "CiudadB", "V1");
+        Reserva corta = new Reserva("A3", "CiudadA", "CiudadB", "V1");
+        arbol.insertar(siguiente);
+        arbol.insertar(anterior);
+        arbol.insertar(corta);
+
+        assertEquals(Arrays.asList(anterior, siguiente, corta), arbol.inOrder());
+        assertSame(anterior, arbol.buscar(anterior.getCodigoReserva()));
+        assertSame(siguiente, arbol.buscar(siguiente.getNumeroReserva()));
+        assertEquals(1, arbol.rank(siguiente.getCodigoReserva()));
+        assertNull(arbol.buscar("RES-12ab"));
+        assertEquals(siguiente.getCodigoReserva(), siguiente.getId());
+        assertEquals(anterior.getNumeroReserva(), Reserva.parsearCodigo(anterior.getCodigoReserva()));
+        assertEquals("RES-0042", Reserva.formatearCodigo(42));
+        assertThrows(IllegalArgumentException.class, () -> Reserva.parsearCodigo("XYZ-1"));
+    }
 }
@@ -0,0 +1,60 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché de rutas: aciertos, desalojo LRU e invalidación por versión del grafo.
+ */
+public class CacheRutasTest {
+    @Test
+    public void testDesalojoLRU() {
+        CacheRutas cache = new CacheRutas(2);
+        Itinerario it = new Itinerario(List.of("A", "B"), 1.0, 100.0);
+        cache.guardar("A", "B", 0, it);
+        cache.guardar("A", "C", 0, it);
+        assertNotNull(cache.obtener("A", "B", 0)); // A-B pasa a ser la más reciente
+        cache.guardar("A", "D", 0, it);            // Desaloja A-C
+        assertNull(cache.obtener("A", "C", 0));
+        assertNotNull(cache.obtener("A", "D", 0));
+        assertEquals(2, cache.getTamano());
+        assertEquals(2, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    public void testAciertoYCambioDeVersionDelGrafo() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        CacheRutas cache = grafo.getCacheRutas();
+
+        Itinerario primero = grafo.calcularItinerario("Buenos Aires", "Santa Cruz");
+        Itinerario segundo = grafo.calcularItinerario("Buenos Aires", "Santa Cruz");
+        assertSame(primero, segundo, "La segunda consulta debe salir de la caché.");
+        assertEquals(4.2, segundo.getTiempoTotal(), 1e-9);
+        assertEquals(380000, segundo.getPrecioTotal(), 1e-9);
+        assertEquals(1, cache.getAciertos());
+
+        // Modificar la red invalida los itinerarios guardados
+        grafo.getVertice("Buenos Aires").agregarArista(new Arista(grafo.getVertice("Santa Cruz"), 3.0, 300000));
+        Itinerario tercero = grafo.calcularItinerario("Buenos Aires", "Santa Cruz");
+        assertEquals(List.of("Buenos Aires", "Santa Cruz"), tercero.getCiudades());
+        assertEquals(1, cache.getAciertos());
+    }
+
+    @Test
+    public void testCambiarModoNoSirveResultadosDelModoAnterior() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        Itinerario unidireccional = grafo.calcularItinerario("Buenos Aires", "Santa Cruz");
+        grafo.setModoBusqueda(ModoBusqueda.BIDIRECCIONAL);
+        Itinerario bidireccional = grafo.calcularItinerario("Buenos Aires", "Santa Cruz");
+        assertNotSame(unidireccional, bidireccional, "Otro modo: no debe salir de la caché.");
+        assertEquals(grafo.calcularItinerario("Buenos Aires", "Santa Cruz", ModoBusqueda.BIDIRECCIONAL).getCiudadesAsentadas(),
+                     bidireccional.getCiudadesAsentadas());
+        assertSame(bidireccional, grafo.calcularItinerario("Buenos Aires", "Santa Cruz"));
+        grafo.setModoBusqueda(ModoBusqueda.UNIDIRECCIONAL);
+        assertSame(unidireccional, grafo.calcularItinerario("Buenos Aires", "Santa Cruz"));
+    }
+}
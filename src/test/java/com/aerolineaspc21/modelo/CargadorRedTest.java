@@ -0,0 +1,69 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class CargadorRedTest {
+    private static final String CIUDADES = "ciudad\nBuenos Aires\nCórdoba\nMendoza\nBariloche\nSanta Cruz\n\n# comentario\n";
+    private static final String RUTAS = "origen,destino,tiempo,precio\n"
+            + "Buenos Aires,Córdoba,1.2,120000\n"
+            + "Buenos Aires,Mendoza,1.7,150000\n"
+            + "Buenos Aires,Bariloche,2.2,220000\n"
+            + "Mendoza,Santa Cruz,2.6,170000\n"
+            + "Bariloche,Santa Cruz,2.0,160000\n"
+            + "Buenos Aires,Ushuaia,3.5,300000\n"; // Ciudad inexistente: se ignora
+
+    @Test
+    void testCargaCsvAgregaCiudadesYRutasBidireccionales() throws IOException {
+        Grafo grafo = new Grafo();
+        assertEquals(5, CargadorRed.cargarCiudades(grafo, new StringReader(CIUDADES)));
+        assertEquals(5, CargadorRed.cargarRutas(grafo, new StringReader(RUTAS)));
+
+        assertEquals(10, grafo.getCompacto().getCantidadTramos());
+        assertEquals(Arrays.asList("Buenos Aires", "Bariloche", "Santa Cruz"),
+                     grafo.calcularRutaMinima("Buenos Aires", "Santa Cruz"));
+        assertEquals(Arrays.asList("Santa Cruz", "Bariloche", "Buenos Aires"),
+                     grafo.calcularRutaMinima("Santa Cruz", "Buenos Aires"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> CargadorRed.cargarRutas(grafo, new StringReader("Córdoba;Mendoza;1.1;90000\n")));
+    }
+
+    @Test
+    void testInstantaneaBinariaConservaLaRed(@TempDir Path directorio) throws IOException {
+        Grafo original = new Grafo();
+        original.cargarDatosIniciales();
+        Path archivo = directorio.resolve("red.bin");
+        CargadorRed.guardarInstantanea(original, archivo);
+
+        Grafo cargado = CargadorRed.cargarInstantanea(archivo);
+        assertEquals(original.getCompacto().getCantidadTramos(), cargado.getCompacto().getCantidadTramos());
+        for (String origen : original.getVertices().keySet()) {
+            for (String destino : original.getVertices().keySet()) {
+                Itinerario esperado = original.calcularItinerario(origen, destino);
+                Itinerario obtenido = cargado.calcularItinerario(origen, destino);
+                assertEquals(esperado.getCiudades(), obtenido.getCiudades());
+                assertEquals(esperado.getPrecioTotal(), obtenido.getPrecioTotal(), 1e-6);
+            }
+        }
+
+        // Los vértices se materializan bajo demanda y la red sigue siendo modificable
+        assertEquals(5, cargado.getVertice("Buenos Aires").getAdyacentes().size());
+        assertTrue(cargado.agregarCiudad("Ushuaia"));
+        assertTrue(cargado.agregarAristaBidireccional("Santa Cruz", "Ushuaia", 1.5, 110000));
+        assertEquals(Arrays.asList("Buenos Aires", "Bariloche", "Santa Cruz", "Ushuaia"),
+                     cargado.calcularRutaMinima("Buenos Aires", "Ushuaia"));
+    }
+
+    @Test
+    void testArchivoQueNoEsInstantaneaSeRechaza(@TempDir Path directorio) throws IOException {
+        Path archivo = directorio.resolve("rutas.csv");
+        Files.write(archivo, RUTAS.getBytes("UTF-8"));
+        assertThrows(IOException.class, () -> CargadorRed.cargarInstantanea(archivo));
+    }
+}
@@ -0,0 +1,84 @@
+package com.aerolineaspc21.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark manual (no se ejecuta con {@code mvn test}): compara la latencia de consulta de
+ * Dijkstra con la de la jerarquía de contracción sobre una red sintética de aeropuertos.
+ * <p>
+ * Ejecución: {@code mvn test-compile} y luego
+ * {@code java -cp target/classes:target/test-classes com.aerolineaspc21.modelo.ContraccionJerarquicaBenchmark [lado] [consultas]}
+ */
+public class ContraccionJerarquicaBenchmark {
+    public static void main(String[] args) {
+        int lado = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        GrafoCompacto compacto = generarRed(lado, new Random(42));
+        System.out.printf("Red: %d ciudades, %d tramos%n", compacto.getCantidadCiudades(), compacto.getCantidadTramos());
+
+        long inicio = System.nanoTime();
+        ContraccionJerarquica jerarquia = ContraccionJerarquica.preprocesar(compacto);
+        System.out.printf("Preprocesamiento: %.1f ms, %d atajos (%d núcleos)%n",
+                          (System.nanoTime() - inicio) / 1e6, jerarquia.getCantidadAtajos(),
+                          Runtime.getRuntime().availableProcessors());
+
+        int n = compacto.getCantidadCiudades();
+        Random random = new Random(7);
+        int[] origenes = new int[consultas];
+        int[] destinos = new int[consultas];
+        for (int i = 0; i < consultas; i++) {
+            origenes[i] = random.nextInt(n);
+            destinos[i] = random.nextInt(n);
+        }
+        // Calentamiento del JIT
+        medir(compacto, null, origenes, destinos);
+        medir(null, jerarquia, origenes, destinos);
+
+        long[] dijkstra = medir(compacto, null, origenes, destinos);
+        long[] jerarquico = medir(null, jerarquia, origenes, destinos);
+        System.out.printf("Dijkstra:  %8.1f µs/consulta, %8.1f ciudades asentadas/consulta%n",
+                          dijkstra[0] / 1e3 / consultas, dijkstra[1] / (double) consultas);
+        System.out.printf("Jerarquía: %8.1f µs/consulta, %8.1f ciudades asentadas/consulta%n",
+                          jerarquico[0] / 1e3 / consultas, jerarquico[1] / (double) consultas);
+    }
+
+    private static long[] medir(GrafoCompacto compacto, ContraccionJerarquica jerarquia, int[] origenes, int[] destinos) {
+        long asentadas = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < origenes.length; i++) {
+            Itinerario itinerario = jerarquia != null
+                    ? jerarquia.calcularItinerario(origenes[i], destinos[i])
+                    : compacto.calcularItinerario(origenes[i], destinos[i]);
+            asentadas += itinerario.getCiudadesAsentadas();
+        }
+        return new long[] {System.nanoTime() - inicio, asentadas};
+    }
+
+    /** Cuadrícula de lado x lado aeropuertos con vuelos a los vecinos y algunas diagonales. */
+    private static GrafoCompacto generarRed(int lado, Random random) {
+        List<Vertice> vertices = new ArrayList<>();
+        for (int i = 0; i < lado * lado; i++) {
+            vertices.add(new Vertice("AP" + i));
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                Vertice v = vertices.get(f * lado + c);
+                if (c + 1 < lado) conectar(v, vertices.get(f * lado + c + 1), 1.0, random);
+                if (f + 1 < lado) conectar(v, vertices.get((f + 1) * lado + c), 1.0, random);
+                if (f + 1 < lado && c + 1 < lado && random.nextInt(4) == 0) {
+                    conectar(v, vertices.get((f + 1) * lado + c + 1), 1.4, random);
+                }
+            }
+        }
+        return GrafoCompacto.desde(vertices, 0);
+    }
+
+    private static void conectar(Vertice a, Vertice b, double distancia, Random random) {
+        double tiempo = Math.round(distancia * (5 + random.nextInt(10))) / 10.0;
+        double precio = 1000.0 * Math.round(tiempo * (80 + random.nextInt(40)));
+        a.agregarArista(new Arista(b, tiempo, precio));
+        b.agregarArista(new Arista(a, tiempo, precio));
+    }
+}
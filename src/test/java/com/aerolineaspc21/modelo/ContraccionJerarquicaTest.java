@@ -0,0 +1,75 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la jerarquía de contracción: mismo costo que Dijkstra y atajos desarmados
+ * en tramos reales de la red.
+ */
+public class ContraccionJerarquicaTest {
+    @Test
+    public void testModoJerarquicoEnLaRedPrecargada() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        grafo.setModoBusqueda(ModoBusqueda.CONTRACCION_JERARQUICA);
+
+        List<String> ruta = grafo.calcularRutaMinima("Buenos Aires", "Santa Cruz");
+        assertEquals(List.of("Buenos Aires", "Bariloche", "Santa Cruz"), ruta);
+
+        for (String origen : grafo.getVertices().keySet()) {
+            for (String destino : grafo.getVertices().keySet()) {
+                Itinerario dijkstra = grafo.calcularItinerario(origen, destino, ModoBusqueda.UNIDIRECCIONAL);
+                Itinerario jerarquico = grafo.calcularItinerario(origen, destino, ModoBusqueda.CONTRACCION_JERARQUICA);
+                assertEquals(dijkstra.getTiempoTotal(), jerarquico.getTiempoTotal(), 0.0, origen + " -> " + destino);
+                assertEquals(dijkstra.getPrecioTotal(), jerarquico.getPrecioTotal(), 0.0, origen + " -> " + destino);
+            }
+        }
+    }
+
+    @Test
+    public void testRedAleatoriaCoincideConDijkstra() {
+        Random random = new Random(21);
+        int n = 400;
+        List<Vertice> vertices = new ArrayList<>();
+        for (int i = 0; i < n; i++) vertices.add(new Vertice("C" + i));
+        for (int i = 0; i < n * 3; i++) {
+            Vertice a = vertices.get(random.nextInt(n));
+            Vertice b = vertices.get(random.nextInt(n));
+            double tiempo = (1 + random.nextInt(40)) / 10.0;
+            double precio = 1000.0 * (1 + random.nextInt(30));
+            a.agregarArista(new Arista(b, tiempo, precio));
+            if (random.nextBoolean()) b.agregarArista(new Arista(a, tiempo, precio));
+        }
+        GrafoCompacto compacto = GrafoCompacto.desde(vertices, 0);
+        ContraccionJerarquica jerarquia = ContraccionJerarquica.preprocesar(compacto);
+
+        for (int q = 0; q < 500; q++) {
+            int origen = random.nextInt(n);
+            int destino = random.nextInt(n);
+            Itinerario dijkstra = compacto.calcularItinerario(origen, destino);
+            Itinerario jerarquico = jerarquia.calcularItinerario(origen, destino);
+            assertEquals(dijkstra.existe(), jerarquico.existe());
+            assertEquals(dijkstra.getTiempoTotal(), jerarquico.getTiempoTotal(), 0.0);
+            assertEquals(dijkstra.getPrecioTotal(), jerarquico.getPrecioTotal(), 0.0);
+            if (jerarquico.existe()) {
+                // Cada par consecutivo del itinerario desarmado debe ser un tramo real
+                List<String> ciudades = jerarquico.getCiudades();
+                assertEquals(compacto.nombre(origen), ciudades.get(0));
+                assertEquals(compacto.nombre(destino), ciudades.get(ciudades.size() - 1));
+                for (int i = 0; i + 1 < ciudades.size(); i++) {
+                    int desde = compacto.indice(ciudades.get(i));
+                    int hacia = compacto.indice(ciudades.get(i + 1));
+                    boolean existe = false;
+                    for (int e = compacto.inicioTramos(desde); e < compacto.finTramos(desde); e++) {
+                        existe |= compacto.destino(e) == hacia;
+                    }
+                    assertTrue(existe, ciudades.get(i) + " -> " + ciudades.get(i + 1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del enrutador A* con cotas de referencia (ALT).
+ * Debe devolver exactamente el mismo itinerario que Dijkstra.
+ */
+public class EnrutadorALTTest {
+    @Test
+    public void testCoincideConDijkstraEnTodosLosPares() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        EnrutadorALT alt = new EnrutadorALT(grafo, "Buenos Aires", "Santa Cruz");
+
+        for (String origen : grafo.getVertices().keySet()) {
+            for (String destino : grafo.getVertices().keySet()) {
+                Itinerario dijkstra = grafo.calcularItinerario(origen, destino, ModoBusqueda.UNIDIRECCIONAL);
+                Itinerario aEstrella = alt.calcularItinerario(origen, destino);
+                assertEquals(dijkstra.getTiempoTotal(), aEstrella.getTiempoTotal(), 0.0, origen + " -> " + destino);
+                assertEquals(dijkstra.getPrecioTotal(), aEstrella.getPrecioTotal(), 0.0, origen + " -> " + destino);
+                assertTrue(aEstrella.getCiudadesAsentadas() <= dijkstra.getCiudadesAsentadas());
+            }
+        }
+        assertEquals(List.of("Buenos Aires", "Bariloche", "Santa Cruz"),
+                     alt.calcularItinerario("Buenos Aires", "Santa Cruz").getCiudades());
+    }
+
+    @Test
+    public void testTablasSeReconstruyenAlCambiarLaRed() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        EnrutadorALT alt = new EnrutadorALT(grafo);
+        assertEquals(EnrutadorALT.CANTIDAD_REFERENCIAS_POR_DEFECTO, alt.getReferencias().length);
+        assertEquals(3, alt.calcularItinerario("Buenos Aires", "Santa Cruz").getCiudades().size());
+
+        grafo.getVertice("Buenos Aires").agregarArista(new Arista(grafo.getVertice("Santa Cruz"), 3.0, 300000));
+        Itinerario directo = alt.calcularItinerario("Buenos Aires", "Santa Cruz");
+        assertEquals(List.of("Buenos Aires", "Santa Cruz"), directo.getCiudades());
+        assertEquals(3.0, directo.getTiempoTotal(), 1e-9);
+    }
+}
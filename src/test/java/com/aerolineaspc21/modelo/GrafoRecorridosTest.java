@@ -1,7 +1,11 @@
 package com.aerolineaspc21.modelo;
 
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -30,4 +34,71 @@ public class GrafoRecorridosTest {
         assertTrue(recorrido.contains("Santa Cruz"));
     assertEquals(7, recorrido.size());
     }
+
+    @Test
+    public void testDFSIterativoNoDesbordaEnCadenaLarga() {
+        List<Vertice> vertices = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) vertices.add(new Vertice("A" + i));
+        for (int i = 0; i + 1 < vertices.size(); i++) {
+            vertices.get(i).agregarArista(new Arista(vertices.get(i + 1), 1.0, 1000));
+        }
+        GrafoCompacto compacto = GrafoCompacto.desde(vertices, 0);
+        List<String> recorrido = compacto.dfs(0);
+        assertEquals(200_000, recorrido.size());
+        assertEquals("A199999", recorrido.get(recorrido.size() - 1));
+    }
+
+    @Test
+    public void testDFSMantieneElOrdenDelRecorridoRecursivo() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        assertEquals(Arrays.asList("Buenos Aires", "Córdoba", "Mendoza", "Bariloche", "Santa Cruz", "Santa Fe", "Posadas"),
+                     grafo.DFS("Buenos Aires"));
+    }
+
+    @Test
+    public void testNivelesBFSConCambioDeDireccionCoincidenConBFSClasico() {
+        Random random = new Random(5);
+        List<Vertice> vertices = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) vertices.add(new Vertice("C" + i));
+        for (int i = 0; i < 40_000; i++) {
+            Vertice a = vertices.get(random.nextInt(vertices.size()));
+            Vertice b = vertices.get(random.nextInt(vertices.size()));
+            a.agregarArista(new Arista(b, 1.0, 1000));
+        }
+        GrafoCompacto compacto = GrafoCompacto.desde(vertices, 0);
+        int[] niveles = compacto.nivelesBfs(0);
+
+        // BFS clásico de referencia
+        int[] esperado = new int[vertices.size()];
+        Arrays.fill(esperado, -1);
+        int[] cola = new int[vertices.size()];
+        int frente = 0;
+        int fondo = 0;
+        cola[fondo++] = 0;
+        esperado[0] = 0;
+        while (frente < fondo) {
+            int actual = cola[frente++];
+            for (int e = compacto.inicioTramos(actual); e < compacto.finTramos(actual); e++) {
+                int vecino = compacto.destino(e);
+                if (esperado[vecino] == -1) {
+                    esperado[vecino] = esperado[actual] + 1;
+                    cola[fondo++] = vecino;
+                }
+            }
+        }
+        assertArrayEquals(esperado, niveles);
+        assertEquals(fondo, compacto.bfs(0).size());
+    }
+
+    @Test
+    public void testNivelesBFSCuentaTramosDesdeElOrigen() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        Map<String, Integer> niveles = grafo.nivelesBFS("Buenos Aires");
+        assertEquals(7, niveles.size());
+        assertEquals(0, niveles.get("Buenos Aires"));
+        assertEquals(1, niveles.get("Mendoza"));
+        assertEquals(2, niveles.get("Santa Cruz"));
+    }
 }
@@ -46,4 +46,145 @@ class GrafoTest {
         assertTrue(alcanzables.contains("Mendoza"));
         assertTrue(alcanzables.contains("Santa Cruz")); // Santa Cruz es alcanzable mediante trasbordo [8].
     }
+
+    @Test
+    void testInstantaneaCompactaSeReconstruyeAlCambiarLaRed() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+
+        GrafoCompacto compacto = grafo.getCompacto();
+        assertEquals(7, compacto.getCantidadCiudades());
+        assertEquals(22, compacto.getCantidadTramos(), "11 conexiones bidireccionales = 22 tramos.");
+        assertSame(compacto, grafo.getCompacto(), "Sin cambios se reutiliza la misma instantánea.");
+
+        // Vuelo directo nuevo (y muy rápido) Buenos Aires -> Santa Cruz
+        Vertice bue = grafo.getVertice("Buenos Aires");
+        bue.agregarArista(new Arista(grafo.getVertice("Santa Cruz"), 3.0, 300000));
+
+        assertNotSame(compacto, grafo.getCompacto());
+        assertEquals(List.of("Buenos Aires", "Santa Cruz"), grafo.calcularRutaMinima("Buenos Aires", "Santa Cruz"));
+    }
+
+    @Test
+    void testConsultasConcurrentesSobreElMismoGrafo() throws Exception {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        List<String> esperada = grafo.calcularRutaMinima("Buenos Aires", "Santa Cruz");
+
+        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(8);
+        try {
+            List<java.util.concurrent.Future<Boolean>> resultados = new java.util.ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                resultados.add(pool.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        if (!esperada.equals(grafo.calcularRutaMinima("Buenos Aires", "Santa Cruz"))) return false;
+                        if (!grafo.calcularRutaMinima("Santa Cruz", "Posadas").get(0).equals("Santa Cruz")) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (java.util.concurrent.Future<Boolean> resultado : resultados) {
+                assertTrue(resultado.get(), "Todas las consultas concurrentes deben devolver la ruta óptima.");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDijkstraBidireccionalCoincideConUnidireccional() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+        for (String origen : grafo.getVertices().keySet()) {
+            for (String destino : grafo.getVertices().keySet()) {
+                Itinerario uni = grafo.calcularItinerario(origen, destino, ModoBusqueda.UNIDIRECCIONAL);
+                Itinerario bi = grafo.calcularItinerario(origen, destino, ModoBusqueda.BIDIRECCIONAL);
+                assertEquals(uni.getCiudades(), bi.getCiudades(), origen + " -> " + destino);
+                assertEquals(uni.getTiempoTotal(), bi.getTiempoTotal(), 0.0);
+                assertEquals(uni.getPrecioTotal(), bi.getPrecioTotal(), 0.0);
+            }
+        }
+
+        Itinerario bi = grafo.calcularItinerario("Buenos Aires", "Santa Cruz", ModoBusqueda.BIDIRECCIONAL);
+        assertEquals(List.of("Buenos Aires", "Bariloche", "Santa Cruz"), bi.getCiudades());
+        assertTrue(bi.getCiudadesAsentadas() > 0);
+    }
+
+    @Test
+    void testBidireccionalDevuelveUnaRutaOptimaEntreEmpates() {
+        // Grilla de 6x6 con tramos iguales (muchísimas rutas de igual tiempo y precio) más atajos al azar
+        Grafo grafo = new Grafo();
+        int lado = 6;
+        for (int i = 0; i < lado * lado; i++) grafo.agregarCiudad("C" + i);
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                int i = f * lado + c;
+                if (c + 1 < lado) grafo.agregarAristaBidireccional("C" + i, "C" + (i + 1), 1.0, 100);
+                if (f + 1 < lado) grafo.agregarAristaBidireccional("C" + i, "C" + (i + lado), 1.0, 100);
+            }
+        }
+        java.util.Random random = new java.util.Random(4);
+        for (int k = 0; k < 20; k++) {
+            int a = random.nextInt(lado * lado);
+            int b = random.nextInt(lado * lado);
+            if (a != b) grafo.agregarAristaBidireccional("C" + a, "C" + b, 1 + random.nextInt(3), 100 * (1 + random.nextInt(3)));
+        }
+
+        for (int o = 0; o < lado * lado; o++) {
+            for (int d = 0; d < lado * lado; d++) {
+                Itinerario uni = grafo.calcularItinerario("C" + o, "C" + d, ModoBusqueda.UNIDIRECCIONAL);
+                Itinerario bi = grafo.calcularItinerario("C" + o, "C" + d, ModoBusqueda.BIDIRECCIONAL);
+                Itinerario alt = grafo.calcularItinerario("C" + o, "C" + d, ModoBusqueda.ALT);
+                // Entre empates exactos la ruta puede ser otra, pero tiene que ser continua y del mismo costo
+                assertEquals(uni.getTiempoTotal(), bi.getTiempoTotal(), 0.0, "C" + o + " -> C" + d);
+                assertEquals(uni.getPrecioTotal(), bi.getPrecioTotal(), 0.0);
+                assertEquals("C" + o, bi.getCiudades().get(0));
+                assertEquals("C" + d, bi.getCiudades().get(bi.getCiudades().size() - 1));
+                for (int t = 0; t < bi.getCantidadTramos(); t++) {
+                    assertEquals(bi.getCiudades().get(t + 1), bi.getTramos().get(t).getDestino().getNombre());
+                }
+                assertEquals(uni.getTiempoTotal(), alt.getTiempoTotal(), 0.0, "ALT C" + o + " -> C" + d);
+                assertEquals(uni.getPrecioTotal(), alt.getPrecioTotal(), 0.0);
+                assertEquals(uni.getCiudades(), alt.getCiudades(), "ALT C" + o + " -> C" + d);
+            }
+        }
+    }
+
+    @Test
+    void testSinRutaCadaModoInformaSusCiudadesAsentadas() {
+        Grafo grafo = new Grafo();
+        for (int i = 0; i < 10; i++) grafo.agregarCiudad("C" + i);
+        grafo.agregarCiudad("Aislada");
+        for (int i = 0; i + 1 < 10; i++) grafo.agregarAristaBidireccional("C" + i, "C" + (i + 1), 1.0, 100);
+
+        Itinerario uni = grafo.calcularItinerario("C0", "Aislada", ModoBusqueda.UNIDIRECCIONAL);
+        Itinerario bi = grafo.calcularItinerario("C0", "Aislada", ModoBusqueda.BIDIRECCIONAL);
+        assertTrue(uni.getCiudades().isEmpty());
+        assertTrue(bi.getCiudades().isEmpty());
+        assertEquals(10, uni.getCiudadesAsentadas(), "Recorre toda la componente del origen");
+        assertEquals(2, bi.getCiudadesAsentadas(), "El frente de vuelta se agota enseguida");
+    }
+
+    @Test
+    void testItinerarioIncluyeTramosYTotales() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+
+        for (ModoBusqueda modo : ModoBusqueda.values()) {
+            Itinerario itinerario = grafo.calcularItinerario("Buenos Aires", "Santa Cruz", modo);
+            assertEquals(2, itinerario.getCantidadTramos(), modo.toString());
+            assertFalse(itinerario.esDirecto());
+            List<Arista> tramos = itinerario.getTramos();
+            assertEquals(2, tramos.size());
+            assertSame(grafo.getVertice("Bariloche"), tramos.get(0).getDestino());
+            assertSame(grafo.getVertice("Santa Cruz"), tramos.get(1).getDestino());
+            assertEquals(4.2, itinerario.getTiempoTotal(), 1e-9);
+            assertEquals(380000, itinerario.getPrecioTotal(), 1e-6);
+        }
+
+        Itinerario directo = grafo.calcularItinerario("Buenos Aires", "Córdoba");
+        assertTrue(directo.esDirecto());
+        assertEquals(1.2, directo.getTramos().get(0).getTiempo(), 0.0);
+        assertEquals(0, grafo.calcularItinerario("Buenos Aires", "Ushuaia").getCantidadTramos());
+    }
 }
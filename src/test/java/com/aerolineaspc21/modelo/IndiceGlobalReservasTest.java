@@ -0,0 +1,91 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class IndiceGlobalReservasTest {
+    @Test
+    void testSigueAltasBajasYRestauracionesDeTodosLosVuelos() {
+        IndiceGlobalReservas indice = new IndiceGlobalReservas();
+        Vuelo cordoba = new Vuelo("AR101", "Buenos Aires", "Córdoba");
+        Vuelo mendoza = new Vuelo("AR103", "Buenos Aires", "Mendoza");
+        Reserva previa = new Reserva("A1", "Buenos Aires", "Córdoba", "AR101");
+        cordoba.getReservas().insertar(previa); // Anterior al registro: se indexa al registrar
+
+        assertTrue(indice.registrar(cordoba));
+        assertTrue(indice.registrar(mendoza));
+        assertFalse(indice.registrar(cordoba));
+        assertThrows(IllegalArgumentException.class,
+                     () -> indice.registrar(new Vuelo("AR101", "Córdoba", "Mendoza")));
+
+        Reserva aMendoza = new Reserva("B2", "Buenos Aires", "Mendoza", "AR103");
+        mendoza.getReservas().insertar(aMendoza);
+        assertSame(cordoba, indice.buscar(previa.getCodigoReserva()).getVuelo());
+        assertSame(aMendoza, indice.buscar(aMendoza.getNumeroReserva()).getReserva());
+        assertSame(mendoza, indice.buscar(aMendoza.getCodigoReserva()).getVuelo());
+        assertNull(indice.buscar("RES-abc"));
+
+        InstantaneaVuelo foto = mendoza.instantanea();
+        mendoza.getReservas().eliminar(aMendoza.getNumeroReserva());
+        assertNull(indice.buscar(aMendoza.getCodigoReserva()));
+        mendoza.restaurar(foto);
+        assertSame(aMendoza, indice.buscar(aMendoza.getCodigoReserva()).getReserva());
+        assertEquals(2, indice.tamano());
+    }
+
+    @Test
+    void testBajaAvisadaAntesQueElAltaNoDejaEntradasViejas() {
+        IndiceGlobalReservas indice = new IndiceGlobalReservas();
+        Vuelo vuelo = new Vuelo("AR105", "Buenos Aires", "Salta");
+        AVLConcurrente reservas = vuelo.getReservas();
+        Reserva cancelada = new Reserva("A3", "Buenos Aires", "Salta", "AR105");
+        Reserva reemplazo = new Reserva("A3", "Buenos Aires", "Salta", "AR105");
+        // Simula otro hilo que, entre la publicación del alta y su aviso al índice global,
+        // cancela la reserva y revende el asiento
+        reservas.agregarObservador(new ObservadorReservas() {
+            @Override
+            public void reservaAgregada(Reserva reserva) {
+                if (reserva == cancelada) {
+                    reservas.eliminar(cancelada.getNumeroReserva());
+                    reservas.insertar(reemplazo);
+                }
+            }
+
+            @Override
+            public void reservaEliminada(Reserva reserva) {
+            }
+        });
+        indice.registrar(vuelo);
+
+        assertTrue(reservas.insertar(cancelada));
+        assertNull(indice.buscar(cancelada.getCodigoReserva()));
+        assertSame(reemplazo, indice.buscar(reemplazo.getCodigoReserva()).getReserva());
+        assertEquals(1, indice.tamano());
+        assertSame(reemplazo, reservas.buscarPorAsiento("A3"));
+    }
+
+    @Test
+    void testReservasDesdeVariosHilos() {
+        IndiceGlobalReservas indice = new IndiceGlobalReservas();
+        List<Vuelo> vuelos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Vuelo vuelo = new Vuelo("AR30" + i, "Buenos Aires", "Bariloche");
+            indice.registrar(vuelo);
+            vuelos.add(vuelo);
+        }
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) reservas.add(new Reserva("A" + (1 + i % 10), "Buenos Aires", "Bariloche", "AR30" + (i % 4)));
+        IntStream.range(0, reservas.size()).parallel()
+                 .forEach(i -> vuelos.get(i % 4).getReservas().insertar(reservas.get(i)));
+
+        assertEquals(reservas.size(), indice.tamano());
+        for (int i = 0; i < reservas.size(); i++) {
+            IndiceGlobalReservas.Entrada entrada = indice.buscar(reservas.get(i).getCodigoReserva());
+            assertSame(vuelos.get(i % 4), entrada.getVuelo());
+            assertSame(reservas.get(i), entrada.getReserva());
+        }
+    }
+}
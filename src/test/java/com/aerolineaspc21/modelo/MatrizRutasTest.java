@@ -0,0 +1,68 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class MatrizRutasTest {
+    @Test
+    void testRutasDesdeUnOrigenCoincidenConDijkstra() {
+        Grafo grafo = new Grafo();
+        grafo.cargarDatosIniciales();
+
+        MatrizRutas matriz = grafo.calcularRutasDesde("Buenos Aires");
+        assertEquals(1, matriz.getCantidadOrigenes());
+        assertEquals(7, matriz.getCantidadDestinos());
+        for (int j = 0; j < matriz.getCantidadDestinos(); j++) {
+            Itinerario esperado = grafo.calcularItinerario("Buenos Aires", matriz.getDestino(j));
+            assertEquals(esperado.getCiudades(), matriz.getRuta(0, j));
+            assertEquals(esperado.getTiempoTotal(), matriz.getTiempo(0, j), 1e-9);
+            assertEquals(esperado.getPrecioTotal(), matriz.getPrecio(0, j), 1e-6);
+        }
+        int santaCruz = Arrays.asList(nombresColumnas(matriz)).indexOf("Santa Cruz");
+        assertEquals(Arrays.asList("Buenos Aires", "Bariloche", "Santa Cruz"), matriz.getRuta(0, santaCruz));
+        assertThrows(IllegalArgumentException.class, () -> grafo.calcularRutasDesde("Ushuaia"));
+    }
+
+    @Test
+    void testMatrizParalelaCoincideConConsultasIndividuales() {
+        Random random = new Random(11);
+        List<Vertice> vertices = new ArrayList<>();
+        for (int i = 0; i < 150; i++) vertices.add(new Vertice("C" + i));
+        for (int i = 0; i < 600; i++) {
+            Vertice a = vertices.get(random.nextInt(vertices.size()));
+            Vertice b = vertices.get(random.nextInt(vertices.size()));
+            a.agregarArista(new Arista(b, 0.5 + random.nextInt(20) / 10.0, 1000.0 * (50 + random.nextInt(100))));
+        }
+        GrafoCompacto compacto = GrafoCompacto.desde(vertices, 0);
+
+        int[] origenes = new int[40];
+        int[] destinos = new int[50];
+        for (int i = 0; i < origenes.length; i++) origenes[i] = i;
+        for (int j = 0; j < destinos.length; j++) destinos[j] = 100 + j;
+        MatrizRutas matriz = compacto.calcularMatriz(origenes, destinos);
+        for (int i = 0; i < origenes.length; i++) {
+            for (int j = 0; j < destinos.length; j++) {
+                Itinerario esperado = compacto.calcularItinerario(origenes[i], destinos[j]);
+                assertEquals(esperado.existe(), matriz.existeRuta(i, j));
+                if (!esperado.existe()) {
+                    assertEquals(Double.POSITIVE_INFINITY, matriz.getTiempo(i, j));
+                    assertTrue(matriz.getRuta(i, j).isEmpty());
+                    continue;
+                }
+                assertEquals(esperado.getTiempoTotal(), matriz.getTiempo(i, j), 1e-9);
+                assertEquals(esperado.getPrecioTotal(), matriz.getPrecio(i, j), 1e-6);
+                assertEquals(esperado.getCiudades(), matriz.getRuta(i, j));
+            }
+        }
+    }
+
+    private static String[] nombresColumnas(MatrizRutas matriz) {
+        String[] nombres = new String[matriz.getCantidadDestinos()];
+        for (int j = 0; j < nombres.length; j++) nombres[j] = matriz.getDestino(j);
+        return nombres;
+    }
+}
@@ -0,0 +1,166 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class ReservaMultitramoTest {
+    @Test
+    void testTramoLlenoDevuelveLosAsientosRetenidos() {
+        Vuelo primero = new Vuelo("VBUECOR", "Buenos Aires", "Córdoba", 1);
+        Vuelo segundo = new Vuelo("VCORMEN", "Córdoba", "Mendoza", 2);
+        for (int i = 0; i < 30; i++) segundo.asignarAsientoAleatorioBalanceado();
+
+        ReservaMultitramo fallida = ReservaMultitramo.retener(Arrays.asList(primero, segundo));
+        assertSame(segundo, fallida.getVueloSinLugar());
+        assertFalse(fallida.estaRetenida());
+        assertEquals(0, primero.getTotalAsientosOcupados());
+        assertEquals(0, primero.getReservas().tamano());
+        assertThrows(IllegalStateException.class, fallida::confirmar);
+
+        Vuelo tercero = new Vuelo("VCORSAL", "Córdoba", "Salta", 3);
+        ReservaMultitramo reserva = ReservaMultitramo.retener(Arrays.asList(primero, tercero));
+        assertTrue(reserva.estaRetenida());
+        assertEquals(1, primero.getTotalAsientosOcupados());
+        assertEquals(0, primero.getReservas().tamano(), "Retenido pero sin reserva todavía");
+
+        List<Reserva> reservas = reserva.confirmar();
+        assertEquals(2, reservas.size());
+        assertEquals("VBUECOR", reservas.get(0).getCodigoVuelo());
+        assertEquals("Salta", reservas.get(1).getDestino());
+        assertSame(reservas.get(1), tercero.getReservas().buscarPorAsiento(reserva.getRetenciones().get(1).getAsiento()));
+        assertFalse(reserva.liberar());
+        assertThrows(IllegalStateException.class, reserva::confirmar);
+
+        ReservaMultitramo descartada = ReservaMultitramo.retener(Arrays.asList(primero, tercero));
+        assertEquals(2, primero.getTotalAsientosOcupados());
+        assertTrue(descartada.liberar());
+        assertFalse(descartada.liberar());
+        assertEquals(1, primero.getTotalAsientosOcupados());
+        assertEquals(1, tercero.getTotalAsientosOcupados());
+    }
+
+    @Test
+    void testLasRetencionesVencenYNoLiberanAsientosAjenos() {
+        Vuelo primero = new Vuelo("VBUECOR", "Buenos Aires", "Córdoba", DistribucionCabina.uniforme(1, 1));
+        Vuelo segundo = new Vuelo("VCORMEN", "Córdoba", "Mendoza", DistribucionCabina.uniforme(1, 1));
+
+        ReservaMultitramo vencida = ReservaMultitramo.retener(Arrays.asList(primero, segundo), Duration.ZERO);
+        assertTrue(vencida.estaRetenida());
+        assertThrows(IllegalStateException.class, vencida::confirmar, "Se confirmó fuera de plazo");
+        assertEquals(0, primero.getTotalAsientosOcupados());
+        assertEquals(0, segundo.getTotalAsientosOcupados());
+        assertEquals(0, primero.getReservas().tamano());
+        assertThrows(IllegalArgumentException.class,
+                     () -> ReservaMultitramo.retener(Arrays.asList(primero), Duration.ofSeconds(-1)));
+
+        // Abandonada: el vuelo lleno recupera el asiento vencido al pedir otro
+        ReservaMultitramo abandonada = ReservaMultitramo.retener(Arrays.asList(primero, segundo), Duration.ZERO);
+        assertEquals(1, segundo.liberarRetencionesVencidas());
+        assertEquals(0, segundo.liberarRetencionesVencidas());
+        assertFalse(abandonada.getRetenciones().get(1).estaVigente());
+        ReservaMultitramo nueva = ReservaMultitramo.retener(Arrays.asList(primero, segundo));
+        assertNull(nueva.getVueloSinLugar(), "El tramo lleno de retenciones vencidas tenía que liberarse");
+        assertFalse(abandonada.getRetenciones().get(0).estaVigente());
+
+        // La retención vieja ya no es dueña de los asientos: liberarla no toca los de la nueva
+        assertTrue(abandonada.liberar());
+        assertEquals(1, primero.getTotalAsientosOcupados());
+        assertEquals(1, segundo.getTotalAsientosOcupados());
+        assertThrows(IllegalStateException.class, abandonada::confirmar);
+        List<Reserva> reservas = nueva.confirmar();
+        assertEquals(2, reservas.size());
+        assertEquals(0, primero.liberarRetencionesVencidas(), "Las confirmadas no vencen");
+        assertEquals(1, primero.getTotalAsientosOcupados());
+    }
+
+    @Test
+    void testNadieVeConfirmadaUnaReservaAMedias() throws Exception {
+        Vuelo primero = new Vuelo("VBUECOR", "Buenos Aires", "Córdoba", DistribucionCabina.uniforme(20, 100));
+        Vuelo segundo = new Vuelo("VCORMEN", "Córdoba", "Mendoza", DistribucionCabina.uniforme(20, 100));
+        AtomicReference<ReservaMultitramo> actual = new AtomicReference<>();
+        AtomicReference<String> error = new AtomicReference<>();
+        AtomicBoolean fin = new AtomicBoolean();
+        Thread observador = new Thread(() -> {
+            while (!fin.get()) {
+                ReservaMultitramo reserva = actual.get();
+                if (reserva == null || !reserva.estaConfirmada()) continue;
+                if (reserva.getReservas().size() != 2) error.set("Confirmada sin sus reservas");
+            }
+        });
+        observador.start();
+        List<ReservaMultitramo> fallidas = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            boolean vence = i % 2 == 0;
+            ReservaMultitramo reserva = ReservaMultitramo.retener(Arrays.asList(primero, segundo),
+                                                                  vence ? Duration.ZERO : ReservaMultitramo.PLAZO_RETENCION);
+            actual.set(reserva);
+            if (vence) {
+                assertThrows(IllegalStateException.class, reserva::confirmar);
+                fallidas.add(reserva);
+            } else {
+                assertEquals(2, reserva.confirmar().size());
+            }
+        }
+        fin.set(true);
+        observador.join(10_000);
+        assertNull(error.get());
+        for (ReservaMultitramo fallida : fallidas) {
+            assertFalse(fallida.estaConfirmada());
+            assertFalse(fallida.estaRetenida());
+            assertFalse(fallida.liberar());
+            assertTrue(fallida.getReservas().isEmpty());
+        }
+        assertEquals(1000, primero.getTotalAsientosOcupados());
+        assertEquals(1000, segundo.getReservas().tamano());
+    }
+
+    @Test
+    void testItinerariosConcurrentesNoPierdenAsientos() throws Exception {
+        Vuelo amplio = new Vuelo("VBUECOR", "Buenos Aires", "Córdoba", DistribucionCabina.uniforme(4, 50));
+        Vuelo escaso = new Vuelo("VCORMEN", "Córdoba", "Mendoza");
+        int hilos = 12;
+        AtomicInteger confirmadas = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            final boolean desistir = h % 3 == 0;
+            tareas.add(ejecutor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 10; i++) {
+                    ReservaMultitramo reserva = ReservaMultitramo.retener(Arrays.asList(amplio, escaso));
+                    if (reserva.getVueloSinLugar() != null) continue;
+                    if (desistir && i % 2 == 0) {
+                        assertTrue(reserva.liberar());
+                    } else {
+                        reserva.confirmar();
+                        confirmadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) tarea.get(30, TimeUnit.SECONDS);
+        ejecutor.shutdown();
+
+        // 120 intentos contra 30 asientos: el tramo escaso se llena y el amplio no debe quedar con asientos sueltos
+        assertEquals(30, confirmadas.get());
+        assertEquals(30, escaso.getTotalAsientosOcupados());
+        assertEquals(30, escaso.getReservas().tamano());
+        assertEquals(30, amplio.getTotalAsientosOcupados());
+        assertEquals(30, amplio.getReservas().tamano());
+    }
+}
@@ -0,0 +1,94 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ReservasColumnaresTest {
+    @Test
+    void testLasVistasConservanTodosLosDatos() {
+        List<Reserva> originales = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String seccion = String.valueOf((char) ('A' + i % 3));
+            String vuelo = i % 2 == 0 ? "AR102" : "AR201";
+            String origen = i % 2 == 0 ? "Buenos Aires" : "Bariloche";
+            String destino = i % 2 == 0 ? "Bariloche" : "Santa Cruz";
+            originales.add(new Reserva(seccion + (1 + i % 10), origen, destino, vuelo));
+        }
+        List<Reserva> desordenadas = new ArrayList<>(originales);
+        Collections.shuffle(desordenadas, new java.util.Random(3));
+        InternadorTextos internador = new InternadorTextos();
+        ReservasColumnares columnas = ReservasColumnares.desde(desordenadas, internador);
+
+        assertEquals(300, columnas.tamano());
+        assertEquals(2, columnas.getCantidadTramos());
+        assertEquals(5, internador.tamano()); // 3 ciudades + 2 vuelos
+        assertFalse(columnas.agregar(originales.get(7)), "Número repetido");
+        List<Reserva> vistas = columnas.stream().collect(Collectors.toList());
+        for (int i = 0; i < originales.size(); i++) {
+            Reserva original = originales.get(i);
+            Reserva vista = vistas.get(i);
+            assertEquals(original.getNumeroReserva(), vista.getNumeroReserva());
+            assertEquals(original.getCodigoReserva(), vista.getCodigoReserva());
+            assertEquals(original.getAsientoCompleto(), vista.getAsientoCompleto());
+            assertEquals(original.getOrigen(), vista.getOrigen());
+            assertEquals(original.getDestino(), vista.getDestino());
+            assertEquals(original.getCodigoVuelo(), vista.getCodigoVuelo());
+            assertEquals(original.toString(), vista.toString());
+        }
+
+        Reserva quitada = originales.get(150);
+        assertTrue(columnas.eliminar(quitada.getNumeroReserva()));
+        assertFalse(columnas.contiene(quitada.getNumeroReserva()));
+        assertNull(columnas.buscar(quitada.getNumeroReserva()));
+        assertEquals(originales.get(151).getAsientoCompleto(), columnas.buscar(originales.get(151).getNumeroReserva()).getAsientoCompleto());
+        assertThrows(IllegalArgumentException.class,
+                     () -> columnas.agregar(1L, 'a', 1, "Buenos Aires", "Córdoba", "AR101"));
+    }
+
+    @Test
+    void testOcupaUnOrdenDeMagnitudMenosQueLosObjetos() {
+        ReservasColumnares columnas = new ReservasColumnares();
+        int cantidad = 200_000;
+        for (int i = 0; i < cantidad; i++) {
+            columnas.agregar(5_000_000L + i, (char) ('A' + i % 3), 1 + i % 10, "Buenos Aires", "Córdoba", "AR101");
+        }
+        columnas.compactar();
+        assertEquals(cantidad, columnas.tamano());
+        // Columnas más una tabla de tramos y un internador de tamaño fijo
+        assertTrue(columnas.bytesOcupados() <= 12L * cantidad + 1024, "Bytes: " + columnas.bytesOcupados());
+        assertEquals('C', columnas.getSeccion(columnas.fila(5_000_002L)));
+        assertEquals(3, columnas.getNumeroAsiento(columnas.fila(5_000_002L)));
+    }
+
+    @Test
+    void testArchivaLaFlotaConMuchosTramosEInternadorCompartido() {
+        InternadorTextos internador = new InternadorTextos();
+        // Internado desde varios hilos: cada texto recibe un único identificador
+        int[] ids = IntStream.range(0, 4000).parallel().map(i -> internador.id("Ciudad" + (i % 1000))).toArray();
+        assertEquals(1000, internador.tamano());
+        for (int i = 0; i < ids.length; i++) assertEquals("Ciudad" + (i % 1000), internador.texto(ids[i]));
+
+        List<Vuelo> vuelos = new ArrayList<>();
+        for (int v = 0; v < 300; v++) {
+            Vuelo vuelo = new Vuelo("AR" + v, "Ciudad" + v, "Ciudad" + (v + 1));
+            vuelo.getReservas().insertar(new Reserva("A1", vuelo.getOrigen(), vuelo.getDestino(), vuelo.getCodigo()));
+            vuelo.getReservas().insertar(new Reserva("B2", vuelo.getOrigen(), vuelo.getDestino(), vuelo.getCodigo()));
+            vuelos.add(vuelo);
+        }
+        ReservasColumnares archivo = InstantaneaFlota.de(vuelos).archivar(internador);
+        assertEquals(600, archivo.tamano());
+        assertEquals(300, archivo.getCantidadTramos());
+        for (Vuelo vuelo : vuelos) {
+            for (Reserva reserva : vuelo.getReservas()) {
+                Reserva vista = archivo.buscar(reserva.getNumeroReserva());
+                assertEquals(reserva.toString(), vista.toString());
+            }
+        }
+        assertTrue(archivo.bytesOcupados() > internador.bytesOcupados());
+    }
+}
@@ -0,0 +1,81 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+class SecuenciaReservasTest {
+    @Test
+    void testNumerosUnicosDesdeVariosHilos() {
+        SecuenciaReservas secuencia = new SecuenciaReservas(1000);
+        Set<Long> vistos = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> assertTrue(vistos.add(secuencia.siguiente())));
+        assertEquals(100_000, vistos.size());
+        assertTrue(vistos.stream().allMatch(n -> n >= 1000 && n < secuencia.getProximoLibre()));
+
+        // En un mismo hilo los números son consecutivos dentro del bloque y siempre crecientes
+        long anterior = secuencia.siguiente();
+        for (int i = 0; i < 500; i++) {
+            long actual = secuencia.siguiente();
+            assertTrue(actual > anterior);
+            anterior = actual;
+        }
+    }
+
+    @Test
+    void testElTechoPersistidoEvitaRepetirTrasReiniciar(@TempDir Path directorio) throws IOException {
+        Path archivo = directorio.resolve("reservas.secuencia");
+        SecuenciaReservas primera = SecuenciaReservas.abrir(archivo, 1000, 8);
+        assertEquals(1000 + 8 * 16, leerTecho(archivo), "El primer margen se escribe al abrir");
+        long[] entregados = new long[100];
+        for (int i = 0; i < entregados.length; i++) entregados[i] = primera.siguiente();
+        assertEquals(1000, entregados[0]);
+        assertTrue(Files.exists(archivo));
+
+        SecuenciaReservas reabierta = SecuenciaReservas.abrir(archivo, 1000, 8);
+        long maximo = Arrays.stream(entregados).max().getAsLong();
+        assertTrue(reabierta.siguiente() > maximo);
+
+        // Otro archivo: el de arriba todavía puede recibir el adelanto en segundo plano de las secuencias abiertas
+        Path corrupto = directorio.resolve("corrupto.secuencia");
+        Files.write(corrupto, "no es un número".getBytes("UTF-8"));
+        assertThrows(IOException.class, () -> SecuenciaReservas.abrir(corrupto, 1000, 8));
+    }
+
+    @Test
+    void testElTechoSeAdelantaEnSegundoPlano(@TempDir Path directorio) throws Exception {
+        Path archivo = directorio.resolve("reservas.secuencia");
+        SecuenciaReservas secuencia = SecuenciaReservas.abrir(archivo, 0, 8);
+        long techoInicial = leerTecho(archivo);
+        // Pasada la mitad del margen (64 de 128), el techo se adelanta sin esperar a que se agote
+        for (int i = 0; i < 72; i++) secuencia.siguiente();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (leerTecho(archivo) == techoInicial && System.nanoTime() < limite) Thread.sleep(5);
+        assertTrue(leerTecho(archivo) >= secuencia.getProximoLibre() + 8 * 16 - 8, "Techo " + leerTecho(archivo));
+    }
+
+    private static long leerTecho(Path archivo) throws IOException {
+        return Long.parseLong(new String(Files.readAllBytes(archivo), "UTF-8").trim());
+    }
+
+    @Test
+    void testReservaUsaElGeneradorConfigurado() {
+        GeneradorIdsReserva original = Reserva.getGeneradorIds();
+        try {
+            Reserva.setGeneradorIds(() -> 123_456L);
+            Reserva reserva = new Reserva("C4", "CiudadA", "CiudadB", "V1");
+            assertEquals(123_456L, reserva.getNumeroReserva());
+            assertEquals("RES-123456", reserva.getCodigoReserva());
+        } finally {
+            Reserva.setGeneradorIds(original);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.aerolineaspc21.modelo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class VueloTest {
+    @Test
+    void testMismaSemillaMismaSecuenciaQueLaAsignacionOriginal() {
+        for (long semilla = 0; semilla < 50; semilla++) {
+            Vuelo vuelo = new Vuelo("AR101", "Buenos Aires", "Córdoba", semilla);
+            List<String> esperada = secuenciaOriginal(semilla);
+            List<String> obtenida = new ArrayList<>();
+            for (int i = 0; i < 31; i++) obtenida.add(vuelo.asignarAsientoAleatorioBalanceado());
+            assertEquals(esperada, obtenida, "Semilla " + semilla);
+        }
+    }
+
+    @Test
+    void testBalanceYOcupacion() {
+        Vuelo vuelo = new Vuelo("AR102", "Buenos Aires", "Bariloche", 42);
+        Set<String> asignados = new HashSet<>();
+        for (int i = 1; i <= 30; i++) {
+            String asiento = vuelo.asignarAsientoAleatorioBalanceado();
+            assertTrue(asignados.add(asiento), "Asiento repetido " + asiento);
+            assertTrue(vuelo.estaOcupado(asiento));
+            Map<Character, Integer> ocupacion = vuelo.getOcupacionPorSeccion();
+            int maximo = Collections.max(ocupacion.values());
+            int minimo = Collections.min(ocupacion.values());
+            assertTrue(maximo - minimo <= 1, "Desbalance tras " + i + " asientos: " + ocupacion);
+            assertEquals(i, vuelo.getTotalAsientosOcupados());
+        }
+        assertNull(vuelo.asignarAsientoAleatorioBalanceado());
+        assertTrue(vuelo.tieneAltaOcupacion());
+        assertEquals(10, vuelo.getOcupacionSeccion('B'));
+        assertFalse(vuelo.estaOcupado("D1"));
+    }
+
+    @Test
+    void testCabinaConfigurableConSeccionesGrandesYAsientosBloqueados() {
+        DistribucionCabina cabina = new DistribucionCabina(Arrays.asList(
+                new DistribucionCabina.Seccion("Business", 5, 4, 1, 4),
+                new DistribucionCabina.Seccion("Premium", 6, 6),
+                new DistribucionCabina.Seccion("Economy", 40, 9, 64, 65, 200),
+                new DistribucionCabina.Seccion("Economy", 40, 9)));
+        assertEquals(18 + 36 + 357 + 360, cabina.getTotalAsientos());
+        assertEquals(3, cabina.getSeccion('C').fila(19));
+
+        Vuelo vuelo = new Vuelo("AR900", "Buenos Aires", "Madrid", cabina, 11);
+        assertEquals(Arrays.asList('A', 'B', 'C', 'D'), new ArrayList<>(vuelo.getOcupacionPorSeccion().keySet()));
+        Set<String> asignados = new HashSet<>();
+        for (int i = 1; i <= cabina.getTotalAsientos(); i++) {
+            String asiento = vuelo.asignarAsientoAleatorioBalanceado();
+            assertTrue(asignados.add(asiento), "Asiento repetido " + asiento);
+            assertTrue(cabina.esVendible(asiento.charAt(0), Integer.parseInt(asiento.substring(1))), asiento);
+
+            int maximo = Integer.MIN_VALUE;
+            int minimo = Integer.MAX_VALUE;
+            for (Map.Entry<Character, Integer> entrada : vuelo.getOcupacionPorSeccion().entrySet()) {
+                if (entrada.getValue() < cabina.getSeccion(entrada.getKey()).getDisponibles()) {
+                    maximo = Math.max(maximo, entrada.getValue());
+                    minimo = Math.min(minimo, entrada.getValue());
+                }
+            }
+            assertTrue(maximo == Integer.MIN_VALUE || maximo - minimo <= 1, "Desbalance tras " + i + " asientos");
+        }
+        assertNull(vuelo.asignarAsientoAleatorioBalanceado());
+        assertFalse(asignados.contains("A1") || asignados.contains("C64") || asignados.contains("C200"));
+        assertTrue(asignados.contains("C360"));
+        assertEquals(100.0, vuelo.calcularOcupacionPorcentual(), 1e-9);
+
+        InstantaneaVuelo foto = vuelo.instantanea();
+        assertSame(cabina, foto.getCabina());
+        assertEquals(cabina.getTotalAsientos(), foto.getTotalAsientosOcupados());
+        assertEquals(asignados, foto.getAsientosOcupados());
+        assertEquals(vuelo.getOcupacionPorSeccion(), foto.getOcupacionPorSeccion());
+        assertTrue(foto.estaOcupado("C360"));
+        assertFalse(foto.estaOcupado("C64"), "Bloqueado");
+        assertFalse(foto.estaOcupado("E1"));
+
+        assertThrows(IllegalArgumentException.class, () -> new DistribucionCabina.Seccion("X", 2, 3, 7));
+        assertThrows(IllegalArgumentException.class, () -> new DistribucionCabina.Seccion("X", 100, 11));
+        assertThrows(IllegalArgumentException.class, () -> DistribucionCabina.uniforme(27, 10));
+    }
+
+    @Test
+    void testAsignacionConcurrenteSinRepetirNiDesbalancear() throws Exception {
+        DistribucionCabina cabina = DistribucionCabina.uniforme(6, 100);
+        int hilos = 16;
+        int porHilo = 25; // 400 de 600: termina a mitad de una vuelta de secciones
+        for (int ronda = 0; ronda < 5; ronda++) {
+            Vuelo vuelo = new Vuelo("AR700", "Buenos Aires", "Salta", cabina);
+            Set<String> asignados = ConcurrentHashMap.newKeySet();
+            ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(ejecutor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < porHilo; i++) {
+                        String asiento = vuelo.asignarAsientoAleatorioBalanceado();
+                        assertTrue(asignados.add(asiento), "Asiento repetido " + asiento);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) tarea.get(30, TimeUnit.SECONDS);
+            ejecutor.shutdown();
+
+            assertEquals(hilos * porHilo, asignados.size());
+            assertEquals(hilos * porHilo, vuelo.getTotalAsientosOcupados());
+            for (String asiento : asignados) assertTrue(vuelo.estaOcupado(asiento));
+            Map<Character, Integer> ocupacion = vuelo.getOcupacionPorSeccion();
+            assertTrue(Collections.max(ocupacion.values()) - Collections.min(ocupacion.values()) <= 1,
+                       "Desbalance: " + ocupacion);
+            assertEquals(ocupacion, vuelo.instantanea().getOcupacionPorSeccion());
+        }
+    }
+
+    @Test
+    void testCancelacionLiberaAsientosYReequilibra() {
+        Vuelo vuelo = new Vuelo("AR103", "Córdoba", "Mendoza", 5);
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Reserva r = new Reserva(vuelo.asignarAsientoAleatorioBalanceado(), "Córdoba", "Mendoza", "AR103");
+            vuelo.getReservas().insertar(r);
+            reservas.add(r);
+        }
+
+        Reserva cancelada = reservas.get(7);
+        assertSame(cancelada, vuelo.cancelarReserva(cancelada.getCodigoReserva()));
+        assertNull(vuelo.cancelarReserva(cancelada.getNumeroReserva()), "Ya estaba cancelada");
+        assertNull(vuelo.cancelarReserva("XYZ"));
+        assertEquals(29, vuelo.getTotalAsientosOcupados());
+        assertFalse(vuelo.estaOcupado(cancelada.getAsientoCompleto()));
+        assertNull(vuelo.getReservas().buscarPorAsiento(cancelada.getAsientoCompleto()));
+        assertEquals(cancelada.getAsientoCompleto(), vuelo.asignarAsientoAleatorioBalanceado());
+
+        // Lote: todas las reservas de la sección A más una que no es del vuelo
+        List<Long> lote = new ArrayList<>();
+        for (Reserva r : reservas) if (r.getSeccion() == 'A') lote.add(r.getNumeroReserva());
+        lote.add(-1L);
+        List<Reserva> canceladas = vuelo.cancelarReservas(lote);
+        assertEquals(10, canceladas.size());
+        assertEquals(0, vuelo.getOcupacionSeccion('A'));
+        assertEquals(20, vuelo.getTotalAsientosOcupados());
+        assertEquals(19, vuelo.getReservas().tamano());
+        for (int i = 0; i < 10; i++) assertEquals('A', vuelo.asignarAsientoAleatorioBalanceado().charAt(0));
+        assertNull(vuelo.asignarAsientoAleatorioBalanceado());
+    }
+
+    @Test
+    void testLaInstantaneaNoMuestraReservasSinAsiento() throws Exception {
+        Vuelo vuelo = new Vuelo("AR106", "Córdoba", "Salta", DistribucionCabina.uniforme(26, 600));
+        int hilos = 4;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos + 1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(ejecutor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 20000; i++) {
+                    String asiento = vuelo.asignarAsientoAleatorioBalanceado();
+                    if (asiento == null) continue;
+                    Reserva reserva = new Reserva(asiento, "Córdoba", "Salta", "AR106");
+                    vuelo.getReservas().insertar(reserva);
+                    vuelo.cancelarReserva(reserva.getNumeroReserva());
+                }
+                return null;
+            }));
+        }
+        Future<Integer> fotos = ejecutor.submit(() -> {
+            largada.await();
+            int revisadas = 0;
+            for (int i = 0; i < 2000; i++) {
+                InstantaneaVuelo foto = vuelo.instantanea();
+                for (Reserva reserva : foto.getReservas()) {
+                    assertTrue(foto.estaOcupado(reserva.getAsientoCompleto()), reserva + " sin asiento en la foto");
+                    revisadas++;
+                }
+            }
+            return revisadas;
+        });
+        largada.countDown();
+        for (Future<?> tarea : tareas) tarea.get(30, TimeUnit.SECONDS);
+        fotos.get(30, TimeUnit.SECONDS);
+        ejecutor.shutdown();
+        assertEquals(0, vuelo.getTotalAsientosOcupados());
+        assertEquals(0, vuelo.instantanea().getTotalAsientosOcupados());
+    }
+
+    @Test
+    void testRestaurarConservaRetencionesYNoVendeDosVeces() {
+        Vuelo vuelo = new Vuelo("AR104", "Salta", "Jujuy", DistribucionCabina.uniforme(1, 2));
+        RetencionAsiento descartada = vuelo.retenerAsiento(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        InstantaneaVuelo conRetencion = vuelo.instantanea();
+        assertEquals(1, conRetencion.getTotalAsientosOcupados(), "La retención cuenta como ocupada en la foto");
+        descartada.liberar();
+        vuelo.restaurar(conRetencion);
+        assertEquals(0, vuelo.getTotalAsientosOcupados(), "Los asientos sin reserva de la foto no se restauran");
+
+        Reserva reserva = new Reserva(vuelo.asignarAsientoAleatorioBalanceado(), "Salta", "Jujuy", "AR104");
+        vuelo.getReservas().insertar(reserva);
+        InstantaneaVuelo foto = vuelo.instantanea();
+        RetencionAsiento retenida = vuelo.retenerAsiento(System.nanoTime() + TimeUnit.HOURS.toNanos(1)); // El otro asiento
+        vuelo.cancelarReserva(reserva.getNumeroReserva());
+        vuelo.restaurar(foto);
+        assertSame(reserva, vuelo.getReservas().buscarPorAsiento(reserva.getAsientoCompleto()));
+        assertTrue(vuelo.estaOcupado(retenida.getAsiento()), "La retención sobrevive a la restauración");
+        assertEquals(2, vuelo.getTotalAsientosOcupados());
+        assertNull(vuelo.asignarAsientoAleatorioBalanceado());
+        assertTrue(retenida.tomar());
+        assertEquals(retenida.getAsiento(), retenida.confirmar().getAsientoCompleto());
+        assertEquals(2, vuelo.getReservas().tamano());
+
+        Vuelo unico = new Vuelo("AR105", "Salta", "Jujuy", DistribucionCabina.uniforme(1, 1));
+        Reserva vendida = new Reserva(unico.asignarAsientoAleatorioBalanceado(), "Salta", "Jujuy", "AR105");
+        unico.getReservas().insertar(vendida);
+        InstantaneaVuelo fotoUnico = unico.instantanea();
+        unico.cancelarReserva(vendida.getNumeroReserva());
+        RetencionAsiento enConflicto = unico.retenerAsiento(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        assertEquals(vendida.getAsientoCompleto(), enConflicto.getAsiento());
+        assertThrows(IllegalStateException.class, () -> unico.restaurar(fotoUnico), "Vendería el asiento dos veces");
+        assertEquals(0, unico.getReservas().tamano(), "No se cambió nada");
+        assertEquals(1, unico.getTotalAsientosOcupados());
+        enConflicto.liberar();
+        unico.restaurar(fotoUnico);
+        assertSame(vendida, unico.getReservas().buscarPorAsiento(vendida.getAsientoCompleto()));
+        assertEquals(1, unico.getTotalAsientosOcupados());
+    }
+
+    @Test
+    void testOcuparElUltimoAsientoNoTrabaLaAsignacion() throws Exception {
+        for (int ronda = 0; ronda < 200; ronda++) {
+            AsignadorAsientos asignador = new AsignadorAsientos(DistribucionCabina.uniforme(2, 3));
+            CountDownLatch largada = new CountDownLatch(1);
+            ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+            Future<Integer> asignados = ejecutor.submit(() -> {
+                largada.await();
+                int cantidad = 0;
+                while (asignador.asignarBalanceado(new Random(cantidad)) >= 0) cantidad++;
+                return cantidad;
+            });
+            Future<Integer> ocupados = ejecutor.submit(() -> {
+                largada.await();
+                int cantidad = 0;
+                for (int s = 0; s < 2; s++) {
+                    for (int numero = 1; numero <= 3; numero++) if (asignador.ocupar(s, numero)) cantidad++;
+                }
+                return cantidad;
+            });
+            largada.countDown();
+            assertEquals(6, asignados.get(10, TimeUnit.SECONDS) + ocupados.get(10, TimeUnit.SECONDS));
+            ejecutor.shutdown();
+            assertEquals(3, asignador.getOcupacion(0));
+            assertEquals(3, asignador.getOcupacion(1));
+        }
+    }
+
+    /** Asignación original (colecciones y cadenas), como referencia de la secuencia aleatoria. */
+    private static List<String> secuenciaOriginal(long semilla) {
+        Random random = new Random(semilla);
+        Map<Character, Integer> ocupacionPorSeccion = new HashMap<>();
+        for (char seccion = 'A'; seccion <= 'C'; seccion++) ocupacionPorSeccion.put(seccion, 0);
+        Set<String> asientosOcupados = new HashSet<>();
+        List<String> secuencia = new ArrayList<>();
+        for (int i = 0; i < 31; i++) {
+            if (asientosOcupados.size() >= 30) {
+                secuencia.add(null);
+                continue;
+            }
+            int minOcupacion = Collections.min(ocupacionPorSeccion.values());
+            List<Character> seccionesMenosCargadas = new ArrayList<>();
+            for (Map.Entry<Character, Integer> entry : ocupacionPorSeccion.entrySet()) {
+                if (entry.getValue() == minOcupacion) seccionesMenosCargadas.add(entry.getKey());
+            }
+            char seccionElegida = seccionesMenosCargadas.get(random.nextInt(seccionesMenosCargadas.size()));
+            List<String> libres = new ArrayList<>();
+            for (int num = 1; num <= 10; num++) {
+                String asiento = seccionElegida + String.valueOf(num);
+                if (!asientosOcupados.contains(asiento)) libres.add(asiento);
+            }
+            String asignado = libres.get(random.nextInt(libres.size()));
+            asientosOcupados.add(asignado);
+            ocupacionPorSeccion.put(seccionElegida, ocupacionPorSeccion.get(seccionElegida) + 1);
+            secuencia.add(asignado);
+        }
+        return secuencia;
+    }
+}